@@ -3,6 +3,9 @@
 ########################################################################################################################
 # Create a runnable jar files from the java-examples' Gradle distribution tarball.
 #
+# Each bot jar gets an AppCDS archive from a training run against a local, stub API daemon, and a launch script using
+# the archive.  Set the APPCDS_TRAINING_PORT environment variable if the default port (19998) is in use.
+#
 # Usage:  $ ./create-bot-jars.sh    0.0.1-SNAPSHOT
 #
 # Should be called from this directory.
@@ -20,6 +23,8 @@ cd "$SCRIPT_DIR"
 export GRADLE_DIST_NAME="java-examples-$VERSION"
 export GRADLE_DIST_TARBALL="$GRADLE_DIST_NAME.tar"
 export GRADLE_DIST_PATH="../build/distributions/$GRADLE_DIST_TARBALL"
+# The training daemon is built by the Gradle build, but not included in the distribution.
+TRAINING_DAEMON_JAR="$SCRIPT_DIR/../build/libs/appcds-training-daemon-$VERSION.jar"
 echo "Build runnable bot jars from $GRADLE_DIST_PATH"
 ls -l "$GRADLE_DIST_PATH"
 
@@ -40,8 +45,38 @@ extractdistribution() {
   cd "$SCRIPT_DIR"
 }
 
+starttrainingdaemon() {
+  # Start the stub API daemon the bots' AppCDS training runs are made against, and stop it when this script exits.
+  if [[ ! -f "$TRAINING_DAEMON_JAR" ]]; then
+    echo "$TRAINING_DAEMON_JAR not found;  bot jars will not have AppCDS archives."
+    unset APPCDS_TRAINING_PORT
+    return
+  fi
+  cd "$SCRIPT_DIR/$GRADLE_DIST_NAME"
+  java -cp "lib/*:$TRAINING_DAEMON_JAR" bisq.bots.AppCdsTrainingDaemon "$APPCDS_TRAINING_PORT" \
+    > appcds-training-daemon.log 2>&1 &
+  TRAINING_DAEMON_PID=$!
+  trap 'kill $TRAINING_DAEMON_PID 2> /dev/null; rm -f "$SCRIPT_DIR/$GRADLE_DIST_NAME/appcds-training-daemon.log"' EXIT
+  for i in {1..50}; do
+    if grep -q "listening" appcds-training-daemon.log; then
+      echo "AppCDS training daemon is listening on port $APPCDS_TRAINING_PORT."
+      export APPCDS_TRAINING_PORT
+      cd "$SCRIPT_DIR"
+      return
+    fi
+    sleep 0.2
+  done
+  echo "AppCDS training daemon did not start;  bot jars will not have AppCDS archives."
+  cat appcds-training-daemon.log
+  unset APPCDS_TRAINING_PORT
+  cd "$SCRIPT_DIR"
+}
+
 extractdistribution
 
+APPCDS_TRAINING_PORT="${APPCDS_TRAINING_PORT:-19998}"
+starttrainingdaemon
+
 ./create-runnable-jar.sh "$GRADLE_DIST_NAME" bisq.bots.TakeBestPricedOfferToBuyBtc
 ./create-runnable-jar.sh "$GRADLE_DIST_NAME" bisq.bots.TakeBestPricedOfferToSellBtc
 
@@ -7,6 +7,10 @@
 #     `$ ./create-runnable-jar.sh  java-examples-0.0.1-SNAPSHOT  bisq.bots.TakeBestPricedOfferToSellBtc`
 #
 # Should be called from create-bot-jars.sh, with extracts and arranges the Gradle distribution for this script.
+#
+# If the APPCDS_TRAINING_PORT environment variable is set to the port of a running bisq.bots.AppCdsTrainingDaemon, the
+# bot is run for one poll cycle against it to create the jar's AppCDS archive.  A launch script using the archive (if
+# created) is written next to the jar.
 ########################################################################################################################
 
 GRADLE_DIST_NAME="$1"
@@ -59,6 +63,62 @@ writemanifest() {
 	cat MANIFEST.txt
 }
 
+gettrainingpaymentaccountid() {
+  # Payment account ids known to bisq.bots.AppCdsTrainingDaemon.  BSQ Swap bots do not configure a paymentAccountId.
+  SIMPLE_CLASSNAME="$1"
+  if [[ "$SIMPLE_CLASSNAME" == *Xmr ]]; then
+    echo "appcds-training-xmr-account"
+  else
+    echo "appcds-training-usd-account"
+  fi
+}
+
+createappcdsarchive() {
+  # Run the bot through startup and one dryrun poll cycle against the training daemon;  the bot shuts itself down at the
+  # end of the poll cycle.  The JVM writes every class loaded during the run to the archive when the bot exits.
+  TRAINING_CONF="$JAR_BASENAME-appcds-training.conf"
+  TRAINING_LOG="$JAR_BASENAME-appcds-training.log"
+  sed -e "s/^paymentAccountId=.*/paymentAccountId=$(gettrainingpaymentaccountid "$SIMPLE_CLASSNAME")/" \
+    -e "s/^pollingInterval=.*/pollingInterval=1000/" \
+    "$JAR_BASENAME.conf" > "$TRAINING_CONF"
+  rm -f "$JAR_BASENAME.jsa"
+  echo "Create AppCDS archive $JAR_BASENAME.jsa from a training run against the stub API daemon."
+  # The archive records the jar's absolute path, and is only used when the jar is run from the same path.
+  java -XX:ArchiveClassesAtExit="$JAR_BASENAME.jsa" -jar "$PWD/$JAR_BASENAME.jar" \
+    --port="$APPCDS_TRAINING_PORT" \
+    --password=appcds-training \
+    --wallet-password=appcds-training \
+    --conf="$TRAINING_CONF" \
+    --dryrun=true \
+    --max-poll-cycles=1 > "$TRAINING_LOG" 2>&1
+  rm "$TRAINING_CONF"
+  if [[ -f "$JAR_BASENAME.jsa" ]]; then
+    ls -l "$JAR_BASENAME.jsa"
+    rm "$TRAINING_LOG"
+  else
+    echo "AppCDS training run did not create $JAR_BASENAME.jsa;  see $TRAINING_LOG"
+  fi
+}
+
+writelaunchscript() {
+  # Write a script running the jar with its AppCDS archive, if there is one.  If the archive cannot be used, e.g.,
+  # because the directory was moved or a different JDK is used, the JVM quietly loads all classes from the jars.
+  LAUNCH_SCRIPT="$JAR_BASENAME.sh"
+  {
+    echo "#! /bin/bash"
+    echo "# Run $JAR_BASENAME.jar with its AppCDS archive.  All arguments are passed to the bot, e.g.,"
+    echo "#     \$ ./$LAUNCH_SCRIPT --password=xyz --conf=$JAR_BASENAME.conf --dryrun=true"
+    echo "DIST_DIR=\$(cd \$(dirname \"\${BASH_SOURCE[0]}\") && pwd)"
+    echo "if [[ -f \"\$DIST_DIR/$JAR_BASENAME.jsa\" ]]; then"
+    echo "  exec java -XX:SharedArchiveFile=\"\$DIST_DIR/$JAR_BASENAME.jsa\" -Xshare:auto -jar \"\$DIST_DIR/$JAR_BASENAME.jar\" \"\$@\""
+    echo "else"
+    echo "  exec java -jar \"\$DIST_DIR/$JAR_BASENAME.jar\" \"\$@\""
+    echo "fi"
+  } > "$LAUNCH_SCRIPT"
+  chmod +x "$LAUNCH_SCRIPT"
+  echo "Wrote launch script $LAUNCH_SCRIPT"
+}
+
 SIMPLE_CLASSNAME=$(getsimpleclassname "$FULLY_QUALIFIED_CLASSNAME")
 # echo "SIMPLE_CLASSNAME = $SIMPLE_CLASSNAME"
 
@@ -95,5 +155,10 @@ jar uf "$JAR_BASENAME.jar" "$MAINCLASS_FILE_PATH"
 # Remove workarea.
 rm -rf bisq
 
+if [[ -n "$APPCDS_TRAINING_PORT" ]]; then
+  createappcdsarchive
+fi
+writelaunchscript
+
 echo "Runnable $JAR_BASENAME.jar is ready to use."
-echo "Usage:  $ java -jar $JAR_BASENAME.jar --password=xyz --conf=$JAR_BASENAME.conf --dryrun=true"
+echo "Usage:  $ ./$JAR_BASENAME.sh --password=xyz --conf=$JAR_BASENAME.conf --dryrun=true"
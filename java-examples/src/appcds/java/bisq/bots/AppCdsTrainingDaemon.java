@@ -0,0 +1,225 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import bisq.proto.grpc.*;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import protobuf.PaymentAccount;
+import protobuf.PaymentMethod;
+import protobuf.TradeCurrency;
+
+import java.io.IOException;
+
+/**
+ * A local stand-in for the API daemon, answering a bot's requests with canned replies during the AppCDS training run
+ * made by scripts/create-runnable-jar.sh.  The bot under training runs through startup and one poll cycle in dryrun
+ * mode, loading the gRPC, Netty, protobuf and logback classes a real bot session loads, and shuts itself down at the
+ * end of the poll cycle, as told by its '--max-poll-cycles=1' option.  The JVM writes the classes it loaded to the
+ * bot's AppCDS archive as it exits.
+ * <p>
+ * This daemon is built from its own source set, into build/libs/appcds-training-daemon-VERSION.jar, and is not part
+ * of the bots' distribution.
+ * <p>
+ * Never trade against this daemon:  it has no wallet, and its one offer per getoffers request can never pass a bot's
+ * take criteria because no payment account uses the offer's payment method.  The bot's training configuration must use
+ * one of the payment account ids below.
+ * <pre>
+ *     AppCdsTrainingDaemon  port
+ * </pre>
+ */
+@Slf4j
+public class AppCdsTrainingDaemon {
+
+    private static final String FIAT_PAYMENT_ACCOUNT_ID = "appcds-training-usd-account";
+    private static final String XMR_PAYMENT_ACCOUNT_ID = "appcds-training-xmr-account";
+    private static final String BSQ_SWAP_PAYMENT_ACCOUNT_ID = "appcds-training-bsq-swap-account";
+    private static final String OFFER_PAYMENT_METHOD_ID = "APPCDS_TRAINING";
+
+    private final Server server;
+
+    public AppCdsTrainingDaemon(int port) {
+        this.server = ServerBuilder.forPort(port)
+                .addService(new GetVersionService())
+                .addService(new PaymentAccountsService())
+                .addService(new WalletsService())
+                .addService(new PriceService())
+                .addService(new OffersService())
+                .addService(new TradesService())
+                .addService(new ShutdownServerService())
+                .build();
+    }
+
+    public void start() throws IOException {
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::shutdownNow));
+        log.info("AppCDS training daemon is listening on port {}.", server.getPort());
+    }
+
+    private static class GetVersionService extends GetVersionGrpc.GetVersionImplBase {
+        @Override
+        public void getVersion(GetVersionRequest request, StreamObserver<GetVersionReply> responseObserver) {
+            reply(responseObserver, GetVersionReply.newBuilder().setVersion("appcds-training").build());
+        }
+    }
+
+    private static class PaymentAccountsService extends PaymentAccountsGrpc.PaymentAccountsImplBase {
+        @Override
+        public void getPaymentAccounts(GetPaymentAccountsRequest request,
+                                       StreamObserver<GetPaymentAccountsReply> responseObserver) {
+            reply(responseObserver, GetPaymentAccountsReply.newBuilder()
+                    .addPaymentAccounts(toPaymentAccount(FIAT_PAYMENT_ACCOUNT_ID, "ZELLE", "USD"))
+                    .addPaymentAccounts(toPaymentAccount(XMR_PAYMENT_ACCOUNT_ID, "BLOCK_CHAINS", "XMR"))
+                    .addPaymentAccounts(toPaymentAccount(BSQ_SWAP_PAYMENT_ACCOUNT_ID, "BSQ_SWAP", "BSQ"))
+                    .build());
+        }
+
+        private PaymentAccount toPaymentAccount(String id, String paymentMethodId, String currencyCode) {
+            var tradeCurrency = TradeCurrency.newBuilder().setCode(currencyCode).setName(currencyCode).build();
+            return PaymentAccount.newBuilder()
+                    .setId(id)
+                    .setAccountName("AppCDS Training " + currencyCode)
+                    .setPaymentMethod(PaymentMethod.newBuilder().setId(paymentMethodId).build())
+                    .addTradeCurrencies(tradeCurrency)
+                    .setSelectedTradeCurrency(tradeCurrency)
+                    .build();
+        }
+    }
+
+    private static class WalletsService extends WalletsGrpc.WalletsImplBase {
+        @Override
+        public void getNetwork(GetNetworkRequest request, StreamObserver<GetNetworkReply> responseObserver) {
+            reply(responseObserver, GetNetworkReply.newBuilder().setNetwork("regtest").build());
+        }
+
+        @Override
+        public void getBalances(GetBalancesRequest request, StreamObserver<GetBalancesReply> responseObserver) {
+            reply(responseObserver, GetBalancesReply.newBuilder()
+                    .setBalances(BalancesInfo.newBuilder()
+                            .setBsq(BsqBalanceInfo.newBuilder().build())
+                            .setBtc(BtcBalanceInfo.newBuilder().build()))
+                    .build());
+        }
+
+        @Override
+        public void getTxFeeRate(GetTxFeeRateRequest request, StreamObserver<GetTxFeeRateReply> responseObserver) {
+            reply(responseObserver, GetTxFeeRateReply.newBuilder()
+                    .setTxFeeRateInfo(TxFeeRateInfo.newBuilder()
+                            .setMinFeeServiceRate(1)
+                            .setFeeServiceRate(1)
+                            .setLastFeeServiceRequestTs(System.currentTimeMillis()))
+                    .build());
+        }
+
+        @Override
+        public void lockWallet(LockWalletRequest request, StreamObserver<LockWalletReply> responseObserver) {
+            reply(responseObserver, LockWalletReply.newBuilder().build());
+        }
+
+        @Override
+        public void unlockWallet(UnlockWalletRequest request, StreamObserver<UnlockWalletReply> responseObserver) {
+            reply(responseObserver, UnlockWalletReply.newBuilder().build());
+        }
+    }
+
+    private static class PriceService extends PriceGrpc.PriceImplBase {
+        @Override
+        public void getMarketPrice(MarketPriceRequest request, StreamObserver<MarketPriceReply> responseObserver) {
+            var price = request.getCurrencyCode().equalsIgnoreCase("XMR") ? 0.005 : 40_000.00;
+            reply(responseObserver, MarketPriceReply.newBuilder().setPrice(price).build());
+        }
+
+        @Override
+        public void getAverageBsqTradePrice(GetAverageBsqTradePriceRequest request,
+                                            StreamObserver<GetAverageBsqTradePriceReply> responseObserver) {
+            reply(responseObserver, GetAverageBsqTradePriceReply.newBuilder()
+                    .setPrice(AverageBsqTradePrice.newBuilder().setBtcPrice("0.00003000").setUsdPrice("1.20"))
+                    .build());
+        }
+    }
+
+    private static class OffersService extends OffersGrpc.OffersImplBase {
+        @Override
+        public void getOffers(GetOffersRequest request, StreamObserver<GetOffersReply> responseObserver) {
+            reply(responseObserver, GetOffersReply.newBuilder()
+                    .addOffers(toOffer(request.getDirection(), request.getCurrencyCode()))
+                    .build());
+        }
+
+        private OfferInfo toOffer(String direction, String currencyCode) {
+            var isFiatOffer = !currencyCode.equalsIgnoreCase("XMR") && !currencyCode.equalsIgnoreCase("BSQ");
+            var isBsqSwapOffer = currencyCode.equalsIgnoreCase("BSQ");
+            var offer = OfferInfo.newBuilder()
+                    .setId("appcds-training-offer-" + currencyCode.toLowerCase())
+                    .setDirection(direction.toUpperCase())
+                    .setAmount(10_000_000)
+                    .setMinAmount(10_000_000)
+                    .setPaymentMethodId(isBsqSwapOffer ? "BSQ_SWAP" : OFFER_PAYMENT_METHOD_ID)
+                    .setPaymentMethodShortName(isBsqSwapOffer ? "BSQ_SWAP" : OFFER_PAYMENT_METHOD_ID)
+                    .setOwnerNodeAddress("appcds-training.onion:9999")
+                    .setDate(System.currentTimeMillis())
+                    .setIsBsqSwapOffer(isBsqSwapOffer)
+                    .setIsActivated(true);
+            if (isFiatOffer) {
+                offer.setBaseCurrencyCode("BTC")
+                        .setCounterCurrencyCode(currencyCode.toUpperCase())
+                        .setPrice("40000.0000")
+                        .setVolume("4000.0000")
+                        .setMinVolume("4000.0000");
+            } else {
+                offer.setBaseCurrencyCode(currencyCode.toUpperCase())
+                        .setCounterCurrencyCode("BTC")
+                        .setPrice(isBsqSwapOffer ? "0.00003000" : "0.00500000")
+                        .setVolume(isBsqSwapOffer ? "3333.33" : "20.00000000")
+                        .setMinVolume(isBsqSwapOffer ? "3333.33" : "20.00000000");
+            }
+            return offer.build();
+        }
+    }
+
+    private static class TradesService extends TradesGrpc.TradesImplBase {
+        @Override
+        public void getTrades(GetTradesRequest request, StreamObserver<GetTradesReply> responseObserver) {
+            reply(responseObserver, GetTradesReply.newBuilder().build());
+        }
+    }
+
+    private static class ShutdownServerService extends ShutdownServerGrpc.ShutdownServerImplBase {
+        @Override
+        public void stop(StopRequest request, StreamObserver<StopReply> responseObserver) {
+            // Keep running;  the next bot's training run needs this daemon.
+            reply(responseObserver, StopReply.newBuilder().build());
+        }
+    }
+
+    private static <T> void reply(StreamObserver<T> responseObserver, T reply) {
+        responseObserver.onNext(reply);
+        responseObserver.onCompleted();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 1)
+            throw new IllegalStateException("Usage:  AppCdsTrainingDaemon port");
+
+        var daemon = new AppCdsTrainingDaemon(Integer.parseInt(args[0]));
+        daemon.start();
+        // Run until stopped by create-bot-jars.sh.
+        daemon.server.awaitTermination();
+    }
+}
@@ -16,6 +16,8 @@
  */
 package bisq.bots;
 
+import bisq.bots.BalanceReservationLedger.Reservation;
+import bisq.bots.jfr.*;
 import bisq.bots.table.builder.TableBuilder;
 import bisq.proto.grpc.*;
 import bisq.proto.grpc.GetTradesRequest.Category;
@@ -25,24 +27,35 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import protobuf.PaymentAccount;
 
+import javax.annotation.Nullable;
 import java.io.*;
 import java.math.BigDecimal;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.*;
-import java.util.function.BiConsumer;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static bisq.bots.BotJournal.EventType.*;
 import static bisq.bots.BotUtils.*;
 import static bisq.bots.table.builder.TableType.BSQ_BALANCE_TBL;
 import static bisq.bots.table.builder.TableType.BTC_BALANCE_TBL;
+import static bisq.bots.table.builder.TableType.OFFER_TBL;
+import static bisq.bots.table.builder.TableType.OPEN_TRADES_TBL;
 import static bisq.proto.grpc.GetOfferCategoryReply.OfferCategory.BSQ_SWAP;
 import static bisq.proto.grpc.GetTradesRequest.Category.CLOSED;
+import static bisq.proto.grpc.GetTradesRequest.Category.OPEN;
 import static io.grpc.Status.*;
 import static java.lang.String.format;
 import static java.lang.System.exit;
-import static java.lang.System.out;
+import static java.lang.System.lineSeparator;
 import static java.math.RoundingMode.HALF_UP;
 import static java.util.Objects.requireNonNull;
 
@@ -70,16 +83,62 @@ public abstract class AbstractBot {
     protected final boolean canSimulatePaymentSteps;
 
     // Bot's list of preferred trading peers (onion addresses).
-    // The list is defined in the subclass' properties (or external conf) file.
-    protected final List<String> preferredTradingPeers = new ArrayList<>();
+    // The list is defined in the subclass' properties (or external conf) file, and is replaced when the file changes.
+    protected final List<String> preferredTradingPeers = new CopyOnWriteArrayList<>();
 
     // Used during dry runs to track offers that would be taken.
     // This list should stay empty when dryRun = false.
-    protected final List<OfferInfo> offersTakenDuringDryRun = new ArrayList<>();
+    protected final List<OfferInfo> offersTakenDuringDryRun = new CopyOnWriteArrayList<>();
 
     protected final boolean canUseBash = getBashPath().isPresent();
     protected boolean isShutdown = false;
 
+    // The API daemon's version and BTC network, cached until the channel reconnects to a (possibly restarted) daemon.
+    private final AtomicReference<String> cachedVersion = new AtomicReference<>();
+    private final AtomicReference<String> cachedNetwork = new AtomicReference<>();
+    // The API daemon allows 1 getnetwork call per second;  calls are spaced by waiting before (not after) each call.
+    private final Object getNetworkLock = new Object();
+    private long lastGetNetworkTime;
+
+    // The bot's current configuration snapshot, and the watcher of its external conf file (if watched).
+    private volatile BotConfig config;
+    @Nullable
+    private ConfigWatcher configWatcher;
+
+    // Records session events (takes, trades), so a restarted bot can restore its session state.
+    protected final BotJournal journal;
+
+    // Closed and failed trades synced from the API daemon, indexed for trade history queries, and aggregated.
+    protected final TradeStore tradeStore;
+
+    // Records the available offers fetched each poll cycle, for research and backtests.
+    protected final OrderBookRecorder orderBookRecorder;
+
+    // Prints balances and trade summaries on a background thread, off the take offer path.
+    protected final BotReporter reporter = new BotReporter();
+
+    // Counters and gauges served by the optional metrics endpoint.
+    protected final BotMetrics metrics = new BotMetrics();
+    private volatile long pollCycleStartTime = System.nanoTime();
+    // The bot shuts down after this many poll cycles, unless 0.
+    private final int maxPollCycles;
+    private int numPollCycles;
+
+    // Tracks BTC and BSQ committed to in-flight takes, so a take cannot overcommit the wallet.
+    protected final BalanceReservationLedger balanceLedger = new BalanceReservationLedger();
+
+    // The available offers and open trades shown every poll cycle, only redrawn (or logged again) when rows change.
+    protected final LiveTableView<OfferInfo> availableOffersView =
+            new LiveTableView<>(OFFER_TBL, OfferInfo::getId, "No offers to print.");
+    protected final LiveTableView<TradeInfo> openTradesView =
+            new LiveTableView<>(OPEN_TRADES_TBL, TradeInfo::getTradeId, "No trades to print.");
+    // Fetches each poll cycle's market data concurrently.
+    private final ExecutorService marketSnapshotExecutor = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "market-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     protected final Supplier<String> defaultPropertiesFilename = () -> this.getClass().getSimpleName() + ".properties";
     protected final Supplier<TxFeeRateInfo> txFeeRates = this::getTxFeeRateInfo;
     protected final Supplier<Long> minimumTxFeeRate = () -> txFeeRates.get().getMinFeeServiceRate();
@@ -102,13 +161,86 @@ public abstract class AbstractBot {
         Config bisqClientOpts = new Config(this.args, defaultPropertiesFilename.get());
         this.walletPassword = bisqClientOpts.getWalletPassword();
         this.conf = bisqClientOpts.getConf();
-        this.grpcStubs = new GrpcStubs(bisqClientOpts.getHost(), bisqClientOpts.getPort(), bisqClientOpts.getPassword());
+        this.grpcStubs = new GrpcStubs(bisqClientOpts.getHost(),
+                bisqClientOpts.getPort(),
+                bisqClientOpts.getPassword(),
+                new CircuitBreakerInterceptor(bisqClientOpts.getCircuitBreakerErrorRate(),
+                        bisqClientOpts.getCircuitBreakerOpenTime()));
+        grpcStubs.healthMonitor.addReconnectListener(() -> {
+            cachedVersion.set(null);
+            cachedNetwork.set(null);
+        });
         this.isDryRun = bisqClientOpts.isDryRun();
         this.canSimulatePaymentSteps = bisqClientOpts.isSimulatePaymentSteps();
+        // The regtest payment simulator is run by a bot, and shares its session.
+        this.journal = bisqClientOpts.getJournal() == null || this instanceof RegtestTradePaymentSimulator
+                ? BotJournal.DISABLED
+                : BotJournal.open(Paths.get(bisqClientOpts.getJournal()));
+        journal.getInFlightOfferIds().forEach(offerId ->
+                log.warn("Offer '{}' was being taken when the bot stopped;  check your open trades.", offerId));
+        journal.getTradeStatesById().forEach((tradeId, state) ->
+                log.info("Trade '{}' was last seen in state {}.", tradeId, state));
+        journal.append(ARMED, getClass().getSimpleName());
+        this.tradeStore = bisqClientOpts.getTradeStore() == null || this instanceof RegtestTradePaymentSimulator
+                ? TradeStore.inMemory()
+                : TradeStore.open(Paths.get(bisqClientOpts.getTradeStore()));
+        this.orderBookRecorder = bisqClientOpts.getOrderBookHistory() == null || this instanceof RegtestTradePaymentSimulator
+                ? OrderBookRecorder.DISABLED
+                : OrderBookRecorder.open(Paths.get(bisqClientOpts.getOrderBookHistory()));
+        this.maxPollCycles = this instanceof RegtestTradePaymentSimulator ? 0 : bisqClientOpts.getMaxPollCycles();
+        if (bisqClientOpts.getMetricsPort() != null && !(this instanceof RegtestTradePaymentSimulator))
+            new BotMetricsServer(bisqClientOpts.getMetricsPort(), metrics, grpcStubs::getChannelState).start();
     }
 
     public abstract void run();
 
+    /**
+     * The results of a bot's startup checks, needed by the bot's constructor.
+     *
+     * @param config          the bot's validated configuration
+     * @param paymentAccounts all the user's payment accounts
+     */
+    protected record StartupChecks(BotConfig config, List<PaymentAccount> paymentAccounts) {
+    }
+
+    /**
+     * Runs the bot's independent startup checks concurrently:  ping the API daemon, load the bot's configuration,
+     * get the user's payment accounts, validate the wallet password, and get (and cache) the BTC network.  Startup
+     * takes about one round trip to the API daemon, and the time each check took is logged.
+     * <p>
+     * The first fatal error ends startup:  an unavailable API daemon or wrong wallet password shuts down the bot
+     * (as {@link #pingDaemon(long)} and {@link #validateWalletPassword(String)} would), and an invalid configuration
+     * file throws an IllegalStateException.
+     *
+     * @return StartupChecks for the bot's constructor to find its payment account, and apply its configuration
+     */
+    protected StartupChecks startUp() {
+        // The steps throw exceptions instead of shutting down the bot themselves, so only the first failure is
+        // reported, from this thread.
+        var startup = new StartupOrchestrator();
+        var version = startup.submit("pingDaemon", this::requestVersion);
+        var config = startup.submit("loadConfigFile", this::loadBotConfig);
+        var paymentAccounts = startup.submit("getPaymentAccounts", this::getPaymentAccounts);
+        var walletPasswordCheck = startup.submit("validateWalletPassword", () -> {
+            checkWalletPassword(walletPassword);
+            return true;
+        });
+        startup.submit("getNetwork", this::getNetwork);
+        try {
+            startup.awaitAll();
+        } catch (StatusRuntimeException grpcException) {
+            // An unreachable daemon fails every step, in no particular order.
+            var isDaemonNotAvailable = exceptionHasStatus.test(grpcException, UNAVAILABLE)
+                    || exceptionHasStatus.test(grpcException, UNAUTHENTICATED);
+            if (walletPasswordCheck.isFailed() && !isDaemonNotAvailable)
+                shutdownAfterWalletPasswordCheckFailure(grpcException);
+            else
+                shutdownAfterDaemonNotAvailable(grpcException);
+        }
+        log.info("API daemon {} is available.", version.get());
+        return new StartupChecks(config.get(), paymentAccounts.get());
+    }
+
     /**
      * Pings the API daemon with a getversion request.  Any gRPC StatusRuntimeException exception
      * from the daemon is fatal, resulting in an immediate Java runtime System.exit(1).
@@ -117,25 +249,91 @@ public abstract class AbstractBot {
      */
     protected void pingDaemon(long startTime) {
         try {
-            var now = new Date();
-            var upTime = Duration.ofMillis(now.getTime() - startTime);
-            log.info("Pinging API daemon.  Uptime: {} hours {} minutes {} seconds.",
-                    upTime.toHoursPart(),
-                    upTime.toMinutesPart(),
-                    upTime.toSecondsPart());
-            var request = GetVersionRequest.newBuilder().build();
-            var reply = grpcStubs.versionService.getVersion(request);
-            log.info("API daemon {} is available.", reply.getVersion());
+            sendPing(startTime);
         } catch (StatusRuntimeException grpcException) {
-            log.error("Fatal Error: {}, daemon not available.", toCleanErrorMessage.apply(grpcException));
-            if (exceptionHasStatus.test(grpcException, UNAUTHENTICATED)) {
-                log.error("Make sure your bot requests' '--password' opts match the API daemon's '--apiPassword' opt.");
-            }
-            log.error("Shutting down bot.");
-            exit(1);
+            shutdownAfterDaemonNotAvailable(grpcException);
+        }
+    }
+
+    private void sendPing(long startTime) {
+        var now = new Date();
+        var upTime = Duration.ofMillis(now.getTime() - startTime);
+        log.info("Pinging API daemon.  Uptime: {} hours {} minutes {} seconds.",
+                upTime.toHoursPart(),
+                upTime.toMinutesPart(),
+                upTime.toSecondsPart());
+        log.info("API daemon {} is available.", requestVersion());
+    }
+
+    /**
+     * Verifies the API daemon is available, without sending a request while the gRPC channel is connected to the
+     * daemon.  If the channel lost its connection, e.g., because the daemon was stopped or a keepalive ping went
+     * unanswered, the daemon is pinged, which either reconnects the channel, or fails.  A ping failing because the
+     * daemon is unreachable or overloaded is thrown, to be handled by {@link #waitForDaemonRecovery}, and any other
+     * ping failure shuts down the bot.
+     *
+     * @param startTime of the bot, for logging the bot's uptime
+     * @throws StatusRuntimeException if the API daemon is unreachable or overloaded
+     */
+    protected void verifyDaemonIsAvailable(long startTime) {
+        if (grpcStubs.healthMonitor.isConnected())
+            return;
+
+        try {
+            sendPing(startTime);
+        } catch (StatusRuntimeException grpcException) {
+            if (CircuitBreakerInterceptor.isDaemonFailure(grpcException))
+                throw grpcException;
+            else
+                shutdownAfterDaemonNotAvailable(grpcException);
         }
     }
 
+    /**
+     * Waits for the API daemon to recover from a failure, instead of crashing the bot, or rethrows the given gRPC
+     * exception if it does not show the daemon is unreachable or overloaded.  If an open circuit breaker failed the
+     * call, waits until the breaker lets a probe call through, else waits for one polling interval.
+     *
+     * @param grpcException   thrown by the failed call to the API daemon
+     * @param pollingInterval the bot's polling interval, in milliseconds
+     */
+    protected void waitForDaemonRecovery(StatusRuntimeException grpcException, long pollingInterval) {
+        if (!CircuitBreakerInterceptor.isDaemonFailure(grpcException))
+            throw grpcException;
+
+        var waitTime = CircuitBreakerInterceptor.isRejectedCall(grpcException)
+                ? Math.max(grpcStubs.circuitBreakers.getMillisUntilProbe(), 1_000)
+                : pollingInterval;
+        log.warn("API daemon call failed:  {}.", toCleanErrorMessage.apply(grpcException));
+        runCountdown(log, waitTime);
+    }
+
+    /**
+     * Return the API daemon's version, cached until the bot reconnects to the daemon.
+     *
+     * @return String version of the API daemon
+     */
+    protected String getVersion() {
+        var version = cachedVersion.get();
+        return version != null ? version : requestVersion();
+    }
+
+    private String requestVersion() {
+        var request = GetVersionRequest.newBuilder().build();
+        var version = grpcStubs.versionService.getVersion(request).getVersion();
+        cachedVersion.set(version);
+        return version;
+    }
+
+    private void shutdownAfterDaemonNotAvailable(StatusRuntimeException grpcException) {
+        log.error("Fatal Error: {}, daemon not available.", toCleanErrorMessage.apply(grpcException));
+        if (exceptionHasStatus.test(grpcException, UNAUTHENTICATED)) {
+            log.error("Make sure your bot requests' '--password' opts match the API daemon's '--apiPassword' opt.");
+        }
+        log.error("Shutting down bot.");
+        exit(1);
+    }
+
     /**
      * Return true if bot has a preferred trading peer list.
      */
@@ -149,10 +347,12 @@ public abstract class AbstractBot {
                     && preferredTradingPeers.contains(offer.getOwnerNodeAddress());
 
     /**
-     * Returns true if the given maximum tx fee rate is <= the most recent Bisq network fee rate.
+     * Returns true if the most recent Bisq network fee rate in the given market snapshot is <= the given maximum tx
+     * fee rate.
      */
-    protected final Predicate<Long> isBisqNetworkTxFeeRateLowEnough = (maxTxFeeRate) -> {
-        var currentTxFeeRate = mostRecentTxFeeRate.get();
+    protected final BiPredicate<MarketSnapshot, Long> isBisqNetworkTxFeeRateLowEnough = (snapshot, maxTxFeeRate) -> {
+        var currentTxFeeRate = snapshot.txFeeRates().value().getFeeServiceRate();
+        metrics.recordTxFeeRates(currentTxFeeRate, maxTxFeeRate);
         if (currentTxFeeRate <= maxTxFeeRate) {
             log.info("Current tx fee rate: {} sats/byte.", currentTxFeeRate);
             return true;
@@ -165,38 +365,40 @@ public abstract class AbstractBot {
         }
     };
 
-    /**
-     * Loads the given List<String> from a Java Properties object containing a comma separated list of onion
-     * addresses in hostname:port format, defined for property key "preferredTradingPeers".  Will throw a
-     * fatal exception if the hostname:port pairs are not properly comma delimited.
-     */
-    protected final BiConsumer<Properties, List<String>> loadPreferredOnionAddresses = (properties, list) -> {
-        var commaSeparatedValues = properties.getProperty("preferredTradingPeers");
-        if (commaSeparatedValues == null || commaSeparatedValues.isBlank() || commaSeparatedValues.isEmpty()) {
-            log.warn("Non-Fatal Error:  no preferred trading peers defined in config file.");
-            return;
-        }
-        String[] onions = commaSeparatedValues.split(",");
-        // Do simple validation of each address or throw a fatal exception.
-        // The most likely problem is user not separating each onion address with a comma.
-        Arrays.stream(onions).forEach(onion -> list.add(getValidatedPeerAddress(onion)));
-    };
-
     /**
      * Return the name of the BTC network API daemon is currently connected to:  mainnet, testnet3, or regtest.
+     * <p>
+     * The network is cached until the bot reconnects to the daemon, which could have been restarted against another
+     * network.
      *
      * @return String name of BTC network
      */
     protected String getNetwork() {
-        try {
-            var request = GetNetworkRequest.newBuilder().build();
-            return grpcStubs.walletsService.getNetwork(request).getNetwork();
-        } finally {
-            // There is a 1 getnetwork call per second rate meter on the API daemon, and bots have reason to call
-            // getnetwork many times in rapid succession because the API daemon could be restarted against mainnet or
-            // regtest at any instant.  So, we force the bot to wait a second after making this call, to avoid a
-            // StatusRuntimeException(PERMISSION_DENIED).
-            sleep(1_000);
+        var network = cachedNetwork.get();
+        if (network != null)
+            return network;
+
+        // There is a 1 getnetwork call per second rate meter on the API daemon.  A reconnected bot could make this
+        // call again right after its last call, so we force the bot to wait until a second has passed since the last
+        // call before making this call, to avoid a StatusRuntimeException(PERMISSION_DENIED).  The first call, made
+        // during startup, does not wait.
+        synchronized (getNetworkLock) {
+            network = cachedNetwork.get();
+            if (network != null)
+                return network;
+
+            var waitTime = lastGetNetworkTime + 1_000 - System.currentTimeMillis();
+            if (waitTime > 0)
+                sleep(waitTime);
+
+            try {
+                var request = GetNetworkRequest.newBuilder().build();
+                network = grpcStubs.walletsService.getNetwork(request).getNetwork();
+                cachedNetwork.set(network);
+                return network;
+            } finally {
+                lastGetNetworkTime = System.currentTimeMillis();
+            }
         }
     }
 
@@ -213,40 +415,43 @@ public abstract class AbstractBot {
      * Return true if bot is in dryrun mode, and has taken the offer during this session.
      */
     protected final Predicate<OfferInfo> isAlreadyTaken = (offer) ->
-            this.isDryRun() && offersTakenDuringDryRun.stream().anyMatch(o -> o.getId().equals(offer.getId()));
+            this.isDryRun() && (offersTakenDuringDryRun.stream().anyMatch(o -> o.getId().equals(offer.getId()))
+                    || this.isJournaledAsTakenDuringDryRun(offer));
+
+    private boolean isJournaledAsTakenDuringDryRun(OfferInfo offer) {
+        return journal.isDryRunOfferTaken(offer.getId());
+    }
 
     /**
-     * Print a table of BSQ balance information.
+     * Queue a report printing a table of BSQ balance information, and return without waiting for it.
      * <p>
+     * The balances are requested and printed by the {@link #reporter} thread, after any previously queued reports.
      * An encrypted wallet must be unlocked before making this request;  this method will not unlock it for you.
      *
      * @param title to display above the table
      */
     protected void printBSQBalances(String title) {
-        try {
-            log.info(title);
+        reporter.report(() -> logReport(log, report -> {
             var bsqBalances = getBalances().getBsq();
-            new TableBuilder(BSQ_BALANCE_TBL, bsqBalances).build().print(out);
-        } catch (StatusRuntimeException grpcException) {
-            log.warn(toCleanErrorMessage.apply(grpcException));
-        }
+            report.append(title).append(lineSeparator());
+            new TableBuilder(BSQ_BALANCE_TBL, bsqBalances).build().appendTo(report);
+        }));
     }
 
     /**
-     * Print a table of BTC balance information.
+     * Queue a report printing a table of BTC balance information, and return without waiting for it.
      * <p>
+     * The balances are requested and printed by the {@link #reporter} thread, after any previously queued reports.
      * An encrypted wallet must be unlocked before making this request;  this method will not unlock it for you.
      *
      * @param title to display above the table
      */
     protected void printBTCBalances(String title) {
-        try {
-            log.info(title);
+        reporter.report(() -> logReport(log, report -> {
             var btcBalances = getBalances().getBtc();
-            new TableBuilder(BTC_BALANCE_TBL, btcBalances).build().print(out);
-        } catch (StatusRuntimeException grpcException) {
-            log.warn(toCleanErrorMessage.apply(grpcException));
-        }
+            report.append(title).append(lineSeparator());
+            new TableBuilder(BTC_BALANCE_TBL, btcBalances).build().appendTo(report);
+        }));
     }
 
     /**
@@ -366,19 +571,27 @@ public abstract class AbstractBot {
      */
     protected void validateWalletPassword(String walletPassword) {
         try {
-            var request = UnlockWalletRequest.newBuilder()
-                    .setPassword(walletPassword)
-                    .setTimeout(1)
-                    .build();
-            //noinspection ResultOfMethodCallIgnored
-            grpcStubs.walletsService.unlockWallet(request);
+            checkWalletPassword(walletPassword);
         } catch (StatusRuntimeException grpcException) {
-            log.error("Wallet password check failed.");
-            log.error((toCleanErrorMessage.apply(grpcException)));
-            exit(1);
+            shutdownAfterWalletPasswordCheckFailure(grpcException);
         }
     }
 
+    private void checkWalletPassword(String walletPassword) {
+        var request = UnlockWalletRequest.newBuilder()
+                .setPassword(walletPassword)
+                .setTimeout(1)
+                .build();
+        //noinspection ResultOfMethodCallIgnored
+        grpcStubs.walletsService.unlockWallet(request);
+    }
+
+    private void shutdownAfterWalletPasswordCheckFailure(StatusRuntimeException grpcException) {
+        log.error("Wallet password check failed.");
+        log.error((toCleanErrorMessage.apply(grpcException)));
+        exit(1);
+    }
+
     /**
      * Returns PaymentAccount for given paymentAccountId, else throws an IllegalArgumentException.
      *
@@ -388,9 +601,27 @@ public abstract class AbstractBot {
      * @see <a href="https://bisq-network.github.io/slate/?java#paymentaccount">https://bisq-network.github.io/slate/?java#paymentaccount</a>
      */
     protected PaymentAccount getPaymentAccount(String paymentAccountId) {
+        return findPaymentAccount(getPaymentAccounts(), paymentAccountId);
+    }
+
+    /**
+     * Returns all the user's payment accounts.
+     *
+     * @return List<protobuf.PaymentAccount>
+     * @see <a href="https://bisq-network.github.io/slate/?java#rpc-method-getpaymentaccounts">https://bisq-network.github.io/slate/?java#rpc-method-getpaymentaccounts</a>
+     */
+    protected List<PaymentAccount> getPaymentAccounts() {
         var request = GetPaymentAccountsRequest.newBuilder().build();
         var response = grpcStubs.paymentAccountsService.getPaymentAccounts(request);
-        return response.getPaymentAccountsList().stream()
+        return response.getPaymentAccountsList();
+    }
+
+    /**
+     * Returns the PaymentAccount with the given paymentAccountId from the given list, else throws an
+     * IllegalArgumentException.
+     */
+    protected static PaymentAccount findPaymentAccount(List<PaymentAccount> paymentAccounts, String paymentAccountId) {
+        return paymentAccounts.stream()
                 .filter(p -> p.getId().equals(paymentAccountId))
                 .findFirst().orElseThrow(() ->
                         new IllegalArgumentException(
@@ -405,10 +636,15 @@ public abstract class AbstractBot {
      * @see <a href="https://bisq-network.github.io/slate/?java#paymentaccount">https://bisq-network.github.io/slate/?java#paymentaccount</a>
      */
     protected PaymentAccount getBsqSwapPaymentAccount() {
-        var request = GetPaymentAccountsRequest.newBuilder().build();
-        var response = grpcStubs.paymentAccountsService.getPaymentAccounts(request);
+        return findBsqSwapPaymentAccount(getPaymentAccounts());
+    }
+
+    /**
+     * Returns the default BSQ Swap PaymentAccount from the given list, else throws an IllegalArgumentException.
+     */
+    protected static PaymentAccount findBsqSwapPaymentAccount(List<PaymentAccount> paymentAccounts) {
         var bsqSwapPaymentMethodId = BSQ_SWAP.name();
-        return response.getPaymentAccountsList().stream()
+        return paymentAccounts.stream()
                 .filter(p -> p.getPaymentMethod().getId().equals(bsqSwapPaymentMethodId))
                 .findFirst().orElseThrow(() ->
                         new IllegalArgumentException("Your default BSQ Swap payment account was not found."));
@@ -499,14 +735,69 @@ public abstract class AbstractBot {
      * @see <a href="https://bisq-network.github.io/slate/?java#rpc-method-getoffers">https://bisq-network.github.io/slate/?java#rpc-method-getoffers</a>
      */
     protected List<OfferInfo> getOffers(String direction, String currencyCode) {
+        var getOffersEvent = new GetOffersEvent();
+        getOffersEvent.setCurrency(currencyCode);
+        getOffersEvent.begin();
         var request = GetOffersRequest.newBuilder()
                 .setDirection(requireNonNull(direction, "direction cannot be null").toUpperCase())
                 .setCurrencyCode(requireNonNull(currencyCode, "currencyCode cannot be null").toUpperCase())
                 .build();
         var response = grpcStubs.offersService.getOffers(request);
+        metrics.recordOffersSeen(response.getOffersCount());
+        getOffersEvent.commit(response.getOffersCount() + " offers");
         return response.getOffersList();
     }
 
+    /**
+     * Fetches the market data for a poll cycle concurrently:  the Bisq network tx fee rates, the available offers with
+     * the given direction (BUY|SELL) and currency code, and the current market price, or for BSQ offers, the 30-day
+     * average BSQ price (mainnet only).  The offers are recorded by the {@link #orderBookRecorder}, if enabled.
+     *
+     * @param direction    of the offers to get
+     * @param currencyCode of the offers to get
+     * @return MarketSnapshot of values fetched at about the same instant
+     * @throws StatusRuntimeException if any request to the API daemon failed
+     */
+    protected MarketSnapshot fetchMarketSnapshot(String direction, String currencyCode) {
+        var isBsqMarket = currencyCode.equalsIgnoreCase("BSQ");
+        var snapshot = MarketSnapshot.fetch(marketSnapshotExecutor,
+                this::getTxFeeRateInfoForFeeCheck,
+                () -> getOffers(direction, currencyCode),
+                isBsqMarket ? null : () -> getCurrentMarketPrice(currencyCode),
+                isBsqMarket && isConnectedToMainnet() ? this::get30DayAvgBsqPriceInBtc : null);
+        recordOrderBook(direction, currencyCode, snapshot.offers());
+        return snapshot;
+    }
+
+    private void recordOrderBook(String direction, String currencyCode, MarketSnapshot.Fetched<List<OfferInfo>> offers) {
+        var market = isAltcoin.test(currencyCode)
+                ? currencyCode.toUpperCase() + "/BTC"
+                : "BTC/" + currencyCode.toUpperCase();
+        try {
+            orderBookRecorder.record(offers.fetchTime(), market, direction, offers.value());
+        } catch (RuntimeException ex) {
+            // The order book history is for research, and must not stop the bot.
+            log.error("Could not record the {} {} order book:  {}", direction, market, ex.getMessage());
+        }
+    }
+
+    /**
+     * Returns the offer selected by the given evaluation of the bot's take criteria, recording the evaluation
+     * as a JFR event.
+     *
+     * @param currencyCode the trade currency code of the evaluated offers
+     * @param evaluation   returns the offer passing the bot's take criteria, if any
+     * @return Optional<bisq.proto.grpc.OfferInfo>
+     */
+    protected Optional<OfferInfo> evaluateCriteria(String currencyCode, Supplier<Optional<OfferInfo>> evaluation) {
+        var criteriaEvaluationEvent = new CriteriaEvaluationEvent();
+        criteriaEvaluationEvent.setCurrency(currencyCode);
+        criteriaEvaluationEvent.begin();
+        var selectedOffer = evaluation.get();
+        criteriaEvaluationEvent.commit(selectedOffer.isPresent() ? "1 offer selected" : "0 offers selected");
+        return selectedOffer;
+    }
+
     /**
      * Takes a BSQ swap offer.  Throws an exception if one of various possible causes of failure is detected.
      *
@@ -519,11 +810,12 @@ public abstract class AbstractBot {
      * @see <a href="https://bisq-network.github.io/slate/?java#rpc-method-takeoffer">https://bisq-network.github.io/slate/?java#rpc-method-takeoffer</a>
      */
     public void takeBsqSwapOffer(OfferInfo offer, long pollingInterval) throws NonFatalException {
-        OfferTaker offerTaker = new OfferTaker(grpcStubs, offer, pollingInterval);
+        OfferTaker offerTaker = new OfferTaker(grpcStubs, reporter, metrics, offer, pollingInterval);
         // May throw fatal StatusRuntimeException, or NonFatalException.
         offerTaker.takeOffer();
         log.info("You took offer '{}';  waiting on swap completion.", offer.getId());
-        offerTaker.waitForBsqSwapCompletion(); // Blocks until swap is completed, or times out.
+        var trade = offerTaker.waitForBsqSwapCompletion(); // Blocks until swap is completed, or times out.
+        journal.append(TRADE_STATE, trade.getTradeId() + " " + trade.getState());
     }
 
     /**
@@ -542,6 +834,8 @@ public abstract class AbstractBot {
                                     String bisqTradeFeeCurrency,
                                     long pollingInterval) throws NonFatalException {
         OfferTaker offerTaker = new OfferTaker(grpcStubs,
+                reporter,
+                metrics,
                 offer,
                 paymentAccount,
                 bisqTradeFeeCurrency,
@@ -549,7 +843,83 @@ public abstract class AbstractBot {
         // May throw fatal StatusRuntimeException, or NonFatalException.
         offerTaker.takeOffer();
         log.info("You took offer '{}';  waiting on new trade contract preparation.", offer.getId());
-        offerTaker.waitForTradePreparation(); // Blocks until new trade is prepared, or times out.
+        var trade = offerTaker.waitForTradePreparation(); // Blocks until new trade is prepared, or times out.
+        journal.append(TRADE_STATE, trade.getTradeId() + " " + trade.getState());
+    }
+
+    /**
+     * Takes the given offer on the calling thread, and returns true if the offer was taken.  The API daemon allows
+     * one takeoffer request per minute, so a bot takes at most one offer per poll cycle.
+     * <p>
+     * The wallet is unlocked first, so the {@link #balanceLedger} can be reconciled against the wallet's balances.
+     * The take holds a reservation in the ledger while it is in flight, and the offer is skipped if its reservation
+     * would overcommit the wallet, or the balances could not be checked.  The take attempt and its outcome are
+     * recorded in the session {@link #journal}.
+     *
+     * @param offer           the offer to take
+     * @param toReservation   returns the BTC and BSQ to reserve for taking the offer
+     * @param offerTaker      takes the offer, returning true if the offer was taken
+     * @param pollingInterval the bot's polling interval, waited after a non-fatal wallet unlock error
+     * @return true if the offer was taken
+     */
+    protected boolean takeOffer(OfferInfo offer,
+                                Function<OfferInfo, Reservation> toReservation,
+                                Predicate<OfferInfo> offerTaker,
+                                long pollingInterval) {
+        // An encrypted wallet must be unlocked before calling getbalances, takeoffer and gettrade(s).
+        // Unlock the wallet for 5 minutes.  If the wallet is already unlocked, this request
+        // will override the timeout of the previous unlock request.
+        try {
+            unlockWallet(walletPassword, 300);
+        } catch (NonFatalException nonFatalException) {
+            handleNonFatalException(nonFatalException, pollingInterval);
+        }
+        metrics.recordOffersMatched(1);
+        if (!reconcileBalanceLedger()) {
+            log.warn("Will not attempt to take offer '{}' without knowing the wallet's balances.", offer.getId());
+            return false;
+        }
+        var reservation = toReservation.apply(offer);
+        if (!balanceLedger.tryReserve(reservation)) {
+            log.warn("Will not attempt to take offer '{}'.", offer.getId());
+            return false;
+        }
+        var isTaken = false;
+        var takeAttemptEvent = new TakeAttemptEvent();
+        takeAttemptEvent.setOffer(offer);
+        takeAttemptEvent.begin();
+        var outcome = "error";
+        journal.append(TAKE_ATTEMPTED, offer.getId());
+        metrics.recordTakeAttempted();
+        try {
+            isTaken = offerTaker.test(offer);
+            if (isTaken)
+                metrics.recordTakeSucceeded();
+            var eventType = isTaken ? (isDryRun ? DRY_RUN_OFFER_TAKEN : OFFER_TAKEN) : TAKE_FAILED;
+            journal.append(eventType, offer.getId());
+            outcome = eventType.name().toLowerCase();
+            return isTaken;
+        } finally {
+            balanceLedger.release(reservation, isTaken);
+            takeAttemptEvent.commit(outcome);
+        }
+    }
+
+    /**
+     * Reconcile the {@link #balanceLedger} with the wallet's balances, and return true, or return false if the
+     * balances could not be fetched.
+     */
+    private boolean reconcileBalanceLedger() {
+        try {
+            balanceLedger.reconcile(getBalances());
+            return true;
+        } catch (StatusRuntimeException grpcException) {
+            if (walletIsLocked(grpcException))
+                log.warn("Cannot check balances while API daemon's wallet is locked.");
+            else
+                log.warn(toCleanErrorMessage.apply(grpcException));
+            return false;
+        }
     }
 
     /**
@@ -579,13 +949,16 @@ public abstract class AbstractBot {
     }
 
     /**
-     * Print list of trade summaries to stdout.
+     * Log list of trade summaries, if the INFO level is enabled.  Open trades are shown in the {@link #openTradesView},
+     * which is only redrawn when the open trades change.
      *
      * @param category category OPEN | CLOSED | FAILED
      */
     protected void printTradesSummary(Category category) {
-        var trades = getTrades(category);
-        BotUtils.printTradesSummary(category, trades);
+        if (category == OPEN)
+            openTradesView.update(log, () -> "OPEN trades:", getTrades(OPEN));
+        else if (log.isInfoEnabled())
+            BotUtils.printTradesSummary(log, () -> category.name() + " trades:", category, getTrades(category));
     }
 
     /**
@@ -604,23 +977,41 @@ public abstract class AbstractBot {
     }
 
     /**
-     * Print list of today's trade summaries to stdout.
+     * Log list of today's trade summaries, if the INFO level is enabled.  Closed and failed trades are synced to the
+     * {@link #tradeStore}, and today's trades are looked up in its date index.  Today's closed trade totals per market
+     * are logged from the store's running aggregates.
      *
      * @param category category OPEN | CLOSED | FAILED
      */
     protected void printTradesSummaryForToday(Category category) {
+        if (!log.isInfoEnabled())
+            return;
+
         var midnightToday = BotUtils.midnightToday.get();
-        var trades = getTrades(category).stream()
-                .filter(t -> t.getDate() >= midnightToday)
-                .collect(Collectors.toList());
+        List<TradeInfo> trades;
+        if (category == OPEN) {
+            trades = getTrades(category).stream()
+                    .filter(t -> t.getDate() >= midnightToday)
+                    .collect(Collectors.toList());
+        } else {
+            tradeStore.sync(category, getTrades(category));
+            trades = tradeStore.getTradesSince(category, midnightToday);
+        }
         if (trades.isEmpty()) {
             log.info("No trades have been completed today.");
         } else {
-            log.info("Here are today's completed trades:");
-            BotUtils.printTradesSummary(category, trades);
+            BotUtils.printTradesSummary(log, () -> "Here are today's completed trades:", category, trades);
+            if (category == CLOSED)
+                printClosedTradeTotalsForToday();
         }
     }
 
+    private void printClosedTradeTotalsForToday() {
+        var analytics = tradeStore.getClosedTradeAnalytics();
+        analytics.getTotalsByMarket(analytics.toDay(System.currentTimeMillis())).forEach((market, totals) ->
+                log.info("Today's {} totals:  {}", market, totals));
+    }
+
     /**
      * Send a "payment started" message to the BTC seller.
      *
@@ -705,6 +1096,18 @@ public abstract class AbstractBot {
         return response.getTxFeeRateInfo();
     }
 
+    /**
+     * Returns the Bisq network tx fee rates a poll cycle's fee check compares with the bot's max tx fee rate,
+     * recording the request as a JFR event.
+     */
+    private TxFeeRateInfo getTxFeeRateInfoForFeeCheck() {
+        var feeCheckEvent = new FeeCheckEvent();
+        feeCheckEvent.begin();
+        var txFeeRateInfo = txFeeRates.get();
+        feeCheckEvent.commit(txFeeRateInfo.getFeeServiceRate() + " sats/byte");
+        return txFeeRateInfo;
+    }
+
     protected void validatePollingInterval(long pollingInterval) {
         if (pollingInterval < 1_000)
             throw new IllegalStateException("Cannot poll offer-book faster than 1x per second.");
@@ -731,11 +1134,19 @@ public abstract class AbstractBot {
      * <p>
      * If the bot can use the system's bash command language interpreter, show the countdown in the terminal,
      * else log a "Will wake up in {} seconds" statement, and put the current thread to sleep.
+     * <p>
+     * The time elapsed since the previous countdown is recorded as the duration of a poll cycle.
      *
      * @param log              bot implementation's logger
      * @param durationInMillis number of milliseconds to stall
      */
     protected void runCountdown(Logger log, long durationInMillis) {
+        metrics.recordPollCycle(System.nanoTime() - pollCycleStartTime);
+        if (maxPollCycles > 0 && ++numPollCycles >= maxPollCycles)
+            shutdownAfterMaxPollCycles();
+
+        var countdownEvent = new CountdownEvent();
+        countdownEvent.begin();
         var seconds = toSeconds.apply(durationInMillis).intValue();
         if (canUseBash) {
             showCountdown(seconds);
@@ -743,6 +1154,20 @@ public abstract class AbstractBot {
             log.info("Will wake up in {} seconds. ", seconds);
             sleep(durationInMillis);
         }
+        countdownEvent.commit(seconds + " seconds");
+        pollCycleStartTime = System.nanoTime();
+    }
+
+    /**
+     * Terminate the bot with a zero status, without stopping the API daemon, after its '--max-poll-cycles' option's
+     * number of poll cycles.  The journal's session does not end, because the bot has not taken its maximum number of
+     * offers:  the next run resumes the session, and its count of offers taken.
+     */
+    private void shutdownAfterMaxPollCycles() {
+        isShutdown = true;
+        log.info("Shutting down bot after {} poll cycle(s).  API daemon will not be shut down.", numPollCycles);
+        reporter.drain(5_000);
+        exit(0);
     }
 
     /**
@@ -782,6 +1207,8 @@ public abstract class AbstractBot {
      */
     protected void shutdownAfterFatalError(String errorMessage) {
         isShutdown = true;
+        // Let queued reports finish while the wallet is still unlocked.
+        reporter.drain(5_000);
         try {
             lockWallet();
         } catch (NonFatalException ex) {
@@ -805,7 +1232,7 @@ public abstract class AbstractBot {
      * @param maxTakeOffers  the max number of offers that can be taken during bot run
      */
     protected void maybeShutdownAfterSuccessfulSwap(int numOffersTaken, int maxTakeOffers) {
-        printTradesSummaryForTodayIfWalletIsUnlocked();
+        reporter.report(this::printTradesSummaryForTodayIfWalletIsUnlocked);
 
         log.info("You {}have taken {} swap offer(s) during this bot's {}",
                 isDryRun ? "would " : "",
@@ -817,7 +1244,9 @@ public abstract class AbstractBot {
 
         if (numOffersTaken >= maxTakeOffers) {
             isShutdown = true;
+            journal.append(isDryRun ? DRY_RUN_SESSION_ENDED : SESSION_ENDED, getClass().getSimpleName());
             log.info("Shutting down API bot after executing {} BSQ swaps.", numOffersTaken);
+            reporter.drain(5_000);
             exit(0);
         }
     }
@@ -837,7 +1266,7 @@ public abstract class AbstractBot {
      * @param maxTakeOffers  the max number of offers that can be taken during bot run
      */
     protected void maybeShutdownAfterSuccessfulTradeCreation(int numOffersTaken, int maxTakeOffers) {
-        printTradesSummaryForTodayIfWalletIsUnlocked();
+        reporter.report(this::printTradesSummaryForTodayIfWalletIsUnlocked);
 
         log.info("You {} have taken {} offer(s) during this bot's {}",
                 isDryRun ? "would" : "",
@@ -849,16 +1278,18 @@ public abstract class AbstractBot {
 
         if (numOffersTaken >= maxTakeOffers) {
             isShutdown = true;
+            journal.append(isDryRun ? DRY_RUN_SESSION_ENDED : SESSION_ENDED, getClass().getSimpleName());
             if (canSimulatePaymentSteps) {
                 log.info("Shutting down bot after {} successful simulated trades."
                                 + "  API daemon will not be shut down.",
                         numOffersTaken);
-                sleep(2_000);
+                reporter.drain(5_000);
             } else {
                 log.info("Shutting down API daemon and bot after taking {} offers."
                                 + "  Complete the trade(s) with the desktop UI.",
                         numOffersTaken);
-                sleep(2_000);
+                // Let queued reports finish their daemon requests before the daemon is stopped.
+                reporter.drain(5_000);
                 log.info("Sending stop request to daemon.");
                 stopDaemon();
             }
@@ -878,6 +1309,68 @@ public abstract class AbstractBot {
             return loadExternalProperties();
     }
 
+    /**
+     * Returns a validated, typed snapshot of this bot's configuration file.
+     *
+     * @return BotConfig loaded from file specified in '--conf=path' program argument.
+     */
+    protected BotConfig loadBotConfig() {
+        this.config = new BotConfig(loadConfigFile());
+        return config;
+    }
+
+    /**
+     * Start watching the external conf file for changes, which are picked up by {@link #takeConfigUpdate()}.
+     * The default configuration file packaged with the bot cannot change, and is not watched.
+     */
+    protected void watchConfigFile() {
+        if (conf.equals(defaultPropertiesFilename.get()) || configWatcher != null)
+            return;
+
+        configWatcher = new ConfigWatcher(Paths.get(conf), () -> {
+            var newConfig = new BotConfig(loadExternalProperties());
+            newConfig.requirePropertiesDefinedIn(requireNonNull(config));
+            return newConfig;
+        });
+        configWatcher.start();
+    }
+
+    /**
+     * Returns the new configuration snapshot if the conf file changed (and passed validation) since the last call,
+     * and makes it the bot's current configuration.  Bots call this between poll cycles, never during one.
+     *
+     * @return Optional<BotConfig> to be applied by the bot
+     */
+    protected Optional<BotConfig> takeConfigUpdate() {
+        if (configWatcher == null)
+            return Optional.empty();
+
+        var update = configWatcher.takeUpdate();
+        update.ifPresent(newConfig -> {
+            var changedKeys = newConfig.getChangedKeys(config);
+            if (changedKeys.isEmpty())
+                return;
+
+            log.info("Applying configuration changes:{}", newConfig.describeChanges(config));
+            if (changedKeys.contains("paymentAccountId"))
+                log.warn("The paymentAccountId change will not take effect until the bot is restarted.");
+
+            this.config = newConfig;
+        });
+        return update.filter(newConfig -> newConfig == config);
+    }
+
+    /**
+     * Replace the bot's preferred trading peers with the given list of validated onion addresses.
+     */
+    protected void setPreferredTradingPeers(List<String> onionAddresses) {
+        if (onionAddresses.isEmpty())
+            log.warn("Non-Fatal Error:  no preferred trading peers defined in config file.");
+
+        preferredTradingPeers.clear();
+        preferredTradingPeers.addAll(onionAddresses);
+    }
+
     /**
      * Returns default properties file named 'this.getClass().getSimpleName() + ".properties"'.
      *
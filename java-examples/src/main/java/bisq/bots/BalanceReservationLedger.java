@@ -0,0 +1,152 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import bisq.proto.grpc.BalancesInfo;
+import bisq.proto.grpc.OfferInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import static bisq.bots.CurrencyFormat.formatBsq;
+import static bisq.bots.CurrencyFormat.formatSatoshis;
+import static protobuf.OfferDirection.BUY;
+
+/**
+ * Local ledger of the BTC and BSQ a bot has committed to in-flight takeoffer requests, so a take never commits more
+ * than the wallet's available balances.
+ * <p>
+ * Each in-flight take holds a {@link Reservation}:  the BTC amount it pays (if the bot is the BTC seller), plus the
+ * security deposit, miner fee and trade fee estimates.  The daemon does not report a taker fee before an offer is
+ * taken, so the offer's maker fee is used as the trade fee estimate when it is paid in the same currency.
+ * <p>
+ * The available balances are reconciled against a getbalances reply only while the ledger is idle (no takes in
+ * flight), because the daemon's balances lag behind takes still being processed.  Until the first reconciliation,
+ * the balances are unknown and nothing can be reserved.
+ */
+@Slf4j
+class BalanceReservationLedger {
+
+    /**
+     * BTC and BSQ amounts, in satoshis, reserved for a single in-flight take.
+     */
+    record Reservation(String offerId, long btc, long bsq) {
+
+        /**
+         * Returns the BTC and BSQ to be reserved for taking the given v1 protocol (fiat or xmr) offer.
+         */
+        static Reservation forV1ProtocolOffer(OfferInfo offer, String bisqTradeFeeCurrency) {
+            // Taking a BUY offer makes the bot the BTC seller.
+            var isBtcSeller = offer.getDirection().equals(BUY.name());
+            var securityDeposit = isBtcSeller ? offer.getSellerSecurityDeposit() : offer.getBuyerSecurityDeposit();
+            var isTradeFeeBtc = bisqTradeFeeCurrency.equalsIgnoreCase("BTC");
+            var tradeFeeEstimate = isTradeFeeBtc == offer.getIsCurrencyForMakerFeeBtc() ? offer.getMakerFee() : 0;
+            var btc = (isBtcSeller ? offer.getAmount() : 0)
+                    + securityDeposit
+                    + offer.getTxFee()
+                    + (isTradeFeeBtc ? tradeFeeEstimate : 0);
+            var bsq = isTradeFeeBtc ? 0 : tradeFeeEstimate;
+            return new Reservation(offer.getId(), btc, bsq);
+        }
+
+        /**
+         * Returns the BTC and BSQ to be reserved for taking the given BSQ swap offer.
+         */
+        static Reservation forBsqSwapOffer(OfferInfo offer) {
+            // Taking a BUY offer makes the bot the BTC seller (BSQ buyer).
+            var isBtcSeller = offer.getDirection().equals(BUY.name());
+            if (isBtcSeller) {
+                return new Reservation(offer.getId(), offer.getAmount() + offer.getTxFee(), 0);
+            } else {
+                var bsqVolume = new BigDecimal(offer.getVolume()).movePointRight(2).longValue();
+                return new Reservation(offer.getId(), offer.getTxFee(), bsqVolume + offer.getMakerFee());
+            }
+        }
+    }
+
+    private final Map<String, Reservation> reservationsByOfferId = new HashMap<>();
+    private long availableBtc;
+    private long availableBsq;
+    private boolean isReconciled = false;
+
+    /**
+     * Reserve the given reservation's BTC and BSQ if the unreserved balances cover them, and return true, else
+     * return false and reserve nothing.
+     */
+    synchronized boolean tryReserve(Reservation reservation) {
+        if (!isReconciled) {
+            log.warn("Cannot reserve BTC and BSQ for offer '{}';  the wallet's balances are unknown.",
+                    reservation.offerId());
+            return false;
+        }
+        var unreservedBtc = availableBtc - reservedBtc();
+        var unreservedBsq = availableBsq - reservedBsq();
+        if (reservation.btc() > unreservedBtc || reservation.bsq() > unreservedBsq) {
+            log.warn("Cannot reserve {} BTC and {} BSQ for offer '{}';  only {} BTC and {} BSQ are unreserved.",
+                    formatSatoshis(reservation.btc()),
+                    formatBsq(reservation.bsq()),
+                    reservation.offerId(),
+                    formatSatoshis(unreservedBtc),
+                    formatBsq(unreservedBsq));
+            return false;
+        }
+        reservationsByOfferId.put(reservation.offerId(), reservation);
+        return true;
+    }
+
+    /**
+     * Release the given reservation after its take completes.  If the offer was taken, the reserved amounts are
+     * deducted from the available balances until the next reconciliation.
+     */
+    synchronized void release(Reservation reservation, boolean isTaken) {
+        reservationsByOfferId.remove(reservation.offerId());
+        if (isTaken) {
+            availableBtc -= reservation.btc();
+            availableBsq -= reservation.bsq();
+        }
+    }
+
+    /**
+     * Returns true if no takes are in flight.
+     */
+    synchronized boolean isIdle() {
+        return reservationsByOfferId.isEmpty();
+    }
+
+    /**
+     * Replace the ledger's available balances with the given getbalances reply, if the ledger is idle.
+     */
+    synchronized void reconcile(BalancesInfo balances) {
+        if (!isIdle()) {
+            log.debug("Cannot reconcile ledger with {} take(s) in flight.", reservationsByOfferId.size());
+            return;
+        }
+        this.availableBtc = balances.getBtc().getAvailableBalance();
+        this.availableBsq = balances.getBsq().getAvailableConfirmedBalance();
+        this.isReconciled = true;
+    }
+
+    private long reservedBtc() {
+        return reservationsByOfferId.values().stream().mapToLong(Reservation::btc).sum();
+    }
+
+    private long reservedBsq() {
+        return reservationsByOfferId.values().stream().mapToLong(Reservation::bsq).sum();
+    }
+}
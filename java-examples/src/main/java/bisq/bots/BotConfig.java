@@ -0,0 +1,201 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+import static java.math.RoundingMode.HALF_UP;
+
+/**
+ * Immutable, typed snapshot of a bot's configuration file.
+ * <p>
+ * Every known property defined in the file is parsed and validated when the snapshot is created, so a snapshot
+ * created without an exception can be applied to a running bot as a whole.  A getter throws an
+ * IllegalStateException if the bot asks for a property the file does not define.
+ */
+final class BotConfig {
+
+    private final Map<String, String> valuesByKey = new TreeMap<>();
+
+    @Nullable
+    private final String paymentAccountId;
+    @Nullable
+    private final BigDecimal minMarketPriceMargin;
+    @Nullable
+    private final BigDecimal maxMarketPriceMargin;
+    @Nullable
+    private final BigDecimal regtest30DayAvgBsqPrice;
+    @Nullable
+    private final BigDecimal minAmount;
+    @Nullable
+    private final BigDecimal maxAmount;
+    @Nullable
+    private final Long maxTxFeeRate;
+    @Nullable
+    private final String bisqTradeFeeCurrency;
+    @Nullable
+    private final Integer maxTakeOffers;
+    @Nullable
+    private final Long pollingInterval;
+    private final List<String> preferredTradingPeers;
+
+    /**
+     * Parse and validate the given properties, or throw an IllegalStateException describing the first invalid one.
+     *
+     * @param properties loaded from the bot's configuration file
+     */
+    BotConfig(Properties properties) {
+        properties.stringPropertyNames().forEach(key -> valuesByKey.put(key, properties.getProperty(key).trim()));
+
+        this.paymentAccountId = parse("paymentAccountId", Function.identity());
+        this.minMarketPriceMargin = parse("minMarketPriceMargin", v -> new BigDecimal(v).setScale(2, HALF_UP));
+        this.maxMarketPriceMargin = parse("maxMarketPriceMargin", v -> new BigDecimal(v).setScale(2, HALF_UP));
+        this.regtest30DayAvgBsqPrice = parse("regtest30DayAvgBsqPrice", v -> new BigDecimal(v).setScale(8, HALF_UP));
+        this.minAmount = parse("minAmount", BigDecimal::new);
+        this.maxAmount = parse("maxAmount", BigDecimal::new);
+        this.maxTxFeeRate = parse("maxTxFeeRate", Long::parseLong);
+        this.bisqTradeFeeCurrency = parse("bisqTradeFeeCurrency", Function.identity());
+        this.maxTakeOffers = parse("maxTakeOffers", Integer::parseInt);
+        this.pollingInterval = parse("pollingInterval", Long::parseLong);
+        var commaSeparatedPeers = valuesByKey.getOrDefault("preferredTradingPeers", "");
+        this.preferredTradingPeers = commaSeparatedPeers.isBlank()
+                ? List.of()
+                : Arrays.stream(commaSeparatedPeers.split(",")).map(BotUtils::getValidatedPeerAddress).toList();
+
+        validate();
+    }
+
+    String getPaymentAccountId() {
+        return require("paymentAccountId", paymentAccountId);
+    }
+
+    BigDecimal getMinMarketPriceMargin() {
+        return require("minMarketPriceMargin", minMarketPriceMargin);
+    }
+
+    BigDecimal getMaxMarketPriceMargin() {
+        return require("maxMarketPriceMargin", maxMarketPriceMargin);
+    }
+
+    BigDecimal getRegtest30DayAvgBsqPrice() {
+        return require("regtest30DayAvgBsqPrice", regtest30DayAvgBsqPrice);
+    }
+
+    BigDecimal getMinAmount() {
+        return require("minAmount", minAmount);
+    }
+
+    BigDecimal getMaxAmount() {
+        return require("maxAmount", maxAmount);
+    }
+
+    long getMaxTxFeeRate() {
+        return require("maxTxFeeRate", maxTxFeeRate);
+    }
+
+    String getBisqTradeFeeCurrency() {
+        return require("bisqTradeFeeCurrency", bisqTradeFeeCurrency);
+    }
+
+    int getMaxTakeOffers() {
+        return require("maxTakeOffers", maxTakeOffers);
+    }
+
+    long getPollingInterval() {
+        return require("pollingInterval", pollingInterval);
+    }
+
+    List<String> getPreferredTradingPeers() {
+        return preferredTradingPeers;
+    }
+
+    /**
+     * Throws an IllegalStateException if this snapshot does not define every property defined in the given
+     * snapshot.  A changed configuration file must be complete;  a removed property is never silently defaulted.
+     */
+    void requirePropertiesDefinedIn(BotConfig previous) {
+        var missingKeys = new TreeSet<>(previous.valuesByKey.keySet());
+        missingKeys.removeAll(valuesByKey.keySet());
+        if (!missingKeys.isEmpty())
+            throw new IllegalStateException(format("Configuration is missing properties %s.", missingKeys));
+    }
+
+    /**
+     * Returns the keys of the properties whose values differ between this snapshot and the given snapshot.
+     */
+    Set<String> getChangedKeys(BotConfig previous) {
+        var allKeys = new TreeSet<>(valuesByKey.keySet());
+        allKeys.addAll(previous.valuesByKey.keySet());
+        allKeys.removeIf(key -> Objects.equals(valuesByKey.get(key), previous.valuesByKey.get(key)));
+        return allKeys;
+    }
+
+    /**
+     * Returns a description of the changes from the given snapshot to this snapshot, one "key: old -> new" per line.
+     */
+    String describeChanges(BotConfig previous) {
+        var description = new StringBuilder();
+        getChangedKeys(previous).forEach(key -> description.append(format("%n\t%s: %s -> %s",
+                key,
+                previous.valuesByKey.get(key),
+                valuesByKey.get(key))));
+        return description.toString();
+    }
+
+    private void validate() {
+        if (bisqTradeFeeCurrency != null
+                && !bisqTradeFeeCurrency.equalsIgnoreCase("BSQ")
+                && !bisqTradeFeeCurrency.equalsIgnoreCase("BTC"))
+            throw new IllegalStateException(
+                    format("Bisq trade fees must be paid in BSQ or BTC, not %s.", bisqTradeFeeCurrency));
+
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0)
+            throw new IllegalStateException(format("minAmount %s cannot be greater than maxAmount %s.",
+                    minAmount,
+                    maxAmount));
+
+        if (maxTakeOffers != null && maxTakeOffers < 1)
+            throw new IllegalStateException("Max # of offers to take must be at least 1.");
+
+        if (pollingInterval != null && pollingInterval < 1_000)
+            throw new IllegalStateException("Cannot poll offer-book faster than 1x per second.");
+    }
+
+    @Nullable
+    private <T> T parse(String key, Function<String, T> parser) {
+        var value = valuesByKey.get(key);
+        if (value == null)
+            return null;
+
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException | ArithmeticException ex) {
+            throw new IllegalStateException(format("Invalid value '%s' for property %s.", value, key));
+        }
+    }
+
+    private static <T> T require(String key, @Nullable T value) {
+        if (value == null)
+            throw new IllegalStateException(format("Configuration does not define property %s.", key));
+
+        return value;
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Append-only, memory-mapped journal of a bot's session events, replayed at startup so a restarted bot knows how
+ * many offers it has taken, which offers it took during a dry run, and which takes were in flight when it stopped,
+ * without querying the API daemon.
+ * <p>
+ * Each record is written as:
+ * <pre>
+ *     int   payload length (written last, a zero length marks the end of the journal)
+ *     int   CRC32 checksum of the type, timestamp and payload
+ *     byte  event type
+ *     long  event timestamp (epoch ms)
+ *     byte[] UTF-8 payload (an offer id, or a trade id and trade state)
+ * </pre>
+ * Replay stops at the first record with a zero length or a bad checksum, which is where a crash interrupted the
+ * last write;  the rest of the file is cleared, and new records are appended from there.
+ * <p>
+ * A session ends when the bot has taken its maximum number of offers.  Events recorded before the last
+ * {@link EventType#SESSION_ENDED} event are not counted against the next session.  Offers taken during dry runs are
+ * counted separately, so a dry run does not use up a real session's takes, and a dry run session ends with a
+ * {@link EventType#DRY_RUN_SESSION_ENDED} event.
+ * <p>
+ * Each bot start records an {@link EventType#ARMED} event, after the takes in flight when the bot last stopped are
+ * reported, so they are only reported once.
+ */
+@Slf4j
+class BotJournal {
+
+    enum EventType {
+        ARMED,
+        TAKE_ATTEMPTED,
+        OFFER_TAKEN,
+        DRY_RUN_OFFER_TAKEN,
+        TAKE_FAILED,
+        TRADE_STATE,
+        SESSION_ENDED,
+        DRY_RUN_SESSION_ENDED
+    }
+
+    private static final int SEGMENT_SIZE = 1024 * 1024;
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES + Byte.BYTES + Long.BYTES;
+    private static final int MAX_PAYLOAD_SIZE = 4096;
+
+    /**
+     * Journal used when no journal file is configured:  records nothing, and replays nothing.
+     */
+    static final BotJournal DISABLED = new BotJournal();
+
+    @Nullable
+    private final FileChannel channel;
+    @Nullable
+    private MappedByteBuffer buffer;
+    private int position;
+    private final CRC32 crc = new CRC32();
+
+    // Session state restored by replay, and kept up to date by appends.
+    @Getter
+    private int numOffersTaken;
+    @Getter
+    private int numDryRunOffersTaken;
+    private final Set<String> dryRunOfferIds = new LinkedHashSet<>();
+    private final Set<String> inFlightOfferIds = new LinkedHashSet<>();
+    private final Map<String, String> tradeStatesById = new LinkedHashMap<>();
+
+    private BotJournal() {
+        this.channel = null;
+    }
+
+    private BotJournal(FileChannel channel) throws IOException {
+        this.channel = channel;
+        var size = Math.max(SEGMENT_SIZE, roundUpToSegmentSize(channel.size()));
+        this.buffer = channel.map(READ_WRITE, 0, size);
+        replay();
+    }
+
+    /**
+     * Open (or create) the journal file at the given path, and replay its session events.
+     *
+     * @param path of the journal file
+     * @return BotJournal positioned after its last valid record
+     */
+    static BotJournal open(Path path) {
+        try {
+            var startTime = System.nanoTime();
+            var journal = new BotJournal(FileChannel.open(path, CREATE, READ, WRITE));
+            log.info("Replayed session journal {} in {} ms:  {} offer(s) taken, {} offer(s) taken during dry run,"
+                            + " {} take(s) were in flight.",
+                    path.toAbsolutePath(),
+                    (System.nanoTime() - startTime) / 1_000_000,
+                    journal.numOffersTaken,
+                    journal.numDryRunOffersTaken,
+                    journal.inFlightOfferIds.size());
+            return journal;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not open session journal " + path, ex);
+        }
+    }
+
+    /**
+     * Returns true if the given offer was taken during a dry run in the current session.
+     */
+    synchronized boolean isDryRunOfferTaken(String offerId) {
+        return dryRunOfferIds.contains(offerId);
+    }
+
+    /**
+     * Returns the ids of offers the bot was attempting to take when it last stopped.
+     */
+    synchronized Set<String> getInFlightOfferIds() {
+        return new LinkedHashSet<>(inFlightOfferIds);
+    }
+
+    /**
+     * Returns the last recorded state of each trade created in the current session, by trade id.
+     */
+    synchronized Map<String, String> getTradeStatesById() {
+        return new LinkedHashMap<>(tradeStatesById);
+    }
+
+    /**
+     * Append a session event with the given payload, and flush it to the journal file.
+     *
+     * @param eventType the event type
+     * @param payload   the event's offer id, or trade id and state
+     */
+    synchronized void append(EventType eventType, String payload) {
+        if (channel == null)
+            return;
+
+        var payloadBytes = payload.getBytes(UTF_8);
+        if (payloadBytes.length == 0 || payloadBytes.length > MAX_PAYLOAD_SIZE)
+            throw new IllegalArgumentException("Journal event payload must be 1 to 4096 bytes long.");
+
+        var timestamp = System.currentTimeMillis();
+        var recordSize = HEADER_SIZE + payloadBytes.length;
+        ensureCapacity(recordSize + Integer.BYTES);
+        var buffer = Objects.requireNonNull(this.buffer);
+        buffer.putInt(position + Integer.BYTES, checksum(eventType, timestamp, payloadBytes));
+        buffer.put(position + 2 * Integer.BYTES, (byte) eventType.ordinal());
+        buffer.putLong(position + 2 * Integer.BYTES + Byte.BYTES, timestamp);
+        buffer.put(position + HEADER_SIZE, payloadBytes);
+        // The length is written last, committing the record.
+        buffer.putInt(position, payloadBytes.length);
+        buffer.force(position, recordSize);
+        position += recordSize;
+
+        apply(eventType, payload);
+    }
+
+    private void replay() {
+        var buffer = Objects.requireNonNull(this.buffer);
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            var length = buffer.getInt(position);
+            if (length <= 0 || length > MAX_PAYLOAD_SIZE || position + HEADER_SIZE + length > buffer.capacity())
+                break;
+
+            var storedChecksum = buffer.getInt(position + Integer.BYTES);
+            var typeOrdinal = buffer.get(position + 2 * Integer.BYTES);
+            var timestamp = buffer.getLong(position + 2 * Integer.BYTES + Byte.BYTES);
+            var payloadBytes = new byte[length];
+            buffer.get(position + HEADER_SIZE, payloadBytes);
+            if (typeOrdinal < 0 || typeOrdinal >= EventType.values().length)
+                break;
+
+            var eventType = EventType.values()[typeOrdinal];
+            if (storedChecksum != checksum(eventType, timestamp, payloadBytes))
+                break;
+
+            apply(eventType, new String(payloadBytes, UTF_8));
+            position += HEADER_SIZE + length;
+        }
+        clearTail();
+    }
+
+    private void apply(EventType eventType, String payload) {
+        switch (eventType) {
+            case ARMED -> {
+                // Takes recorded as in flight before this (re)start can no longer complete, and have been reported.
+                inFlightOfferIds.clear();
+            }
+            case TAKE_ATTEMPTED -> inFlightOfferIds.add(payload);
+            case OFFER_TAKEN -> {
+                inFlightOfferIds.remove(payload);
+                numOffersTaken++;
+            }
+            case DRY_RUN_OFFER_TAKEN -> {
+                inFlightOfferIds.remove(payload);
+                dryRunOfferIds.add(payload);
+                numDryRunOffersTaken++;
+            }
+            case TAKE_FAILED -> inFlightOfferIds.remove(payload);
+            case TRADE_STATE -> {
+                var separator = payload.indexOf(' ');
+                tradeStatesById.put(payload.substring(0, separator), payload.substring(separator + 1));
+            }
+            case SESSION_ENDED -> {
+                numOffersTaken = 0;
+                inFlightOfferIds.clear();
+                tradeStatesById.clear();
+            }
+            case DRY_RUN_SESSION_ENDED -> {
+                numDryRunOffersTaken = 0;
+                dryRunOfferIds.clear();
+                inFlightOfferIds.clear();
+            }
+        }
+    }
+
+    /**
+     * Zero any partially written record after the last valid one, so it cannot be mistaken for a record later.
+     */
+    private void clearTail() {
+        var buffer = Objects.requireNonNull(this.buffer);
+        var end = Math.min(position + HEADER_SIZE + MAX_PAYLOAD_SIZE, buffer.capacity());
+        var isDirty = false;
+        for (int i = position; i < end; i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+                isDirty = true;
+            }
+        }
+        if (isDirty) {
+            log.warn("Discarded an incomplete record at the end of the session journal.");
+            buffer.force();
+        }
+    }
+
+    private void ensureCapacity(int recordSize) {
+        var buffer = Objects.requireNonNull(this.buffer);
+        if (position + recordSize <= buffer.capacity())
+            return;
+
+        try {
+            var size = roundUpToSegmentSize(position + recordSize);
+            this.buffer = Objects.requireNonNull(channel).map(READ_WRITE, 0, size);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private int checksum(EventType eventType, long timestamp, byte[] payloadBytes) {
+        crc.reset();
+        crc.update(eventType.ordinal());
+        for (int shift = 56; shift >= 0; shift -= 8)
+            crc.update((int) (timestamp >>> shift));
+        crc.update(payloadBytes);
+        return (int) crc.getValue();
+    }
+
+    private static int roundUpToSegmentSize(long size) {
+        return (int) (((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE) * SEGMENT_SIZE);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bot's counters and gauges, rendered in the Prometheus text exposition format by the {@link BotMetricsServer}.
+ * <p>
+ * Counters are LongAdders and gauges are volatile fields, so the bot's poll loop and take offer threads record
+ * values without locking, and without waiting for a scrape in progress.
+ */
+class BotMetrics {
+
+    private final long startTimeInNanos = System.nanoTime();
+
+    private final LongAdder pollCycles = new LongAdder();
+    private final LongAdder pollCycleNanos = new LongAdder();
+    private volatile long lastPollCycleNanos;
+
+    private final LongAdder offersSeen = new LongAdder();
+    private final LongAdder offersMatched = new LongAdder();
+
+    private final LongAdder takesAttempted = new LongAdder();
+    private final LongAdder takesSucceeded = new LongAdder();
+    private final Map<String, LongAdder> takesFailedByReason = new ConcurrentHashMap<>();
+
+    private volatile long txFeeRate = -1;
+    private volatile long maxTxFeeRate = -1;
+
+    void recordPollCycle(long durationInNanos) {
+        pollCycles.increment();
+        pollCycleNanos.add(durationInNanos);
+        lastPollCycleNanos = durationInNanos;
+    }
+
+    void recordOffersSeen(int numOffers) {
+        offersSeen.add(numOffers);
+    }
+
+    void recordOffersMatched(int numOffers) {
+        offersMatched.add(numOffers);
+    }
+
+    void recordTakeAttempted() {
+        takesAttempted.increment();
+    }
+
+    void recordTakeSucceeded() {
+        takesSucceeded.increment();
+    }
+
+    /**
+     * Count a failed take attempt.
+     *
+     * @param reason short, lower case description, e.g., an offer availability result, or "rate_limited"
+     */
+    void recordTakeFailed(String reason) {
+        takesFailedByReason.computeIfAbsent(reason, r -> new LongAdder()).increment();
+    }
+
+    void recordTxFeeRates(long txFeeRate, long maxTxFeeRate) {
+        this.txFeeRate = txFeeRate;
+        this.maxTxFeeRate = maxTxFeeRate;
+    }
+
+    /**
+     * Append all metrics to the given StringBuilder, in the Prometheus text exposition format.
+     */
+    StringBuilder appendTo(StringBuilder sb) {
+        appendMetric(sb, "bisq_bot_uptime_seconds", "gauge", "Time since the bot started.",
+                toSeconds(System.nanoTime() - startTimeInNanos));
+
+        appendHeader(sb, "bisq_bot_poll_cycle_duration_seconds", "summary",
+                "Time spent polling, evaluating and taking offers, between countdowns.");
+        appendSample(sb, "bisq_bot_poll_cycle_duration_seconds_sum", toSeconds(pollCycleNanos.sum()));
+        appendSample(sb, "bisq_bot_poll_cycle_duration_seconds_count", pollCycles.sum());
+        appendMetric(sb, "bisq_bot_last_poll_cycle_duration_seconds", "gauge", "Duration of the last poll cycle.",
+                toSeconds(lastPollCycleNanos));
+
+        appendMetric(sb, "bisq_bot_offers_seen_total", "counter", "Offers returned by getoffers requests.",
+                offersSeen.sum());
+        appendMetric(sb, "bisq_bot_offers_matched_total", "counter", "Offers that passed the bot's take criteria.",
+                offersMatched.sum());
+
+        appendMetric(sb, "bisq_bot_takes_attempted_total", "counter", "Take offer attempts.",
+                takesAttempted.sum());
+        appendMetric(sb, "bisq_bot_takes_succeeded_total", "counter", "Offers taken (or taken during a dry run).",
+                takesSucceeded.sum());
+        appendHeader(sb, "bisq_bot_takes_failed_total", "counter", "Failed take offer attempts, by reason.");
+        new ConcurrentSkipListMap<>(takesFailedByReason).forEach((reason, count) ->
+                appendSample(sb, "bisq_bot_takes_failed_total{reason=\"" + reason + "\"}", count.sum()));
+
+        appendMetric(sb, "bisq_bot_tx_fee_rate_sats_per_byte", "gauge",
+                "Most recent Bisq network tx fee rate (-1 if not yet known).", txFeeRate);
+        appendMetric(sb, "bisq_bot_max_tx_fee_rate_sats_per_byte", "gauge",
+                "Max tx fee rate the bot will take offers at (-1 if not yet known).", maxTxFeeRate);
+        return sb;
+    }
+
+    private static void appendMetric(StringBuilder sb, String name, String type, String help, Object value) {
+        appendHeader(sb, name, type, help);
+        appendSample(sb, name, value);
+    }
+
+    private static void appendHeader(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void appendSample(StringBuilder sb, String name, Object value) {
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static double toSeconds(long nanos) {
+        return nanos / 1_000_000_000d;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.grpc.ConnectivityState;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static io.grpc.ConnectivityState.SHUTDOWN;
+import static io.grpc.ConnectivityState.TRANSIENT_FAILURE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Serves a bot's {@link BotMetrics} and health on the loopback interface, using the JDK's built-in HTTP server.
+ * <pre>
+ *     GET /metrics     Prometheus text exposition format
+ *     GET /health      200 OK, or 503 if the gRPC channel to the API daemon is failing or shut down
+ * </pre>
+ * Requests are handled on a single daemon thread, and only read the bot's metrics, never the bot's state.
+ */
+@Slf4j
+class BotMetricsServer {
+
+    private final HttpServer server;
+
+    /**
+     * @param port         loopback port to listen on
+     * @param metrics      the bot's metrics
+     * @param channelState returns the gRPC channel's current state, without trying to connect
+     */
+    BotMetricsServer(int port, BotMetrics metrics, Supplier<ConnectivityState> channelState) {
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not start metrics server on port " + port + ".", ex);
+        }
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "metrics-server");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.createContext("/metrics", exchange ->
+                respond(exchange, 200, metrics.appendTo(new StringBuilder(2048)).toString()));
+        server.createContext("/health", exchange -> {
+            var state = channelState.get();
+            var isHealthy = state != TRANSIENT_FAILURE && state != SHUTDOWN;
+            respond(exchange, isHealthy ? 200 : 503, (isHealthy ? "OK " : "UNAVAILABLE ") + state + "\n");
+        });
+    }
+
+    void start() {
+        server.start();
+        log.info("Serving metrics on http://{}:{}/metrics",
+                server.getAddress().getHostString(),
+                server.getAddress().getPort());
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            var bytes = body.getBytes(UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import io.grpc.StatusRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static bisq.bots.BotUtils.toCleanErrorMessage;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Runs a bot's informational reports (balance tables, trade summaries) on a single background thread, so the
+ * gRPC calls and table rendering needed to produce them stay off the bot's take offer path.
+ * <p>
+ * Reports are queued in a bounded queue and run in submission order.  If the queue is full, the new report is
+ * dropped with a warning instead of blocking the bot.  A report that fails with a gRPC StatusRuntimeException is
+ * logged and discarded;  reports are informational, and can never change the bot's behavior.
+ * <p>
+ * Call {@link #drain(long)} before the bot terminates itself, to give queued reports a chance to be printed.
+ */
+@Slf4j
+class BotReporter {
+
+    private static final int MAX_QUEUED_REPORTS = 32;
+
+    private final ThreadPoolExecutor executor;
+
+    BotReporter() {
+        this.executor = new ThreadPoolExecutor(1,
+                1,
+                0L,
+                MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_REPORTS),
+                runnable -> {
+                    var thread = new Thread(runnable, "bot-reporter");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> {
+                    if (!executor.isShutdown())
+                        log.warn("Report queue is full, dropping report.");
+                });
+    }
+
+    /**
+     * Queue the given report to run on the reporter thread, in submission order.
+     *
+     * @param report the task fetching and printing the report
+     */
+    void report(Runnable report) {
+        executor.execute(() -> {
+            try {
+                report.run();
+            } catch (StatusRuntimeException grpcException) {
+                log.warn("Could not print report: {}", toCleanErrorMessage.apply(grpcException));
+            } catch (RuntimeException ex) {
+                log.warn("Could not print report.", ex);
+            }
+        });
+    }
+
+    /**
+     * Stop accepting new reports, and wait up to the given number of milliseconds for queued reports to finish.
+     *
+     * @param timeoutInMillis max time to wait for queued reports
+     */
+    void drain(long timeoutInMillis) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeoutInMillis, MILLISECONDS))
+                log.warn("Gave up waiting for {} queued report(s).", executor.getQueue().size());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -16,14 +16,19 @@
  */
 package bisq.bots;
 
+import bisq.bots.table.builder.ParallelTableBuilder;
+import bisq.bots.table.builder.StreamingTableBuilder;
 import bisq.bots.table.builder.TableBuilder;
 import bisq.proto.grpc.GetTradesRequest;
 import bisq.proto.grpc.OfferInfo;
 import bisq.proto.grpc.TradeInfo;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.AsyncAppenderBase;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import protobuf.PaymentAccount;
 
 import java.io.BufferedReader;
@@ -52,6 +57,10 @@ public class BotUtils {
 
     private static final String BANNER = "##############################################################################";
 
+    // Reports are rendered into a StringBuilder reused by each thread, unless it grew too large to keep around.
+    private static final int MAX_REUSED_REPORT_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> reportBuilder = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
     public static final Predicate<String> isBsq = (currencyCode) -> currencyCode.equalsIgnoreCase("BSQ");
     public static final Predicate<String> isXmr = (currencyCode) -> currencyCode.equalsIgnoreCase("XMR");
     public static final Predicate<String> isAltcoin = (currencyCode) -> isBsq.test(currencyCode) || isXmr.test(currencyCode);
@@ -364,56 +373,97 @@ public class BotUtils {
      * The map argument should contain only scalar values or short strings as values
      * (not lists or maps), or you will get ugly results.
      */
-    public static final BiFunction<String, Map<String, Object>, String> toTable = (title, map) -> {
-        var mapElements = map.entrySet();
-        Supplier<Integer> longestLabel = () -> {
-            int[] len = {0};  // Make implicitly final to modify in map element iteration.
-            mapElements.forEach((e) -> {
-                var labelLen = e.getKey().length();
-                len[0] = Math.max(labelLen, len[0]);
-            });
-            return len[0];
-        };
-        int labelWidth = longestLabel.get() + 2;
-        Supplier<String> resultsTable = () -> {
-            var numRows = mapElements.size();
-            var rows = new StringBuilder();
-            int[] rowNum = {0};  // Make implicitly final to modify in map element iteration.
-            mapElements.forEach((e) -> {
-                var label = e.getKey();
-                String value;
-                if (e.getValue() instanceof Boolean) {
-                    value = ((Boolean) e.getValue()) ? "YES" : "NO";
-                } else {
-                    value = e.getValue().toString();
-                }
-                var rowFormatSpec = (label.startsWith("\t"))
-                        ? "%-" + labelWidth + "s" + " " + "%s"
-                        : "%-" + (labelWidth + 3) + "s" + " " + "%s";
-                var row = format(rowFormatSpec, label, value);
-                rows.append("\t").append(row);
-                if (++rowNum[0] < numRows) {
-                    rows.append("\n");
-                }
-            });
-            return rows.toString();
-        };
-        return title + "\n" +
-                resultsTable.get();
-    };
+    public static final BiFunction<String, Map<String, Object>, String> toTable = (title, map) ->
+            appendTable(new StringBuilder(), title, map).toString();
+
+    /**
+     * Append the given Map to the given StringBuilder, as a table with two columns:  label and value.
+     *
+     * @param stringBuilder the target StringBuilder
+     * @param title         the table's title
+     * @param map           of values by label, see {@link #toTable}
+     * @return the given StringBuilder
+     */
+    public static StringBuilder appendTable(StringBuilder stringBuilder, String title, Map<String, Object> map) {
+        int labelWidth = 0;
+        for (var label : map.keySet()) {
+            labelWidth = Math.max(label.length(), labelWidth);
+        }
+        labelWidth += 2;
+        stringBuilder.append(title).append("\n");
+        int rowNum = 0;
+        for (var e : map.entrySet()) {
+            var label = e.getKey();
+            var paddedWidth = label.startsWith("\t") ? labelWidth : labelWidth + 3;
+            stringBuilder.append("\t").append(label);
+            for (int i = label.length(); i < paddedWidth; i++) {
+                stringBuilder.append(' ');
+            }
+            stringBuilder.append(' ');
+            if (e.getValue() instanceof Boolean) {
+                stringBuilder.append(((Boolean) e.getValue()) ? "YES" : "NO");
+            } else {
+                stringBuilder.append(e.getValue());
+            }
+            if (++rowNum < map.size()) {
+                stringBuilder.append("\n");
+            }
+        }
+        return stringBuilder;
+    }
 
     /**
-     * Print offer summary to stdout.
+     * Log a report at INFO level, if the given logger's INFO level is enabled.  The report is rendered by the given
+     * function into a StringBuilder reused by the calling thread, so reports nobody reads are never rendered, and
+     * reports that are logged do not allocate a new buffer each poll cycle.
+     *
+     * @param log      the logger the report is written to
+     * @param renderer appends the report to the given StringBuilder
+     */
+    public static void logReport(Logger log, Consumer<StringBuilder> renderer) {
+        if (!log.isInfoEnabled())
+            return;
+
+        var report = reportBuilder.get();
+        report.setLength(0);
+        try {
+            renderer.accept(report);
+            // Tables end with a line separator, and the log pattern adds another.
+            var lineSeparator = lineSeparator();
+            if (report.length() >= lineSeparator.length()
+                    && report.lastIndexOf(lineSeparator) == report.length() - lineSeparator.length())
+                report.setLength(report.length() - lineSeparator.length());
+
+            log.info(report.toString());
+        } finally {
+            if (report.capacity() > MAX_REUSED_REPORT_CAPACITY)
+                reportBuilder.remove();
+        }
+    }
+
+    /**
+     * Log a two column (label, value) table at INFO level, if enabled.  The title and map are not created otherwise.
+     *
+     * @param log   the logger the table is written to
+     * @param title supplies the table's title
+     * @param map   supplies the map of values by label, see {@link #toTable}
+     */
+    public static void logTable(Logger log, Supplier<String> title, Supplier<Map<String, Object>> map) {
+        logReport(log, report -> appendTable(report, title.get(), map.get()));
+    }
+
+    /**
+     * Print offer summary to the console, through the log, so it is not interleaved with log lines still queued by
+     * the async console appender.
      *
      * @param offer printed offer
      */
     public static void printOfferSummary(OfferInfo offer) {
-        requireNonNull(offer, "OfferInfo offer param cannot be null.");
-        new TableBuilder(OFFER_TBL, offer).build().print(out);
+        printOfferSummary(log, offer);
     }
 
     /**
-     * Print list of offer summaries to stdout
+     * Print list of offer summaries to the console, through the log.
      *
      * @param offers printed offer list
      */
@@ -422,22 +472,68 @@ public class BotUtils {
         if (offers.isEmpty()) {
             log.info("No offers to print.");
         } else {
-            new TableBuilder(OFFER_TBL, offers).build().print(out);
+            logReport(log, report -> new TableBuilder(OFFER_TBL, offers).build()
+                    .appendTo(report.append(lineSeparator())));
         }
     }
 
     /**
-     * Print trade summary to stdout.
+     * Log offer summary at INFO level, if enabled.
+     *
+     * @param log   the logger the summary is written to
+     * @param offer logged offer
+     */
+    public static void printOfferSummary(Logger log, OfferInfo offer) {
+        requireNonNull(offer, "OfferInfo offer param cannot be null.");
+        logReport(log, report -> new TableBuilder(OFFER_TBL, offer).build().appendTo(report.append(lineSeparator())));
+    }
+
+    /**
+     * Log list of offer summaries at INFO level, if enabled.
+     *
+     * @param log    the logger the summaries are written to
+     * @param title  supplies the line logged above the offers table
+     * @param offers logged offer list
+     */
+    public static void printOffersSummary(Logger log, Supplier<String> title, List<OfferInfo> offers) {
+        requireNonNull(offers, "List<OfferInfo> offers param cannot be null.");
+        logReport(log, report -> {
+            report.append(title.get()).append(lineSeparator());
+            if (offers.isEmpty())
+                report.append("No offers to print.");
+            else
+                new TableBuilder(OFFER_TBL, offers).build().appendTo(report);
+        });
+    }
+
+    /**
+     * Print trade summary to the console, through the log.
      *
      * @param trade printed trade
      */
     public static void printTradeSummary(TradeInfo trade) {
         requireNonNull(trade, "TradeInfo trade param cannot be null.");
-        new TableBuilder(TRADE_DETAIL_TBL, trade).build().print(out);
+        logReport(log, report -> new TableBuilder(TRADE_DETAIL_TBL, trade).build()
+                .appendTo(report.append(lineSeparator())));
     }
 
     /**
-     * Print list of trade summaries to stdout.
+     * Log trade summary at INFO level, if enabled.
+     *
+     * @param log   the logger the summary is written to
+     * @param title supplies the line logged above the trade table
+     * @param trade logged trade
+     */
+    public static void printTradeSummary(Logger log, Supplier<String> title, TradeInfo trade) {
+        requireNonNull(trade, "TradeInfo trade param cannot be null.");
+        logReport(log, report -> new TableBuilder(TRADE_DETAIL_TBL, trade).build()
+                .appendTo(report.append(title.get()).append(lineSeparator())));
+    }
+
+    /**
+     * Print list of trade summaries to the console, through the log.  Closed trades, which can be an account's entire
+     * trade history, are rendered in chunks, without building a table of all of them.  Long lists of other trades are
+     * built into a table on all cores.
      *
      * @param category category OPEN | CLOSED | FAILED
      * @param trades   list of trades
@@ -447,22 +543,52 @@ public class BotUtils {
         if (trades.isEmpty()) {
             log.info("No trades to print.");
         } else {
-            switch (category) {
-                case CLOSED -> new TableBuilder(CLOSED_TRADES_TBL, trades).build().print(out);
-                case FAILED -> new TableBuilder(FAILED_TRADES_TBL, trades).build().print(out);
-                default -> new TableBuilder(OPEN_TRADES_TBL, trades).build().print(out);
-            }
+            logReport(log, report -> appendTradesTable(report.append(lineSeparator()), category, trades));
+        }
+    }
+
+    /**
+     * Log list of trade summaries at INFO level, if enabled.  Closed trades are rendered in chunks, without building
+     * a table of all of them.
+     *
+     * @param log      the logger the summaries are written to
+     * @param title    supplies the line logged above the trades table
+     * @param category category OPEN | CLOSED | FAILED
+     * @param trades   list of trades
+     */
+    public static void printTradesSummary(Logger log,
+                                          Supplier<String> title,
+                                          GetTradesRequest.Category category,
+                                          List<TradeInfo> trades) {
+        requireNonNull(trades, "List<TradeInfo> trades param cannot be null.");
+        logReport(log, report -> {
+            report.append(title.get()).append(lineSeparator());
+            if (trades.isEmpty())
+                report.append("No trades to print.");
+            else
+                appendTradesTable(report, category, trades);
+        });
+    }
+
+    private static void appendTradesTable(StringBuilder report,
+                                          GetTradesRequest.Category category,
+                                          List<TradeInfo> trades) {
+        switch (category) {
+            case CLOSED -> new StreamingTableBuilder(CLOSED_TRADES_TBL, trades.iterator()).build().appendTo(report);
+            case FAILED -> new ParallelTableBuilder(FAILED_TRADES_TBL, trades).build().appendTo(report);
+            default -> new ParallelTableBuilder(OPEN_TRADES_TBL, trades).build().appendTo(report);
         }
     }
 
     /**
-     * Prints PaymentAccount summary to stdout.
+     * Prints PaymentAccount summary to the console, through the log.
      *
      * @param paymentAccount the printed PaymentAccount
      */
     public static void printPaymentAccountSummary(PaymentAccount paymentAccount) {
         requireNonNull(paymentAccount, "PaymentAccount paymentAccount param cannot be null.");
-        new TableBuilder(PAYMENT_ACCOUNT_TBL, paymentAccount).build().print(out);
+        logReport(log, report -> new TableBuilder(PAYMENT_ACCOUNT_TBL, paymentAccount).build()
+                .appendTo(report.append(lineSeparator())));
     }
 
     /**
@@ -592,6 +718,7 @@ public class BotUtils {
 
     /**
      * Run a bash script to count down the given number of seconds, printing each character of output from stdout.
+     * The countdown starts after the log lines queued by the async console appender are written.
      * <p>
      * Can only be run if the system's bash command language interpreter can be found.
      *
@@ -599,6 +726,7 @@ public class BotUtils {
      */
     public static void showCountdown(int seconds) {
         getBashPath().ifPresentOrElse((bashPath) -> {
+            awaitQueuedLogEvents();
             var bashScript = format(
                     "for i in {%d..1}; do echo -ne \"Waking up in $i seconds...\\r\" && sleep 1; done; echo -ne \"\\r\"", seconds);
             try {
@@ -613,6 +741,31 @@ public class BotUtils {
         });
     }
 
+    /**
+     * Wait, for at most a second, until the root logger's async appenders' queues are empty, so output written to
+     * stdout next is not interleaved with the log lines logged before it.
+     */
+    private static void awaitQueuedLogEvents() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext))
+            return;
+
+        var deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        var appenders = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (!(appenders.next() instanceof AsyncAppenderBase<?> asyncAppender))
+                continue;
+
+            while (asyncAppender.getNumberOfElementsInQueue() > 0 && System.nanoTime() < deadline) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
     /**
      * Execute a bash system command, print process' stdout during the command's execution,
      * and return its status code (0 or 1).
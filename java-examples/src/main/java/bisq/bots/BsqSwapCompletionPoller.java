@@ -0,0 +1,221 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import bisq.proto.grpc.GetTradeRequest;
+import bisq.proto.grpc.GetTransactionRequest;
+import bisq.proto.grpc.TradeInfo;
+import io.grpc.StatusRuntimeException;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static bisq.bots.BotUtils.exceptionHasStatus;
+import static io.grpc.Status.*;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Detects the completion of a BSQ swap just taken, by polling the API daemon's gettrade and gettransaction methods at
+ * short, growing intervals, and completes a future as soon as the swap shows up.
+ * <p>
+ * The first poll is sent right away, and the delay between polls doubles from {@value #MIN_POLL_DELAY} ms to
+ * {@value #MAX_POLL_DELAY} ms, so a swap executed by the time the takeoffer request returns is found within
+ * milliseconds, and a slow one does not make the bot poll the daemon at a high rate.  The daemon allows one gettrade
+ * and one gettransaction call per second, so each method is called at most once per second, and the two are
+ * alternated once the swap's transaction id is known.  A call the daemon's rate meter denies anyway (e.g., because
+ * another swap is being polled) is retried at the next poll.
+ */
+@Slf4j
+class BsqSwapCompletionPoller {
+
+    private static final long MIN_POLL_DELAY = 50;
+    private static final long MAX_POLL_DELAY = 1_000;
+    // The API daemon's gettrade and gettransaction call rate meters allow 1 call per second.
+    private static final long CALL_RATE_METER_WINDOW = 1_000;
+    // Matches the time the bots waited for new v1 protocol trades to be prepared.
+    private static final long TIMEOUT = 15_000;
+
+    // Polls all swaps being taken, which is rarely more than one, because the daemon allows 1 takeoffer per minute.
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "bsq-swap-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final GrpcStubs grpcStubs;
+    private final String tradeId;
+    private final CompletableFuture<TradeInfo> completion = new CompletableFuture<>();
+    private final long deadline;
+
+    // Only accessed by the scheduler thread, once polling has started.
+    @Nullable
+    private TradeInfo trade;
+    private long pollDelay = MIN_POLL_DELAY;
+    private long lastGetTradeTime;
+    private long lastGetTransactionTime;
+
+    /**
+     * Start polling for the completion of the BSQ swap with the given trade id.
+     *
+     * @param grpcStubs gRPC service stubs, initialized with hostname, port, and credentials
+     * @param tradeId   the id of the taken BSQ swap offer, and the new swap
+     * @param trade     the swap in the takeoffer reply, if any, from which the swap's transaction id may be known
+     * @return CompletableFuture<TradeInfo> completed with the swap, or completed exceptionally with a gRPC
+     * StatusRuntimeException if the swap failed, or was not completed within {@value #TIMEOUT} ms.
+     */
+    static CompletableFuture<TradeInfo> start(GrpcStubs grpcStubs, String tradeId, @Nullable TradeInfo trade) {
+        var poller = new BsqSwapCompletionPoller(grpcStubs, tradeId, trade);
+        if (trade == null || !poller.isSwapDone())
+            scheduler.execute(poller::poll);
+
+        return poller.completion;
+    }
+
+    private BsqSwapCompletionPoller(GrpcStubs grpcStubs, String tradeId, @Nullable TradeInfo trade) {
+        this.grpcStubs = grpcStubs;
+        this.tradeId = tradeId;
+        this.trade = trade;
+        var now = System.nanoTime();
+        this.deadline = now + MILLISECONDS.toNanos(TIMEOUT);
+        this.lastGetTradeTime = now - MILLISECONDS.toNanos(CALL_RATE_METER_WINDOW);
+        this.lastGetTransactionTime = lastGetTradeTime;
+    }
+
+    private void poll() {
+        try {
+            if (hasSwapTxId() && isCallAllowed(lastGetTransactionTime)) {
+                lastGetTransactionTime = System.nanoTime();
+                // The swap is executed when its transaction is in the wallet, even if the last swap state seen
+                // was not COMPLETED yet.
+                if (isSwapTxInWallet()) {
+                    completion.complete(trade);
+                    return;
+                }
+            } else if (isCallAllowed(lastGetTradeTime)) {
+                lastGetTradeTime = System.nanoTime();
+                if (getTrade() && isSwapDone())
+                    return;
+            }
+        } catch (StatusRuntimeException grpcException) {
+            if (!exceptionHasStatus.test(grpcException, PERMISSION_DENIED)) {
+                completion.completeExceptionally(grpcException);
+                return;
+            }
+        } catch (RuntimeException ex) {
+            completion.completeExceptionally(ex);
+            return;
+        }
+
+        if (System.nanoTime() - deadline > 0) {
+            completion.completeExceptionally(new StatusRuntimeException(NOT_FOUND
+                    .withDescription(trade == null
+                            ? "Something bad happened, could not find the new trade."
+                            + "    Shut down the API bot and server, then check the server log."
+                            : "BSQ swap '" + tradeId + "' was not completed, its state is " + trade.getState() + "."
+                            + "    Shut down the API bot and server, then check the server log.")));
+            return;
+        }
+
+        var delay = Math.max(pollDelay, getMillisUntilNextCallAllowed());
+        pollDelay = Math.min(pollDelay * 2, MAX_POLL_DELAY);
+        scheduler.schedule(this::poll, delay, MILLISECONDS);
+    }
+
+    /**
+     * If the swap completed or failed, completes the future, and returns true.
+     */
+    private boolean isSwapDone() {
+        var swap = requireTrade();
+        var errorMessage = swap.getBsqSwapTradeInfo().getErrorMessage();
+        if (swap.getState().equals("FAILED") || !errorMessage.isEmpty()) {
+            completion.completeExceptionally(new StatusRuntimeException(FAILED_PRECONDITION
+                    .withDescription("BSQ swap '" + tradeId + "' failed:  " + errorMessage)));
+            return true;
+        } else if (swap.getState().equals("COMPLETED")) {
+            completion.complete(swap);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the swap from the API daemon, and returns true if it was found.
+     */
+    private boolean getTrade() {
+        try {
+            var request = GetTradeRequest.newBuilder().setTradeId(tradeId).build();
+            this.trade = grpcStubs.tradesService.getTrade(request).getTrade();
+            return true;
+        } catch (StatusRuntimeException grpcException) {
+            if (exceptionHasStatus.test(grpcException, NOT_FOUND))
+                return false;
+            else
+                throw grpcException;
+        }
+    }
+
+    /**
+     * Returns true if the API daemon's wallet has the swap's transaction, i.e., the swap has been executed.
+     */
+    private boolean isSwapTxInWallet() {
+        try {
+            var request = GetTransactionRequest.newBuilder()
+                    .setTxId(requireTrade().getBsqSwapTradeInfo().getTxId())
+                    .build();
+            //noinspection ResultOfMethodCallIgnored
+            grpcStubs.walletsService.getTransaction(request);
+            return true;
+        } catch (StatusRuntimeException grpcException) {
+            if (exceptionHasStatus.test(grpcException, NOT_FOUND))
+                return false;
+            else
+                throw grpcException;
+        }
+    }
+
+    private boolean hasSwapTxId() {
+        return trade != null && !trade.getBsqSwapTradeInfo().getTxId().isEmpty();
+    }
+
+    private TradeInfo requireTrade() {
+        if (trade == null)
+            throw new IllegalStateException("BSQ swap '" + tradeId + "' has not been found yet.");
+
+        return trade;
+    }
+
+    private long getMillisUntilNextCallAllowed() {
+        var untilGetTradeAllowed = getMillisUntilCallAllowed(lastGetTradeTime);
+        return hasSwapTxId()
+                ? Math.min(untilGetTradeAllowed, getMillisUntilCallAllowed(lastGetTransactionTime))
+                : untilGetTradeAllowed;
+    }
+
+    private static boolean isCallAllowed(long lastCallTime) {
+        return getMillisUntilCallAllowed(lastCallTime) == 0;
+    }
+
+    private static long getMillisUntilCallAllowed(long lastCallTime) {
+        var sinceLastCall = NANOSECONDS.toMillis(System.nanoTime() - lastCallTime);
+        return Math.max(CALL_RATE_METER_WINDOW - sinceLastCall, 0);
+    }
+}
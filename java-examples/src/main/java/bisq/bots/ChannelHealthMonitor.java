@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static io.grpc.ConnectivityState.*;
+
+/**
+ * Follows the connectivity state of the gRPC channel to the API daemon, so a bot can tell the daemon is reachable
+ * without sending it a request.
+ * <p>
+ * The channel leaves the READY state as soon as its connection to the daemon closes, e.g., when the daemon stops, or
+ * when an HTTP/2 keepalive ping goes unanswered.  When the channel is READY again, it is connected to a daemon that
+ * may have been restarted, on another BTC network, or with another version;  reconnect listeners are called so
+ * anything cached about the daemon can be dropped.
+ */
+@Slf4j
+class ChannelHealthMonitor {
+
+    private final ManagedChannel channel;
+    private final List<Runnable> reconnectListeners = new CopyOnWriteArrayList<>();
+
+    private volatile ConnectivityState state;
+    private volatile boolean hasBeenReady;
+
+    ChannelHealthMonitor(ManagedChannel channel) {
+        this.channel = channel;
+        this.state = channel.getState(false);
+        channel.notifyWhenStateChanged(state, this::onStateChanged);
+    }
+
+    /**
+     * Returns true if the channel has an open connection to the API daemon.
+     */
+    boolean isConnected() {
+        return state == READY;
+    }
+
+    /**
+     * Add a listener called each time the channel reconnects to the API daemon, after having been connected.
+     */
+    void addReconnectListener(Runnable listener) {
+        reconnectListeners.add(listener);
+    }
+
+    private void onStateChanged() {
+        var previousState = state;
+        var newState = channel.getState(false);
+        this.state = newState;
+
+        if (newState == READY) {
+            if (hasBeenReady) {
+                if (previousState == TRANSIENT_FAILURE)
+                    log.info("Reconnected to API daemon.");
+                else
+                    log.debug("Reconnected to API daemon.");
+                reconnectListeners.forEach(Runnable::run);
+            }
+            hasBeenReady = true;
+        } else if (newState == TRANSIENT_FAILURE && previousState != TRANSIENT_FAILURE) {
+            log.warn("Lost connection to API daemon.");
+        }
+
+        if (newState != SHUTDOWN)
+            channel.notifyWhenStateChanged(newState, this::onStateChanged);
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import io.grpc.*;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static bisq.bots.CircuitBreakerInterceptor.Permit.*;
+import static io.grpc.Status.Code.*;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.*;
+
+/**
+ * Fails calls to the API daemon fast while the daemon is failing, so an overloaded or restarting daemon gets time to
+ * recover, instead of being called at the bot's full rate.
+ * <p>
+ * Each RPC group (gRPC service, e.g., Offers or Wallets) has its own circuit breaker.  A closed breaker lets calls
+ * through, and opens when the failure rate of the group's last {@value #WINDOW_SIZE} calls reaches the configured
+ * error rate.  An open breaker fails calls with an UNAVAILABLE status, without sending them, until the configured
+ * open time has passed.  Then the breaker is half-open:  it lets one probe call through, and closes if the probe
+ * succeeds, or opens again if it fails.
+ * <p>
+ * Only failures showing the daemon is unreachable or overloaded are counted.  An error status the daemon sends in
+ * reply to a request it could not fulfill, e.g., NOT_FOUND or FAILED_PRECONDITION, means the daemon is working.
+ */
+@Slf4j
+class CircuitBreakerInterceptor implements ClientInterceptor {
+
+    private static final int WINDOW_SIZE = 10;
+    // The fewest calls a breaker's error rate is calculated from.
+    private static final int MIN_CALLS = 5;
+    private static final Set<Status.Code> DAEMON_FAILURE_CODES =
+            Set.of(UNAVAILABLE, DEADLINE_EXCEEDED, RESOURCE_EXHAUSTED, INTERNAL);
+    // The daemon replies to these requests with an UNAVAILABLE status if the wallet is not ready, or has
+    // insufficient funds, which are not daemon failures.
+    private static final Set<String> METHODS_WITH_UNAVAILABLE_REPLIES = Set.of("TakeOffer", "LockWallet", "UnlockWallet");
+
+    enum Permit {
+        CALL,
+        PROBE,
+        REJECTED
+    }
+
+    private final int errorRate;
+    private final long openTimeInNanos;
+    private final Map<String, CircuitBreaker> breakersByGroup = new ConcurrentHashMap<>();
+
+    /**
+     * @param errorRate         percent of an RPC group's recent calls that must fail to open its breaker
+     * @param openTimeInSeconds how long an open breaker fails calls before letting a probe call through
+     */
+    CircuitBreakerInterceptor(int errorRate, long openTimeInSeconds) {
+        this.errorRate = errorRate;
+        this.openTimeInNanos = SECONDS.toNanos(openTimeInSeconds);
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions,
+                                                               Channel next) {
+        var breaker = breakersByGroup.computeIfAbsent(method.getServiceName(), CircuitBreaker::new);
+        var permit = breaker.acquirePermit();
+        if (permit == REJECTED)
+            return new RejectedCall<>(breaker.toRejectedCallStatus());
+
+        return new SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                super.start(new SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        breaker.record(permit, isDaemonFailure(method, status));
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+        };
+    }
+
+    /**
+     * Returns the number of milliseconds until the first open breaker lets a probe call through, or 0 if no breaker
+     * is open.
+     */
+    long getMillisUntilProbe() {
+        return breakersByGroup.values().stream()
+                .mapToLong(CircuitBreaker::getNanosUntilProbe)
+                .filter(nanos -> nanos > 0)
+                .map(NANOSECONDS::toMillis)
+                .min()
+                .orElse(0);
+    }
+
+    /**
+     * Return true if the given gRPC exception shows the API daemon is unreachable or overloaded, or the call was
+     * rejected by an open circuit breaker.
+     */
+    static boolean isDaemonFailure(StatusRuntimeException grpcException) {
+        return DAEMON_FAILURE_CODES.contains(grpcException.getStatus().getCode());
+    }
+
+    /**
+     * Return true if the given gRPC exception is from a call an open circuit breaker failed without sending it.
+     */
+    static boolean isRejectedCall(StatusRuntimeException grpcException) {
+        return grpcException.getCause() instanceof CircuitOpenException;
+    }
+
+    private static boolean isDaemonFailure(MethodDescriptor<?, ?> method, Status status) {
+        if (status.getCode() == UNAVAILABLE && METHODS_WITH_UNAVAILABLE_REPLIES.contains(method.getBareMethodName()))
+            return false;
+
+        return DAEMON_FAILURE_CODES.contains(status.getCode());
+    }
+
+    private final class CircuitBreaker {
+        private final String group;
+        // Ring buffer of the group's last calls' outcomes, true if the call failed.
+        private final boolean[] outcomes = new boolean[WINDOW_SIZE];
+        private int numOutcomes;
+        private int numFailures;
+        private int nextOutcome;
+
+        private boolean isOpen;
+        // When an open breaker lets its next probe call through, or when it let the probe in flight through.
+        private long probeTime;
+        private boolean isProbeInFlight;
+
+        CircuitBreaker(String serviceName) {
+            this.group = serviceName.substring(serviceName.lastIndexOf('.') + 1);
+        }
+
+        synchronized Permit acquirePermit() {
+            if (!isOpen)
+                return CALL;
+
+            var now = System.nanoTime();
+            if (now - probeTime < 0)
+                return REJECTED;
+
+            // A probe that never completed, e.g., because it was never started, does not block the next probe.
+            if (isProbeInFlight && now - probeTime < openTimeInNanos)
+                return REJECTED;
+
+            log.info("{} circuit breaker is half-open, probing API daemon.", group);
+            isProbeInFlight = true;
+            probeTime = now;
+            return PROBE;
+        }
+
+        synchronized void record(Permit permit, boolean isFailure) {
+            if (permit == PROBE) {
+                isProbeInFlight = false;
+                if (isFailure) {
+                    open(group + " circuit breaker probe failed.");
+                } else {
+                    log.info("{} circuit breaker is closed, API daemon recovered.", group);
+                    isOpen = false;
+                    clearOutcomes();
+                }
+            } else if (!isOpen) {
+                addOutcome(isFailure);
+                if (numOutcomes >= MIN_CALLS && numFailures * 100 >= errorRate * numOutcomes)
+                    open(format("%s circuit breaker is open after %d of the last %d calls failed.",
+                            group,
+                            numFailures,
+                            numOutcomes));
+            }
+        }
+
+        synchronized long getNanosUntilProbe() {
+            return isOpen ? Math.max(probeTime - System.nanoTime(), 1) : 0;
+        }
+
+        Status toRejectedCallStatus() {
+            var secondsUntilProbe = NANOSECONDS.toSeconds(getNanosUntilProbe() + SECONDS.toNanos(1) - 1);
+            return Status.UNAVAILABLE
+                    .withDescription(format("%s circuit breaker is open, API daemon will be probed in %d seconds",
+                            group,
+                            secondsUntilProbe))
+                    .withCause(new CircuitOpenException());
+        }
+
+        private void open(String reason) {
+            isOpen = true;
+            probeTime = System.nanoTime() + openTimeInNanos;
+            log.warn("{}  Failing {} calls fast for {} seconds.",
+                    reason,
+                    group,
+                    NANOSECONDS.toSeconds(openTimeInNanos));
+        }
+
+        private void addOutcome(boolean isFailure) {
+            if (numOutcomes == WINDOW_SIZE) {
+                if (outcomes[nextOutcome])
+                    numFailures--;
+            } else {
+                numOutcomes++;
+            }
+            outcomes[nextOutcome] = isFailure;
+            if (isFailure)
+                numFailures++;
+            nextOutcome = (nextOutcome + 1) % WINDOW_SIZE;
+        }
+
+        private void clearOutcomes() {
+            numOutcomes = 0;
+            numFailures = 0;
+            nextOutcome = 0;
+        }
+    }
+
+    /**
+     * A call failed by an open circuit breaker, without being sent to the API daemon.
+     */
+    private static final class RejectedCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+        private final Status status;
+
+        RejectedCall(Status status) {
+            this.status = status;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            responseListener.onClose(status, new Metadata());
+        }
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void cancel(@Nullable String message, @Nullable Throwable cause) {
+        }
+
+        @Override
+        public void halfClose() {
+        }
+
+        @Override
+        public void sendMessage(ReqT message) {
+        }
+    }
+
+    /**
+     * Marks the status of a call failed by an open circuit breaker.  The cause of a gRPC status is never sent, and
+     * the exception carries no stack trace.
+     */
+    private static final class CircuitOpenException extends RuntimeException {
+        CircuitOpenException() {
+            super("circuit breaker is open", null, false, false);
+        }
+    }
+}
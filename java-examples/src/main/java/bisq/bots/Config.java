@@ -22,6 +22,7 @@ import joptsimple.OptionParser;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
@@ -46,6 +47,24 @@ public class Config {
     // This is an experimental option for simulating and automating protocol payment steps during bot development.
     // Be extremely careful in its use;  You do not want to "simulate" payments when API daemon is connected to mainnet.
     private final boolean simulatePaymentSteps;
+    // Optional session journal file, for restoring a restarted bot's session state.
+    @Nullable
+    private final String journal;
+    // Optional trade store file, for indexing the API daemon's closed and failed trades locally.
+    @Nullable
+    private final String tradeStore;
+    // Optional order book history file, for recording each poll cycle's available offers.
+    @Nullable
+    private final String orderBookHistory;
+    // Optional loopback port for the bot's HTTP metrics and health endpoint.
+    @Nullable
+    private final Integer metricsPort;
+    // Percent of an RPC group's recent API daemon calls that must fail to open its circuit breaker.
+    private final int circuitBreakerErrorRate;
+    // Seconds an open circuit breaker fails API daemon calls before letting a probe call through.
+    private final long circuitBreakerOpenTime;
+    // Number of poll cycles after which the bot shuts down, or 0 to poll until shut down otherwise.
+    private final int maxPollCycles;
 
     public Config(String[] args, String defaultPropertiesFilename) {
         var parser = new OptionParser();
@@ -73,6 +92,30 @@ public class Config {
                         .withOptionalArg()
                         .ofType(boolean.class)
                         .defaultsTo(FALSE);
+        var journalOpt = parser.accepts("journal", "Bot session journal file (optional)")
+                .withRequiredArg();
+        var tradeStoreOpt = parser.accepts("trade-store", "Closed and failed trade store file (optional)")
+                .withRequiredArg();
+        var orderBookHistoryOpt = parser.accepts("order-book-history", "Order book history file (optional)")
+                .withRequiredArg();
+        var metricsPortOpt = parser.accepts("metrics-port", "Local HTTP metrics and health endpoint port (optional)")
+                .withRequiredArg()
+                .ofType(Integer.class);
+        var circuitBreakerErrorRateOpt = parser.accepts("circuit-breaker-error-rate",
+                        "Percent of failed API daemon calls that opens a circuit breaker")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(50);
+        var circuitBreakerOpenTimeOpt = parser.accepts("circuit-breaker-open-time",
+                        "Seconds an open circuit breaker fails calls before probing API daemon")
+                .withRequiredArg()
+                .ofType(Long.class)
+                .defaultsTo(30L);
+        var maxPollCyclesOpt = parser.accepts("max-poll-cycles",
+                        "Shut down bot after this many poll cycles, e.g., after an AppCDS training run (optional)")
+                .withRequiredArg()
+                .ofType(Integer.class)
+                .defaultsTo(0);
 
         var options = parser.parse(args);
         if (options.has(helpOpt)) {
@@ -110,6 +153,31 @@ public class Config {
 
         this.dryRun = options.valueOf(dryRunOpt);
         this.simulatePaymentSteps = options.valueOf(simulateRegtestPaymentStepsOpt);
+        this.journal = options.valueOf(journalOpt);
+        this.tradeStore = options.valueOf(tradeStoreOpt);
+        this.orderBookHistory = options.valueOf(orderBookHistoryOpt);
+        this.metricsPort = options.valueOf(metricsPortOpt);
+
+        this.circuitBreakerErrorRate = options.valueOf(circuitBreakerErrorRateOpt);
+        if (circuitBreakerErrorRate < 1 || circuitBreakerErrorRate > 100) {
+            log.error("Invalid '--circuit-breaker-error-rate=<percent>' option:  must be from 1 to 100.");
+            printHelp(parser, err);
+            exit(1);
+        }
+
+        this.circuitBreakerOpenTime = options.valueOf(circuitBreakerOpenTimeOpt);
+        if (circuitBreakerOpenTime < 1) {
+            log.error("Invalid '--circuit-breaker-open-time=<seconds>' option:  must be at least 1 second.");
+            printHelp(parser, err);
+            exit(1);
+        }
+
+        this.maxPollCycles = options.valueOf(maxPollCyclesOpt);
+        if (maxPollCycles < 0) {
+            log.error("Invalid '--max-poll-cycles=<number>' option:  cannot be negative.");
+            printHelp(parser, err);
+            exit(1);
+        }
 
         if (dryRun && simulatePaymentSteps) {
             log.error("""
@@ -0,0 +1,112 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Watches a bot's external configuration file, and turns each change into a new, validated {@link BotConfig}
+ * snapshot waiting to be picked up by the bot between poll cycles.
+ * <p>
+ * The file's directory is watched (not the file itself), so editors saving a file by replacing it are also seen.
+ * Bursts of events caused by a single save are coalesced by waiting a moment before loading the file.  A change that
+ * cannot be loaded or fails validation is logged and ignored;  the bot keeps running on its current configuration.
+ */
+@Slf4j
+class ConfigWatcher {
+
+    private static final long SETTLE_TIME_IN_MILLIS = 250;
+
+    private final Path file;
+    private final Supplier<BotConfig> configLoader;
+    private final AtomicReference<BotConfig> pendingUpdate = new AtomicReference<>();
+
+    /**
+     * @param file         the configuration file to watch
+     * @param configLoader loads and validates the file, or throws an exception
+     */
+    ConfigWatcher(Path file, Supplier<BotConfig> configLoader) {
+        this.file = file.toAbsolutePath();
+        this.configLoader = configLoader;
+    }
+
+    /**
+     * Start watching the configuration file on a daemon thread.
+     */
+    void start() {
+        WatchService watchService;
+        try {
+            watchService = file.getFileSystem().newWatchService();
+            file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException ex) {
+            log.warn("Cannot watch configuration file {} for changes: {}", file, ex.getMessage());
+            return;
+        }
+        var thread = new Thread(() -> watch(watchService), "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Watching configuration file {} for changes.", file);
+    }
+
+    /**
+     * Returns the newest valid configuration loaded since the last call, if the file changed.
+     */
+    Optional<BotConfig> takeUpdate() {
+        return Optional.ofNullable(pendingUpdate.getAndSet(null));
+    }
+
+    private void watch(WatchService watchService) {
+        try (watchService) {
+            while (!Thread.currentThread().isInterrupted()) {
+                var key = watchService.take();
+                Thread.sleep(SETTLE_TIME_IN_MILLIS);
+                var isFileChanged = key.pollEvents().stream()
+                        .map(WatchEvent::context)
+                        .anyMatch(changedPath -> file.getFileName().equals(changedPath));
+                if (!key.reset()) {
+                    log.warn("Stopped watching configuration file {};  its directory is no longer accessible.", file);
+                    return;
+                }
+                if (isFileChanged)
+                    reload();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            log.warn("Stopped watching configuration file {}: {}", file, ex.getMessage());
+        }
+    }
+
+    private void reload() {
+        try {
+            pendingUpdate.set(configLoader.get());
+            log.info("Configuration file {} changed;  the new configuration will be applied before the next poll.",
+                    file);
+        } catch (RuntimeException ex) {
+            log.warn("Ignoring invalid change to configuration file {}: {}", file, ex.getMessage());
+        }
+    }
+}
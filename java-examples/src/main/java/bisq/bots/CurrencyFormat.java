@@ -32,6 +32,11 @@ import static java.math.RoundingMode.UNNECESSARY;
 
 /**
  * Utility for formatting amounts, volumes and fees;  there is no i18n support in the CLI.
+ * <p>
+ * Satoshi, BTC, BSQ, price, volume and fee amounts are formatted with integer arithmetic, straight into a caller's
+ * StringBuilder by the append methods, and the output is the same as the DecimalFormat patterns noted on each method.
+ * The methods are thread-safe:  the few values a long cannot be formatted exactly from, e.g., a price too large to be
+ * converted to a double without rounding, are formatted by a DecimalFormat owned by the calling thread.
  */
 @VisibleForTesting
 public class CurrencyFormat {
@@ -39,38 +44,108 @@ public class CurrencyFormat {
     // Use the US locale as a base for all DecimalFormats, but commas should be omitted from number strings.
     private static final DecimalFormatSymbols DECIMAL_FORMAT_SYMBOLS = DecimalFormatSymbols.getInstance(Locale.US);
 
-    // Use the US locale as a base for all NumberFormats, but commas should be omitted from number strings.
-    private static final NumberFormat US_LOCALE_NUMBER_FORMAT = NumberFormat.getInstance(Locale.US);
-
     // Formats numbers for internal use, i.e., grpc request parameters.
     private static final DecimalFormat INTERNAL_FIAT_DECIMAL_FORMAT = new DecimalFormat("##############0.0000");
 
     static final BigDecimal SATOSHI_DIVISOR = new BigDecimal(100_000_000);
-    static final DecimalFormat SATOSHI_FORMAT = new DecimalFormat("###,##0.00000000", DECIMAL_FORMAT_SYMBOLS);
-    static final DecimalFormat BTC_FORMAT = new DecimalFormat("###,##0.########", DECIMAL_FORMAT_SYMBOLS);
-    static final DecimalFormat BTC_TX_FEE_FORMAT = new DecimalFormat("###,###,##0", DECIMAL_FORMAT_SYMBOLS);
-
     static final BigDecimal BSQ_SATOSHI_DIVISOR = new BigDecimal(100);
-    static final DecimalFormat BSQ_FORMAT = new DecimalFormat("###,###,###,##0.00", DECIMAL_FORMAT_SYMBOLS);
 
+    // Formats satoshi strings that are not longs.
+    private static final ThreadLocal<DecimalFormat> SATOSHI_FORMAT =
+            ThreadLocal.withInitial(() -> new DecimalFormat("###,##0.00000000", DECIMAL_FORMAT_SYMBOLS));
+    // Format prices and fiat volumes too large to be formatted exactly from a double, like the US locale NumberFormat.
+    private static final ThreadLocal<NumberFormat> PRICE_FORMAT = ThreadLocal.withInitial(() -> {
+        var numberFormat = NumberFormat.getInstance(Locale.US);
+        numberFormat.setMinimumFractionDigits(4);
+        numberFormat.setMaximumFractionDigits(4);
+        numberFormat.setRoundingMode(UNNECESSARY);
+        return numberFormat;
+    });
+    private static final ThreadLocal<NumberFormat> FIAT_VOLUME_FORMAT = ThreadLocal.withInitial(() -> {
+        var numberFormat = NumberFormat.getInstance(Locale.US);
+        numberFormat.setMinimumFractionDigits(0);
+        numberFormat.setMaximumFractionDigits(0);
+        numberFormat.setRoundingMode(HALF_UP);
+        return numberFormat;
+    });
+
+    // Prices and fiat volumes are scaled by 10,000, i.e., have 4 decimal places.
+    private static final long FIAT_SCALE = 10_000;
+    // Longs of at most 15 digits are converted to doubles that format to the same digits.
+    private static final long MAX_EXACT_DOUBLE_VALUE = 999_999_999_999_999L;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    /**
+     * Formats a satoshi string like {@link #formatSatoshis(long)}, or, if it is not a long, like the DecimalFormat
+     * pattern "###,##0.00000000".
+     */
     public static String formatSatoshis(String sats) {
-        //noinspection BigDecimalMethodWithoutRoundingCalled
-        return SATOSHI_FORMAT.format(new BigDecimal(sats).divide(SATOSHI_DIVISOR));
+        long value;
+        try {
+            value = Long.parseLong(sats);
+        } catch (NumberFormatException e) {
+            //noinspection BigDecimalMethodWithoutRoundingCalled
+            return SATOSHI_FORMAT.get().format(new BigDecimal(sats).divide(SATOSHI_DIVISOR));
+        }
+        return formatSatoshis(value);
     }
 
-    @SuppressWarnings("BigDecimalMethodWithoutRoundingCalled")
+    /**
+     * Formats satoshis as BTC with 8 decimal places, like the DecimalFormat pattern "###,##0.00000000".
+     */
     public static String formatSatoshis(long sats) {
-        return SATOSHI_FORMAT.format(new BigDecimal(sats).divide(SATOSHI_DIVISOR));
+        return appendSatoshis(new StringBuilder(24), sats).toString();
+    }
+
+    public static StringBuilder appendSatoshis(StringBuilder sb, long sats) {
+        appendSign(sb, sats);
+        appendGroupedDigits(sb, Math.abs(sats / 100_000_000));
+        sb.append('.');
+        appendFractionDigits(sb, Math.abs(sats % 100_000_000), 8);
+        return sb;
     }
 
-    @SuppressWarnings("BigDecimalMethodWithoutRoundingCalled")
+    /**
+     * Formats satoshis as BTC without trailing zeros, like the DecimalFormat pattern "###,##0.########".
+     */
     public static String formatBtc(long sats) {
-        return BTC_FORMAT.format(new BigDecimal(sats).divide(SATOSHI_DIVISOR));
+        return appendBtc(new StringBuilder(24), sats).toString();
     }
 
-    @SuppressWarnings("BigDecimalMethodWithoutRoundingCalled")
+    public static StringBuilder appendBtc(StringBuilder sb, long sats) {
+        appendSign(sb, sats);
+        appendGroupedDigits(sb, Math.abs(sats / 100_000_000));
+        var fraction = Math.abs(sats % 100_000_000);
+        if (fraction != 0) {
+            var numFractionDigits = 8;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                numFractionDigits--;
+            }
+            sb.append('.');
+            appendFractionDigits(sb, fraction, numFractionDigits);
+        }
+        return sb;
+    }
+
+    /**
+     * Formats BSQ satoshis as BSQ with 2 decimal places, like the DecimalFormat pattern "###,###,###,##0.00".
+     */
     public static String formatBsq(long sats) {
-        return BSQ_FORMAT.format(new BigDecimal(sats).divide(BSQ_SATOSHI_DIVISOR));
+        return appendBsq(new StringBuilder(24), sats).toString();
+    }
+
+    public static StringBuilder appendBsq(StringBuilder sb, long sats) {
+        appendSign(sb, sats);
+        appendGroupedDigits(sb, Math.abs(sats / 100));
+        sb.append('.');
+        appendFractionDigits(sb, Math.abs(sats % 100), 2);
+        return sb;
     }
 
     public static String formatTxFeeRateInfo(TxFeeRateInfo txFeeRateInfo) {
@@ -85,18 +160,43 @@ public class CurrencyFormat {
                     formatFeeSatoshis(txFeeRateInfo.getMinFeeServiceRate()));
     }
 
+    /**
+     * Formats a price scaled by 10,000 with 4 decimal places, like the US locale NumberFormat (pattern "#,##0.###")
+     * formatting the price as a double, with 4 fraction digits.
+     */
     public static String formatPrice(long price) {
-        US_LOCALE_NUMBER_FORMAT.setMinimumFractionDigits(4);
-        US_LOCALE_NUMBER_FORMAT.setMaximumFractionDigits(4);
-        US_LOCALE_NUMBER_FORMAT.setRoundingMode(UNNECESSARY);
-        return US_LOCALE_NUMBER_FORMAT.format((double) price / 10_000);
+        return appendPrice(new StringBuilder(24), price).toString();
     }
 
+    public static StringBuilder appendPrice(StringBuilder sb, long price) {
+        if (isNotExactDouble(price))
+            return sb.append(PRICE_FORMAT.get().format((double) price / FIAT_SCALE));
+
+        appendSign(sb, price);
+        appendGroupedDigits(sb, Math.abs(price / FIAT_SCALE));
+        sb.append('.');
+        appendFractionDigits(sb, Math.abs(price % FIAT_SCALE), 4);
+        return sb;
+    }
+
+    /**
+     * Formats a fiat volume scaled by 10,000, rounded half up to a whole number, like the US locale NumberFormat
+     * (pattern "#,##0.###") formatting the volume as a double, without fraction digits.  A negative volume rounded
+     * to zero is formatted as "-0".
+     */
     public static String formatFiatVolume(long volume) {
-        US_LOCALE_NUMBER_FORMAT.setMinimumFractionDigits(0);
-        US_LOCALE_NUMBER_FORMAT.setMaximumFractionDigits(0);
-        US_LOCALE_NUMBER_FORMAT.setRoundingMode(HALF_UP);
-        return US_LOCALE_NUMBER_FORMAT.format((double) volume / 10_000);
+        return appendFiatVolume(new StringBuilder(24), volume).toString();
+    }
+
+    public static StringBuilder appendFiatVolume(StringBuilder sb, long volume) {
+        if (isNotExactDouble(volume))
+            return sb.append(FIAT_VOLUME_FORMAT.get().format((double) volume / FIAT_SCALE));
+
+        appendSign(sb, volume);
+        var magnitude = Math.abs(volume);
+        var rounded = magnitude / FIAT_SCALE + (magnitude % FIAT_SCALE >= FIAT_SCALE / 2 ? 1 : 0);
+        appendGroupedDigits(sb, rounded);
+        return sb;
     }
 
     public static long toSatoshis(BigDecimal btc) {
@@ -114,7 +214,58 @@ public class CurrencyFormat {
         }
     }
 
+    /**
+     * Formats satoshis as a whole number, like the DecimalFormat pattern "###,###,##0".
+     */
     public static String formatFeeSatoshis(long sats) {
-        return BTC_TX_FEE_FORMAT.format(BigDecimal.valueOf(sats));
+        return appendFeeSatoshis(new StringBuilder(24), sats).toString();
+    }
+
+    public static StringBuilder appendFeeSatoshis(StringBuilder sb, long sats) {
+        // The magnitude of Long.MIN_VALUE is not a long.
+        if (sats == Long.MIN_VALUE)
+            return sb.append("-9,223,372,036,854,775,808");
+
+        appendSign(sb, sats);
+        appendGroupedDigits(sb, Math.abs(sats));
+        return sb;
+    }
+
+    private static boolean isNotExactDouble(long value) {
+        return value > MAX_EXACT_DOUBLE_VALUE || value < -MAX_EXACT_DOUBLE_VALUE;
+    }
+
+    private static void appendSign(StringBuilder sb, long value) {
+        if (value < 0)
+            sb.append('-');
+    }
+
+    /**
+     * Appends the digits of a non-negative value, with a comma between each group of 3 digits.
+     */
+    private static void appendGroupedDigits(StringBuilder sb, long value) {
+        var numDigits = countDigits(value);
+        for (int digitIndex = numDigits - 1; digitIndex >= 0; digitIndex--) {
+            sb.append((char) ('0' + value / POWERS_OF_TEN[digitIndex] % 10));
+            if (digitIndex > 0 && digitIndex % 3 == 0)
+                sb.append(',');
+        }
+    }
+
+    /**
+     * Appends the given number of digits of a non-negative value, with leading zeros.
+     */
+    private static void appendFractionDigits(StringBuilder sb, long value, int numDigits) {
+        for (int digitIndex = numDigits - 1; digitIndex >= 0; digitIndex--) {
+            sb.append((char) ('0' + value / POWERS_OF_TEN[digitIndex] % 10));
+        }
+    }
+
+    private static int countDigits(long value) {
+        var numDigits = 1;
+        while (numDigits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[numDigits]) {
+            numDigits++;
+        }
+        return numDigits;
     }
 }
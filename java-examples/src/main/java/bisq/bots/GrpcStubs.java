@@ -19,10 +19,12 @@ package bisq.bots;
 
 import bisq.proto.grpc.*;
 import io.grpc.CallCredentials;
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import lombok.extern.slf4j.Slf4j;
 
+import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -41,13 +43,30 @@ final class GrpcStubs {
     public final TradesGrpc.TradesBlockingStub tradesService;
     public final WalletsGrpc.WalletsBlockingStub walletsService;
 
+    public final ChannelHealthMonitor healthMonitor;
+    public final CircuitBreakerInterceptor circuitBreakers;
+
     private final ManagedChannel channel;
 
-    public GrpcStubs(String apiHost, int apiPort, String apiPassword) {
+    public GrpcStubs(String apiHost,
+                     int apiPort,
+                     String apiPassword,
+                     CircuitBreakerInterceptor circuitBreakers) {
         CallCredentials credentials = new PasswordCallCredentials(apiPassword);
+        this.circuitBreakers = circuitBreakers;
 
-        this.channel = ManagedChannelBuilder.forAddress(apiHost, apiPort).usePlaintext().build();
+        // Keepalive pings detect a dead connection to the daemon during a request.  The API daemon's gRPC server
+        // permits one ping per 5 minutes, and no pings without requests in flight;  more would make it drop the
+        // connection.  An idle connection to a stopped daemon is closed by the daemon's OS, not detected by pings.
+        this.channel = ManagedChannelBuilder.forAddress(apiHost, apiPort)
+                .usePlaintext()
+                .keepAliveTime(5, MINUTES)
+                .keepAliveTimeout(20, SECONDS)
+                .keepAliveWithoutCalls(false)
+                .intercept(circuitBreakers)
+                .build();
         Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+        this.healthMonitor = new ChannelHealthMonitor(channel);
 
         this.disputeAgentsService = DisputeAgentsGrpc.newBlockingStub(channel).withCallCredentials(credentials);
         this.helpService = HelpGrpc.newBlockingStub(channel).withCallCredentials(credentials);
@@ -60,6 +79,13 @@ final class GrpcStubs {
         this.walletsService = WalletsGrpc.newBlockingStub(channel).withCallCredentials(credentials);
     }
 
+    /**
+     * Returns the state of the channel to the API daemon, without causing an idle channel to connect.
+     */
+    public ConnectivityState getChannelState() {
+        return channel.getState(false);
+    }
+
     public void close() {
         try {
             if (!channel.isShutdown()) {
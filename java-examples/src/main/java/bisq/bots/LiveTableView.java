@@ -0,0 +1,339 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots;
+
+import bisq.bots.table.builder.TableBuilder;
+import bisq.bots.table.builder.TableType;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static bisq.bots.BotUtils.logReport;
+import static java.lang.String.format;
+import static java.lang.System.lineSeparator;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A table of offers or trades a bot shows every poll cycle, which remembers the rows it last rendered, keyed by row
+ * id (offer or trade id), so an unchanged table is not shown again.
+ * <p>
+ * When the bot's output is a terminal, the table is pinned to the top of the screen, above an ANSI scroll region the
+ * bot's log lines scroll in, and only the table lines that changed since the last poll cycle (inserted, removed, or
+ * changed rows, and the column headers if the column widths changed) are redrawn.  The table shows at most
+ * {@value #DEFAULT_MAX_ROWS} rows, and fewer if the terminal is not tall enough:  all views together reserve no more
+ * than the terminal's height less {@value #MIN_SCROLL_REGION_LINES} lines, left for the scroll region.  A view that
+ * does not fit in what is left of the terminal, or drawn in a terminal of unknown height, is logged instead.
+ * <p>
+ * Otherwise, e.g., when the output is redirected to a file, the full table is logged when any row changed, like
+ * {@link BotUtils#printOffersSummary(Logger, Supplier, List)}, else one line saying nothing changed is logged.
+ */
+class LiveTableView<T> {
+
+    private static final String CSI = "\u001B[";
+    private static final String SAVE_CURSOR = "\u001B7";
+    private static final String RESTORE_CURSOR = "\u001B8";
+    private static final String DISABLE_LINE_WRAP = CSI + "?7l";
+    private static final String ENABLE_LINE_WRAP = CSI + "?7h";
+    private static final String ERASE_TO_END_OF_LINE = CSI + "K";
+    private static final int DEFAULT_MAX_ROWS = 20;
+    // The fewest lines a view's area can have:  the title, column headers, a row, and the "... and n more" line.
+    private static final int MIN_AREA_LINES = 4;
+    // The fewest lines left below all views' areas, for the scroll region the bot's log lines scroll in.
+    private static final int MIN_SCROLL_REGION_LINES = 10;
+
+    // The screen lines reserved by all views drawn in the terminal, above the scroll region.
+    private static int reservedLines;
+    // The terminal's height, or 0 if unknown, looked up by the first view drawn in the terminal.
+    private static int terminalLines = -1;
+
+    private final TableType tableType;
+    private final Function<T, String> toRowId;
+    private final String noRowsMessage;
+    // The terminal the view is drawn in, or null if the view is logged.
+    @Nullable
+    private PrintStream terminal;
+    private final int maxRows;
+
+    private boolean isFirstUpdate = true;
+    private String renderedHeader = "";
+    // The last rendered table rows (without line separators), keyed by row id, in table order.
+    private Map<String, String> renderedRowsById = new LinkedHashMap<>();
+
+    // The first screen line and the number of rows of the view's area in the terminal, and the lines drawn in it,
+    // set by the first update.
+    private int areaTop;
+    private int areaRows;
+    @Nullable
+    private String[] drawnLines;
+
+    /**
+     * Creates a view drawn in place if the bot's output is a terminal, else logged.
+     *
+     * @param tableType     the type of table rendered, e.g., OFFER_TBL or OPEN_TRADES_TBL
+     * @param toRowId       returns a row's unique id, e.g., the offer id
+     * @param noRowsMessage shown instead of a table without rows
+     */
+    LiveTableView(TableType tableType, Function<T, String> toRowId, String noRowsMessage) {
+        this(tableType, toRowId, noRowsMessage, isTerminal() ? System.out : null, DEFAULT_MAX_ROWS);
+    }
+
+    LiveTableView(TableType tableType,
+                  Function<T, String> toRowId,
+                  String noRowsMessage,
+                  @Nullable PrintStream terminal,
+                  int maxRows) {
+        if (maxRows < 2)
+            throw new IllegalArgumentException("A live table view must show at least 2 rows.");
+
+        this.tableType = tableType;
+        this.toRowId = toRowId;
+        this.noRowsMessage = noRowsMessage;
+        this.terminal = terminal;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Show the given rows, redrawing only the changed table lines in a terminal, else logging the table at INFO level
+     * if any row changed since the last update.
+     *
+     * @param log   the logger the table is written to, if the bot's output is not a terminal
+     * @param title supplies the line shown above the table
+     * @param rows  the table's rows, in table order
+     */
+    synchronized void update(Logger log, Supplier<String> title, List<T> rows) {
+        requireNonNull(rows, "List<T> rows param cannot be null.");
+        if (terminal != null && drawnLines == null && !reserveArea(log))
+            terminal = null;
+
+        if (terminal == null && !log.isInfoEnabled())
+            return;
+
+        var previousRowsById = renderedRowsById;
+        var renderedTable = render(rows);
+        if (terminal != null) {
+            draw(title.get());
+        } else if (isFirstUpdate) {
+            logTable(log, title.get(), renderedTable);
+        } else {
+            var changes = countChanges(previousRowsById, renderedRowsById);
+            if (changes == null)
+                log.info("{}  No changes since the last update.", title.get());
+            else
+                logTable(log, title.get() + "  " + changes, renderedTable);
+        }
+        isFirstUpdate = false;
+    }
+
+    /**
+     * Renders the rows into a table, saves the header and rows (without line separators), and returns the table.
+     */
+    private String render(List<T> rows) {
+        var rowsById = new LinkedHashMap<String, String>(Math.max(16, rows.size() * 2));
+        if (rows.isEmpty()) {
+            renderedHeader = "";
+            renderedRowsById = rowsById;
+            return noRowsMessage;
+        }
+
+        var table = new TableBuilder(tableType, rows).build().toString();
+        var lineSeparator = lineSeparator();
+        var lineStart = table.indexOf(lineSeparator);
+        renderedHeader = table.substring(0, lineStart);
+        lineStart += lineSeparator.length();
+        for (var row : rows) {
+            var lineEnd = table.indexOf(lineSeparator, lineStart);
+            var rowId = toRowId.apply(row);
+            if (rowsById.put(rowId, table.substring(lineStart, lineEnd)) != null)
+                throw new IllegalArgumentException(format("Table row id '%s' is not unique.", rowId));
+
+            lineStart = lineEnd + lineSeparator.length();
+        }
+        renderedRowsById = rowsById;
+        return table;
+    }
+
+    private void logTable(Logger log, String title, String renderedTable) {
+        logReport(log, report -> report.append(title).append(lineSeparator()).append(renderedTable));
+    }
+
+    /**
+     * Returns a description of the inserted, removed, and changed rows, or null if no row changed.  Rows in a new
+     * position count as changed.
+     */
+    @Nullable
+    private static String countChanges(Map<String, String> previousRowsById, Map<String, String> rowsById) {
+        int inserted = 0, changed = 0, position = 0;
+        var previousRowIds = new ArrayList<>(previousRowsById.keySet());
+        for (var row : rowsById.entrySet()) {
+            var previousRow = previousRowsById.get(row.getKey());
+            if (previousRow == null)
+                inserted++;
+            else if (!previousRow.equals(row.getValue())
+                    || position >= previousRowIds.size()
+                    || !previousRowIds.get(position).equals(row.getKey()))
+                changed++;
+
+            position++;
+        }
+        var removed = previousRowsById.size() - (rowsById.size() - inserted);
+        if (inserted == 0 && removed == 0 && changed == 0)
+            return null;
+
+        return format("(%d inserted, %d removed, %d changed)", inserted, removed, changed);
+    }
+
+    /**
+     * Reserves the view's area above the scroll region, as many lines as the view's rows need, but no more than is left
+     * of the terminal after the areas of views drawn before it, and the scroll region.  Clears the screen if no other
+     * view was drawn yet.  Returns false, and reserves nothing, if the terminal's height is unknown, or what is left of
+     * it is too small for the view.
+     */
+    private boolean reserveArea(Logger log) {
+        synchronized (LiveTableView.class) {
+            if (terminalLines < 0)
+                terminalLines = lookupTerminalLines();
+
+            var numAreaLines = Math.min(maxRows + 2, terminalLines - MIN_SCROLL_REGION_LINES - reservedLines);
+            if (numAreaLines < MIN_AREA_LINES) {
+                if (terminalLines == 0)
+                    log.warn("Cannot find the terminal's height, will log the {} instead of drawing it.", tableType);
+                else
+                    log.warn("The {} line terminal is too small to draw the {} in, will log it instead.",
+                            terminalLines,
+                            tableType);
+                return false;
+            }
+
+            var output = new StringBuilder(32);
+            if (reservedLines == 0) {
+                output.append(CSI).append("2J");
+                var terminal = requireNonNull(this.terminal);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> resetScrollRegion(terminal)));
+            }
+            areaTop = reservedLines + 1;
+            areaRows = numAreaLines - 2;
+            drawnLines = new String[numAreaLines];
+            reservedLines += numAreaLines;
+            // Setting the scroll region moves the cursor home;  log lines continue at the top of the new region.
+            output.append(CSI).append(reservedLines + 1).append('r')
+                    .append(CSI).append(reservedLines + 1).append(";1H")
+                    .append(CSI).append('J');
+            requireNonNull(terminal).print(output);
+            return true;
+        }
+    }
+
+    /**
+     * Redraws the view's area lines that differ from the lines drawn last time, without moving the cursor the bot's
+     * log lines are written at.
+     */
+    private void draw(String title) {
+        var lines = toAreaLines(title);
+        var output = new StringBuilder(256);
+        output.append(SAVE_CURSOR).append(DISABLE_LINE_WRAP);
+        var numChangedLines = 0;
+        for (int i = 0; i < lines.length; i++) {
+            if (!lines[i].equals(drawnLines[i])) {
+                output.append(CSI).append(areaTop + i).append(";1H").append(lines[i]).append(ERASE_TO_END_OF_LINE);
+                drawnLines[i] = lines[i];
+                numChangedLines++;
+            }
+        }
+        if (numChangedLines == 0)
+            return;
+
+        output.append(ENABLE_LINE_WRAP).append(RESTORE_CURSOR);
+        requireNonNull(terminal).print(output);
+        terminal.flush();
+    }
+
+    /**
+     * Returns the view's area lines:  the title, column headers, and rows, or a line saying how many rows are not
+     * shown, followed by blank lines, so the area's height does not change.
+     */
+    private String[] toAreaLines(String title) {
+        var lines = new String[areaRows + 2];
+        lines[0] = title;
+        lines[1] = renderedRowsById.isEmpty() ? noRowsMessage : renderedHeader;
+        var numRows = renderedRowsById.size();
+        var numShownRows = numRows > areaRows ? areaRows - 1 : numRows;
+        var rows = renderedRowsById.values().iterator();
+        var i = 2;
+        for (; i < numShownRows + 2; i++) {
+            lines[i] = rows.next();
+        }
+        if (numShownRows < numRows)
+            lines[i++] = format("... and %d more", numRows - numShownRows);
+
+        for (; i < lines.length; i++) {
+            lines[i] = "";
+        }
+        return lines;
+    }
+
+    /**
+     * Restores the full screen scroll region, and moves the cursor to the bottom of the screen.
+     */
+    private static void resetScrollRegion(PrintStream terminal) {
+        terminal.print(CSI + "r" + CSI + "999;1H" + lineSeparator());
+        terminal.flush();
+    }
+
+    /**
+     * Returns the terminal's height in lines, from the LINES environment variable, else from {@code stty size} run on
+     * the bot's terminal, or 0 if neither is known.
+     */
+    private static int lookupTerminalLines() {
+        try {
+            var lines = System.getenv("LINES");
+            if (lines != null && !lines.isBlank())
+                return Math.max(0, Integer.parseInt(lines.trim()));
+
+            var process = new ProcessBuilder("stty", "size")
+                    .redirectInput(ProcessBuilder.Redirect.INHERIT)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            String size;
+            try (var reader = process.inputReader()) {
+                size = reader.readLine();
+            }
+            if (process.waitFor() != 0 || size == null)
+                return 0;
+
+            // stty prints the terminal's size as "<lines> <columns>".
+            return Math.max(0, Integer.parseInt(size.trim().split("\\s+")[0]));
+        } catch (IOException | NumberFormatException ex) {
+            return 0;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    /**
+     * Returns true if the bot's input and output are an interactive terminal able to interpret ANSI escape sequences.
+     */
+    private static boolean isTerminal() {
+        return System.console() != null && !"dumb".equals(System.getenv("TERM"));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import bisq.proto.grpc.OfferInfo;
+import bisq.proto.grpc.TxFeeRateInfo;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * The market data a bot's poll cycle evaluates offers against:  the Bisq network tx fee rates, the available offers,
+ * and the current market price, or the 30-day average BSQ price.
+ * <p>
+ * The values are fetched from the API daemon concurrently, so a poll cycle waits about as long as the slowest request,
+ * instead of the sum of all requests, and offers are not compared to a price fetched seconds later.  Each value is
+ * stamped with the time it was fetched.
+ * <p>
+ * The wallet's balances are not part of the snapshot, although the balance ledger's reservations depend on them:
+ * getbalances needs an unlocked wallet, and the wallet is only unlocked when an offer is about to be taken.  The
+ * balances are fetched then, on the take path, right before the offer is reserved and taken.
+ *
+ * @param txFeeRates  the Bisq network's tx fee rates
+ * @param offers      the available offers, sorted by price
+ * @param marketPrice the current market price, or null if not fetched (BSQ markets)
+ * @param avgBsqPrice the 30-day average BSQ price in BTC, or null if not fetched (non-BSQ markets, and regtest)
+ */
+record MarketSnapshot(Fetched<TxFeeRateInfo> txFeeRates,
+                      Fetched<List<OfferInfo>> offers,
+                      @Nullable Fetched<BigDecimal> marketPrice,
+                      @Nullable Fetched<BigDecimal> avgBsqPrice) {
+
+    /**
+     * A value fetched from the API daemon, and when the reply was received.
+     */
+    record Fetched<T>(T value, Instant fetchTime) {
+    }
+
+    /**
+     * Fetch a snapshot's values concurrently, on the given executor, and wait for all of them.
+     *
+     * @param executor    runs the requests
+     * @param txFeeRates  requests the tx fee rates
+     * @param offers      requests the available offers
+     * @param marketPrice requests the current market price, or null to skip
+     * @param avgBsqPrice requests the 30-day average BSQ price, or null to skip
+     * @throws io.grpc.StatusRuntimeException if any request failed
+     */
+    static MarketSnapshot fetch(Executor executor,
+                                Supplier<TxFeeRateInfo> txFeeRates,
+                                Supplier<List<OfferInfo>> offers,
+                                @Nullable Supplier<BigDecimal> marketPrice,
+                                @Nullable Supplier<BigDecimal> avgBsqPrice) {
+        var txFeeRatesFuture = fetchAsync(executor, txFeeRates);
+        var offersFuture = fetchAsync(executor, offers);
+        var marketPriceFuture = marketPrice == null ? null : fetchAsync(executor, marketPrice);
+        var avgBsqPriceFuture = avgBsqPrice == null ? null : fetchAsync(executor, avgBsqPrice);
+        return new MarketSnapshot(join(txFeeRatesFuture),
+                join(offersFuture),
+                marketPriceFuture == null ? null : join(marketPriceFuture),
+                avgBsqPriceFuture == null ? null : join(avgBsqPriceFuture));
+    }
+
+    private static <T> CompletableFuture<Fetched<T>> fetchAsync(Executor executor, Supplier<T> request) {
+        return CompletableFuture.supplyAsync(() -> {
+            var value = request.get();
+            return new Fetched<>(value, Instant.now());
+        }, executor);
+    }
+
+    private static <T> Fetched<T> join(CompletableFuture<Fetched<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            // Rethrow the request's exception, e.g., a gRPC StatusRuntimeException, as if it were made on this thread.
+            if (ex.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            else
+                throw ex;
+        }
+    }
+}
@@ -16,6 +16,7 @@
  */
 package bisq.bots;
 
+import bisq.bots.jfr.TradeWaitEvent;
 import bisq.proto.grpc.*;
 import io.grpc.StatusRuntimeException;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ import protobuf.PaymentAccount;
 
 import javax.annotation.Nullable;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 import static bisq.bots.BotUtils.*;
 import static bisq.proto.grpc.GetOfferCategoryReply.OfferCategory.BSQ_SWAP;
@@ -60,6 +62,8 @@ class OfferTaker {
     private static final int MAX_GET_NEW_TRADE_ATTEMPTS = 15;
 
     private final GrpcStubs grpcStubs;
+    private final BotReporter reporter;
+    private final BotMetrics metrics;
     private final OfferInfo offer;
     @Nullable
     private final PaymentAccount paymentAccount;    // Not used for taking bsq swaps.
@@ -67,26 +71,35 @@ class OfferTaker {
     private final String bisqTradeFeeCurrency;      // Not used for taking bsq swaps.
     private final long pollingInterval;
     private final GetTradeRequest getTradeRequest;
+    // The new trade in the takeoffer reply, if any.
+    @Nullable
+    private TradeInfo takeOfferReplyTrade;
 
     /**
      * Constructor for taking BSQ swap offers.
      * Payment acct id nor trade fee currency code are used in takeoffer requests.
      *
      * @param grpcStubs       gRPC service stubs, initialized with hostname, port, and credentials.
+     * @param reporter        The calling bot's reporter, used to print trade summaries off the take offer path.
+     * @param metrics         The calling bot's metrics, counting failed take attempts by reason.
      * @param offer           The offer to take.
      * @param pollingInterval The calling bot's polling interval, in milliseconds (some situations require calculating
      *                        a stalling period before making the next request).
      */
     OfferTaker(GrpcStubs grpcStubs,
+               BotReporter reporter,
+               BotMetrics metrics,
                OfferInfo offer,
                long pollingInterval) {
-        this(grpcStubs, offer, null, null, pollingInterval);
+        this(grpcStubs, reporter, metrics, offer, null, null, pollingInterval);
     }
 
     /**
      * Constructor for taking v1 protocol offers (fiat or xmr).
      *
      * @param grpcStubs            gRPC service stubs,  initialized with hostname, port, and credentials.
+     * @param reporter             The calling bot's reporter, used to print trade summaries off the take offer path.
+     * @param metrics              The calling bot's metrics, counting failed take attempts by reason.
      * @param offer                The offer to take.
      * @param paymentAccount       The payment account used to take the offer.
      * @param bisqTradeFeeCurrency The Bisq trade fee currency code (BSQ or BTC).
@@ -94,11 +107,15 @@ class OfferTaker {
      *                             calculating a stalling period before making the next request).
      */
     OfferTaker(GrpcStubs grpcStubs,
+               BotReporter reporter,
+               BotMetrics metrics,
                OfferInfo offer,
                @Nullable PaymentAccount paymentAccount,
                @Nullable String bisqTradeFeeCurrency,
                long pollingInterval) {
         this.grpcStubs = grpcStubs;
+        this.reporter = reporter;
+        this.metrics = metrics;
         this.offer = offer;
         this.paymentAccount = paymentAccount;
         this.bisqTradeFeeCurrency = bisqTradeFeeCurrency;
@@ -123,12 +140,7 @@ class OfferTaker {
      */
     void takeOffer() throws NonFatalException {
         // What kind of offer is being taken: FIAT, ALTCOIN, or BSQ_SWAP?
-        var offerCategoryRequest = GetOfferCategoryRequest.newBuilder()
-                .setId(offer.getId())
-                .build();
-        var offerCategory = grpcStubs.offersService
-                .getOfferCategory(offerCategoryRequest)
-                .getOfferCategory();
+        var offerCategory = getOfferCategory();
 
         if (offerCategory.equals(BSQ_SWAP)) {
             sendTakeOfferRequest(offerCategory);
@@ -136,16 +148,39 @@ class OfferTaker {
             // no insufficient funds problem, and the takeoffer call rate meter did not block the request.  A new swap
             // is being executed on the server, and the bot should check for the new trade, then shut down.
             log.info("New BSQ swap '{}' is being executed.", offer.getId());
-            // Let the daemon completely execute the swap before making any gettrade requests.
-            sleep(2_000);
         } else {
             sendTakeOfferRequest(offerCategory);
             // The happy path:  No non-fatal or fatal exception was thrown.  There was no offer availability problem,
             // no insufficient funds problem, and the takeoffer call rate meter did not block the request.  A new trade
             // is being prepared on the server, and the bot should check for the new trade, then shut down so the
             // trade can be completed in the UI.
-            log.info("New trade '{}' is being prepared:", offer.getId());
-            printTradeSummary(getTrade());
+            log.info("New trade '{}' is being prepared.", offer.getId());
+        }
+    }
+
+    /**
+     * Returns the category of the offer being taken.  The request is read-only, and is sent before the takeoffer
+     * request, so its failure is not a takeoffer failure.  If the API daemon is unreachable or overloaded, an open
+     * circuit breaker rejected the call, or the offer no longer exists, throws a NonFatalException, so the bot waits
+     * and tries again, instead of shutting down the API daemon.  Any other gRPC exception is thrown.
+     */
+    private GetOfferCategoryReply.OfferCategory getOfferCategory() throws NonFatalException {
+        try {
+            var request = GetOfferCategoryRequest.newBuilder()
+                    .setId(offer.getId())
+                    .build();
+            return grpcStubs.offersService.getOfferCategory(request).getOfferCategory();
+        } catch (StatusRuntimeException grpcException) {
+            if (CircuitBreakerInterceptor.isRejectedCall(grpcException)) {
+                metrics.recordTakeFailed("circuit_open");
+                throw new NonFatalException(toNonFatalErrorMessage.apply(grpcException));
+            } else if (CircuitBreakerInterceptor.isDaemonFailure(grpcException)
+                    || exceptionHasStatus.test(grpcException, NOT_FOUND)) {
+                metrics.recordTakeFailed(grpcException.getStatus().getCode().name().toLowerCase());
+                throw new NonFatalException(toNonFatalErrorMessage.apply(grpcException));
+            } else {
+                throw grpcException;
+            }
         }
     }
 
@@ -186,8 +221,11 @@ class OfferTaker {
                 //  For The Trade).  The API daemon needs to fix this in a a backwards compatible way.
                 AvailabilityResultWithDescription reason = reply.getFailureReason();
                 String errorMessage = format("Non-Fatal Error %s: %s", reason.getAvailabilityResult(), reason.getDescription());
+                metrics.recordTakeFailed(reason.getAvailabilityResult().name().toLowerCase());
                 throw new NonFatalException(errorMessage);
             }
+            if (reply.hasTrade())
+                takeOfferReplyTrade = reply.getTrade();
         } catch (StatusRuntimeException grpcException) {
             handleTakeOfferException(grpcException);
         }
@@ -204,53 +242,73 @@ class OfferTaker {
      * This is not a fatal error.  In this case, set the NonFatalException's stallTime, so the bot can wait the minimum
      * amount of time required to avoid another StatusRuntimeException(PERMISSION_DENIED).
      * <p>
+     * The takeoffer request is not sent while the API daemon's Trades circuit breaker is open.  This is not a fatal
+     * error either;  the bot can try again when the daemon has recovered.
+     * <p>
      * For any other gRPC exception status code, assumes a fatal error and throws the exception.
      */
     private void handleTakeOfferException(StatusRuntimeException ex) throws NonFatalException {
-        if (exceptionHasStatus.test(ex, UNAVAILABLE)) {
+        if (CircuitBreakerInterceptor.isRejectedCall(ex)) {
+            metrics.recordTakeFailed("circuit_open");
+            throw new NonFatalException(toNonFatalErrorMessage.apply(ex));
+        } else if (exceptionHasStatus.test(ex, UNAVAILABLE)) {
+            metrics.recordTakeFailed("insufficient_funds");
             throw new NonFatalException(toNonFatalErrorMessage.apply(ex));
         } else if (exceptionHasStatus.test(ex, PERMISSION_DENIED)) {
+            metrics.recordTakeFailed("rate_limited");
             // Calculate how long we have to stall the bot before it can send the next takeoffer request.
             long stallTime = 60_005 - pollingInterval;
             throw new NonFatalException(toNonFatalErrorMessage.apply(ex), stallTime);
         } else {
+            metrics.recordTakeFailed(ex.getStatus().getCode().name().toLowerCase());
             throw ex;
         }
     }
 
     /**
-     * Wait and block until a new BSQ swap is executed.
+     * Wait and block until a new BSQ swap is executed, and return the executed trade.
      * <p>
-     * Should be called immediately after a takeoffer call.  If the executed trade is not found
-     * within a maximum allowed amount of time ({@link #MAX_GET_NEW_TRADE_ATTEMPTS}  * 1 second),
-     * throw a fatal StatusRuntimeException(NOT_FOUND).
+     * Should be called immediately after a takeoffer call.  The swap is polled for at short intervals (see
+     * {@link BsqSwapCompletionPoller}), and returned as soon as it is found executed.  If the swap failed, or was
+     * not executed within the poller's time limit, throw a fatal StatusRuntimeException.
      */
-    void waitForBsqSwapCompletion() {
-        Optional<TradeInfo> newTrade = getPreparedTrade();
-        if (newTrade.isPresent()) {
-            TradeInfo trade = newTrade.get();
-            log.info("BSQ Swap is complete:");
-            printTradeSummary(trade);
-        } else {
-            throw new StatusRuntimeException(NOT_FOUND
-                    .withDescription("Something bad happened, could not find the new trade."
-                            + "    Shut down the API bot and server, then check the server log."));
+    TradeInfo waitForBsqSwapCompletion() {
+        var tradeWaitEvent = new TradeWaitEvent();
+        tradeWaitEvent.setOffer(offer);
+        tradeWaitEvent.begin();
+        TradeInfo trade;
+        try {
+            trade = BsqSwapCompletionPoller.start(grpcStubs, offer.getId(), takeOfferReplyTrade).join();
+        } catch (CompletionException ex) {
+            tradeWaitEvent.commit("not completed");
+            if (ex.getCause() instanceof StatusRuntimeException grpcException)
+                throw grpcException;
+            else
+                throw ex;
         }
+        tradeWaitEvent.commit(trade.getState());
+        reporter.report(() -> printTradeSummary(log, () -> "BSQ Swap is complete:", trade));
+        return trade;
     }
 
     /**
-     * Wait and block until a new trade is fully initialized, with a trade contract and the user's trade role.
+     * Wait and block until a new trade is fully initialized, with a trade contract and the user's trade role, and
+     * return the new trade.
      * <p>
      * Should be called immediately after a takeoffer call.  If the new trade is not initialized within a maximum
      * amount of time ({@link #MAX_GET_NEW_TRADE_ATTEMPTS}  * 1 second) throw a fatal
      * StatusRuntimeException(NOT_FOUND).
      */
-    void waitForTradePreparation() {
+    TradeInfo waitForTradePreparation() {
+        var tradeWaitEvent = new TradeWaitEvent();
+        tradeWaitEvent.setOffer(offer);
+        tradeWaitEvent.begin();
         Optional<TradeInfo> newTrade = getPreparedTrade();
+        tradeWaitEvent.commit(newTrade.map(TradeInfo::getState).orElse("not found"));
         if (newTrade.isPresent()) {
             TradeInfo trade = newTrade.get();
-            log.info("New trade has been prepared:");
-            printTradeSummary(trade);
+            reporter.report(() -> printTradeSummary(log, () -> "New trade has been prepared:", trade));
+            return trade;
         } else {
             throw new StatusRuntimeException(NOT_FOUND
                     .withDescription("Something bad happened, could not find the new trade."
@@ -0,0 +1,630 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import bisq.proto.grpc.OfferInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Append-only, memory-mapped, columnar history of the order books (available offers) a bot fetches each poll cycle,
+ * for research and backtests.
+ * <p>
+ * The file is written through fixed size, memory-mapped segments of {@value #SEGMENT_SIZE} bytes;  a record never
+ * spans two segments, and a segment's unused tail is skipped.  Each poll's book is one record, framed like the
+ * {@link BotJournal}'s records:
+ * <pre>
+ *     int    payload length (written last, zero marks the end of the history, -1 the end of a segment)
+ *     int    CRC32 checksum of the payload
+ *     byte[] payload
+ * </pre>
+ * The payload's values are varints, and signed values are zigzag encoded:
+ * <pre>
+ *     dictionary strings first used in the segment by this book:  count, then UTF-8 length and bytes of each
+ *     book time, delta from the segment's previous book's time (epoch ms)
+ *     market, e.g., "BTC/EUR", and offer direction, as dictionary ids
+ *     number of offers
+ *     columns, each holding a value per offer:
+ *         offer id                   dictionary id
+ *         price (10^-8 units)        delta from the previous offer's price
+ *         amount (sats)              delta from the previous offer's amount
+ *         amount - min amount (sats)
+ *         offer date (epoch ms)      delta from the previous offer's date (the first offer's from the book time)
+ *         flags                      1: market based price, 2: BSQ swap offer, 4: my offer
+ *         market price margin        in 10^-4 percent
+ *         payment method id          dictionary id
+ *         maker's node address       dictionary id
+ * </pre>
+ * Offers are sorted by price, and offers and makers persist for many poll cycles, so most values take one or two
+ * bytes.
+ * <p>
+ * Each segment is decoded on its own:  the dictionary, and the book time deltas, start over in each segment, so
+ * reopening the file replays only its last segment to restore them, however long the history is.  Replay stops at
+ * the segment's first zero length or bad checksum, which is where a crash interrupted the last write, and new records
+ * are appended from there.  Records are not forced to disk until their segment is full;  the last segment survives
+ * the bot process, not an OS crash.  The recorder locks the file while it is open, so a second bot configured with
+ * the same file fails to start, instead of writing to it too.
+ */
+@Slf4j
+class OrderBookRecorder {
+
+    static final int SEGMENT_SIZE = 4 * 1024 * 1024;
+    static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    static final int SEGMENT_END = -1;
+    private static final int PRICE_SCALE = 8;
+    private static final double MARGIN_SCALE = 10_000;
+
+    private static final int MARKET_BASED_PRICE_FLAG = 1;
+    private static final int BSQ_SWAP_OFFER_FLAG = 2;
+    private static final int MY_OFFER_FLAG = 4;
+
+    /**
+     * Recorder used when no order book file is configured:  records nothing.
+     */
+    static final OrderBookRecorder DISABLED = new OrderBookRecorder();
+
+    /**
+     * An order book recorded at a poll cycle.
+     *
+     * @param time      when the offers were fetched (epoch ms)
+     * @param market    the offers' base and counter currency codes, separated by a slash, e.g., "BTC/EUR"
+     * @param direction the offers' direction, BUY or SELL
+     * @param offers    the offers, in the order they were fetched
+     */
+    record Book(long time, String market, String direction, List<RecordedOffer> offers) {
+    }
+
+    /**
+     * An offer in a recorded order book.
+     *
+     * @param price                the offer's price, in 10^-8 units of the price's currency
+     * @param marketPriceMarginPct the market price margin, rounded to 4 decimals
+     */
+    record RecordedOffer(String id,
+                         long price,
+                         long amount,
+                         long minAmount,
+                         long date,
+                         boolean useMarketBasedPrice,
+                         double marketPriceMarginPct,
+                         boolean isBsqSwapOffer,
+                         boolean isMyOffer,
+                         String paymentMethodId,
+                         String makerAddress) {
+
+        /**
+         * Returns the price as a decimal number.
+         */
+        BigDecimal getPriceAsDecimal() {
+            return BigDecimal.valueOf(price, PRICE_SCALE).stripTrailingZeros();
+        }
+    }
+
+    @Nullable
+    private final FileChannel channel;
+    @Nullable
+    private MappedByteBuffer segment;
+    private long segmentStart;
+    private int position;
+    private final CRC32 crc = new CRC32();
+
+    // The current segment's dictionary strings, and their ids, and its last book's time, restored by replay.
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private long lastBookTime;
+
+    // Reused for encoding each book.
+    private final Encoder encoder = new Encoder();
+    private final List<String> newStrings = new ArrayList<>();
+
+    private OrderBookRecorder() {
+        this.channel = null;
+    }
+
+    private OrderBookRecorder(FileChannel channel) throws IOException {
+        this.channel = channel;
+        var replay = new Reader(channel, book -> {
+        });
+        replay.readLastSegment();
+        strings.addAll(replay.strings);
+        for (int id = 0; id < strings.size(); id++)
+            stringIds.put(strings.get(id), id);
+        this.lastBookTime = replay.lastBookTime;
+        this.segmentStart = replay.segmentStart;
+        this.position = replay.position;
+        this.segment = channel.map(READ_WRITE, segmentStart, SEGMENT_SIZE);
+        clearTail();
+    }
+
+    /**
+     * Open (or create) the order book history file at the given path, and replay its last segment to append new books.
+     *
+     * @param path of the order book history file
+     * @return OrderBookRecorder positioned after the file's last valid record
+     * @throws IllegalStateException if the file could not be opened, or another bot is recording to it
+     */
+    static OrderBookRecorder open(Path path) {
+        try {
+            var startTime = System.nanoTime();
+            // The channel, and its lock, are held until the bot exits.
+            var channel = FileChannel.open(path, CREATE, READ, WRITE);
+            lock(channel, path);
+            var recorder = new OrderBookRecorder(channel);
+            log.info("Opened order book history {} in {} ms:  {} bytes, {} dictionary strings.",
+                    path.toAbsolutePath(),
+                    (System.nanoTime() - startTime) / 1_000_000,
+                    recorder.segmentStart + recorder.position,
+                    recorder.strings.size());
+            return recorder;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not open order book history " + path, ex);
+        }
+    }
+
+    /**
+     * Locks the whole history file, or throws an IllegalStateException if another process, or another recorder in
+     * this process, holds a lock on it.
+     */
+    private static void lock(FileChannel channel, Path path) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Order book history " + path.toAbsolutePath() + " is in use by another bot.");
+        }
+    }
+
+    /**
+     * Read the order books recorded in the file at the given path, in the order they were recorded.  The books after a
+     * bad record in a segment are lost, and reading continues with the next segment.
+     *
+     * @param path     of the order book history file
+     * @param consumer accepts each book
+     */
+    static void scan(Path path, Consumer<Book> consumer) {
+        try (var channel = FileChannel.open(path, READ)) {
+            new Reader(channel, consumer).readAll();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read order book history " + path, ex);
+        }
+    }
+
+    /**
+     * Append a poll cycle's order book.
+     *
+     * @param time      when the offers were fetched
+     * @param market    the offers' base and counter currency codes, separated by a slash, e.g., "BTC/EUR"
+     * @param direction the offers' direction, BUY or SELL
+     * @param offers    the available offers
+     * @throws UncheckedIOException if the next segment of the file could not be mapped
+     */
+    synchronized void record(Instant time, String market, String direction, List<OfferInfo> offers) {
+        if (channel == null)
+            return;
+        if (!channel.isOpen())
+            throw new IllegalStateException("The order book history is closed.");
+
+        var bookTime = time.toEpochMilli();
+        var payload = encode(bookTime, market, direction, offers);
+        if (position + HEADER_SIZE + payload.size() > SEGMENT_SIZE) {
+            // The book's new dictionary strings were not written, and must be written with the next book using them.
+            rollbackNewStrings();
+            checkRecordSize(payload, offers);
+            // The next segment starts a new dictionary, and the book is encoded again with it.
+            startNextSegment();
+            payload = encode(bookTime, market, direction, offers);
+            checkRecordSize(payload, offers);
+        }
+        var recordSize = HEADER_SIZE + payload.size();
+
+        var segment = Objects.requireNonNull(this.segment);
+        crc.reset();
+        crc.update(payload.bytes, 0, payload.size());
+        segment.putInt(position + Integer.BYTES, (int) crc.getValue());
+        segment.put(position + HEADER_SIZE, payload.bytes, 0, payload.size());
+        // The length is written last, committing the record.
+        segment.putInt(position, payload.size());
+        position += recordSize;
+        lastBookTime = bookTime;
+        newStrings.clear();
+    }
+
+    /**
+     * Force the last segment to disk, and close the file, releasing its lock.  No books can be recorded after.
+     */
+    synchronized void close() {
+        if (channel == null || !channel.isOpen())
+            return;
+
+        try {
+            Objects.requireNonNull(segment).force();
+            channel.close();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not close the order book history.", ex);
+        }
+    }
+
+    private Encoder encode(long bookTime, String market, String direction, List<OfferInfo> offers) {
+        newStrings.clear();
+        // Dictionary ids are assigned first, so the new strings can be written before the columns referring to them.
+        var n = offers.size();
+        var offerIds = new int[n];
+        var paymentMethodIds = new int[n];
+        var makerAddressIds = new int[n];
+        var marketId = toStringId(market);
+        var directionId = toStringId(direction);
+        for (int i = 0; i < n; i++) {
+            var offer = offers.get(i);
+            offerIds[i] = toStringId(offer.getId());
+            paymentMethodIds[i] = toStringId(offer.getPaymentMethodId());
+            makerAddressIds[i] = toStringId(offer.getOwnerNodeAddress());
+        }
+
+        var out = encoder.reset();
+        out.writeVarint(newStrings.size());
+        newStrings.forEach(out::writeString);
+        out.writeSignedVarint(bookTime - lastBookTime);
+        out.writeVarint(marketId);
+        out.writeVarint(directionId);
+        out.writeVarint(n);
+        for (var id : offerIds)
+            out.writeVarint(id);
+        long previous = 0;
+        for (var offer : offers) {
+            var price = toScaledPrice(offer.getPrice());
+            out.writeSignedVarint(price - previous);
+            previous = price;
+        }
+        previous = 0;
+        for (var offer : offers) {
+            out.writeSignedVarint(offer.getAmount() - previous);
+            previous = offer.getAmount();
+        }
+        for (var offer : offers)
+            out.writeSignedVarint(offer.getAmount() - offer.getMinAmount());
+        previous = bookTime;
+        for (var offer : offers) {
+            out.writeSignedVarint(offer.getDate() - previous);
+            previous = offer.getDate();
+        }
+        for (var offer : offers)
+            out.writeVarint((offer.getUseMarketBasedPrice() ? MARKET_BASED_PRICE_FLAG : 0)
+                    | (offer.getIsBsqSwapOffer() ? BSQ_SWAP_OFFER_FLAG : 0)
+                    | (offer.getIsMyOffer() ? MY_OFFER_FLAG : 0));
+        for (var offer : offers)
+            out.writeSignedVarint(Math.round(offer.getMarketPriceMarginPct() * MARGIN_SCALE));
+        for (var id : paymentMethodIds)
+            out.writeVarint(id);
+        for (var id : makerAddressIds)
+            out.writeVarint(id);
+        return out;
+    }
+
+    private void checkRecordSize(Encoder payload, List<OfferInfo> offers) {
+        if (HEADER_SIZE + payload.size() > SEGMENT_SIZE) {
+            rollbackNewStrings();
+            throw new IllegalArgumentException("Order book of " + offers.size() + " offers is too large to record.");
+        }
+    }
+
+    private int toStringId(String string) {
+        var id = stringIds.get(string);
+        if (id == null) {
+            id = strings.size();
+            strings.add(string);
+            stringIds.put(string, id);
+            newStrings.add(string);
+        }
+        return id;
+    }
+
+    /**
+     * Remove the strings added to the dictionary by a book that was not recorded.
+     */
+    private void rollbackNewStrings() {
+        newStrings.forEach(stringIds::remove);
+        strings.subList(strings.size() - newStrings.size(), strings.size()).clear();
+        newStrings.clear();
+    }
+
+    private static long toScaledPrice(String price) {
+        return price.isEmpty() ? 0 : new BigDecimal(price).movePointRight(PRICE_SCALE).longValue();
+    }
+
+    private void startNextSegment() {
+        MappedByteBuffer nextSegment;
+        try {
+            nextSegment = Objects.requireNonNull(channel).map(READ_WRITE, segmentStart + SEGMENT_SIZE, SEGMENT_SIZE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        var fullSegment = Objects.requireNonNull(segment);
+        if (position + Integer.BYTES <= SEGMENT_SIZE)
+            fullSegment.putInt(position, SEGMENT_END);
+
+        fullSegment.force();
+        segment = nextSegment;
+        segmentStart += SEGMENT_SIZE;
+        position = 0;
+        strings.clear();
+        stringIds.clear();
+        lastBookTime = 0;
+    }
+
+    /**
+     * Zero any partially written record after the last valid one, so it cannot be mistaken for a record later.
+     */
+    private void clearTail() {
+        var segment = Objects.requireNonNull(this.segment);
+        var isDirty = false;
+        for (int i = position; i < SEGMENT_SIZE; i++) {
+            if (segment.get(i) != 0) {
+                segment.put(i, (byte) 0);
+                isDirty = true;
+            }
+        }
+        if (isDirty) {
+            log.warn("Discarded an incomplete record at the end of the order book history.");
+            segment.force();
+        }
+    }
+
+    /**
+     * Reads a history file's records through read-only, memory-mapped segments, and decodes its books.
+     */
+    private static final class Reader {
+        private final FileChannel channel;
+        private final Consumer<Book> consumer;
+        private final CRC32 crc = new CRC32();
+        // The segment's dictionary strings, and its last book's time.
+        private final List<String> strings = new ArrayList<>();
+        private long lastBookTime;
+        // Where the last valid record ends.
+        private long segmentStart;
+        private int position;
+
+        Reader(FileChannel channel, Consumer<Book> consumer) {
+            this.channel = channel;
+            this.consumer = consumer;
+        }
+
+        /**
+         * Reads the records of each segment, up to the first empty one.
+         */
+        void readAll() throws IOException {
+            var size = channel.size();
+            for (segmentStart = 0; segmentStart < size && !isEmptySegment(segmentStart); segmentStart += SEGMENT_SIZE)
+                readSegment();
+        }
+
+        /**
+         * Reads the records of the last segment that is not empty, and leaves the reader where the next record is
+         * written:  after the segment's last valid record, or at the start of the next segment if the segment is full.
+         */
+        void readLastSegment() throws IOException {
+            var size = channel.size();
+            segmentStart = size == 0 ? 0 : (size - 1) / SEGMENT_SIZE * SEGMENT_SIZE;
+            while (segmentStart > 0 && isEmptySegment(segmentStart))
+                segmentStart -= SEGMENT_SIZE;
+
+            if (isEmptySegment(segmentStart))
+                return;
+
+            if (readSegment()) {
+                segmentStart += SEGMENT_SIZE;
+                position = 0;
+                strings.clear();
+                lastBookTime = 0;
+            }
+        }
+
+        private boolean isEmptySegment(long start) throws IOException {
+            var firstLength = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(firstLength, start);
+            return firstLength.hasRemaining() || firstLength.getInt(0) == 0;
+        }
+
+        /**
+         * Reads the records of the segment at segmentStart, and returns true if the segment is full:  it has a segment
+         * end mark, or no room for another record.
+         */
+        private boolean readSegment() throws IOException {
+            strings.clear();
+            lastBookTime = 0;
+            position = 0;
+            var segment = channel.map(READ_ONLY, segmentStart, Math.min(SEGMENT_SIZE, channel.size() - segmentStart));
+            while (position + HEADER_SIZE <= segment.capacity()) {
+                var length = segment.getInt(position);
+                if (length == SEGMENT_END)
+                    return true;
+                if (length <= 0 || position + HEADER_SIZE + length > segment.capacity())
+                    return false;
+
+                var payload = segment.slice(position + HEADER_SIZE, length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if (segment.getInt(position + Integer.BYTES) != (int) crc.getValue())
+                    return false;
+
+                var numStrings = strings.size();
+                Book book;
+                try {
+                    book = decode(payload);
+                } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+                    strings.subList(numStrings, strings.size()).clear();
+                    return false;
+                }
+                position += HEADER_SIZE + length;
+                consumer.accept(book);
+            }
+            return segment.capacity() == SEGMENT_SIZE;
+        }
+
+        private Book decode(ByteBuffer in) {
+            var numNewStrings = readVarint(in);
+            for (int i = 0; i < numNewStrings; i++) {
+                var bytes = new byte[readVarint(in)];
+                in.get(bytes);
+                strings.add(new String(bytes, UTF_8));
+            }
+            var bookTime = lastBookTime + readSignedVarint(in);
+            var market = strings.get(readVarint(in));
+            var direction = strings.get(readVarint(in));
+            var n = readVarint(in);
+            var ids = new String[n];
+            var prices = new long[n];
+            var amounts = new long[n];
+            var dates = new long[n];
+            var flags = new int[n];
+            var margins = new long[n];
+            var minAmountDeltas = new long[n];
+            for (int i = 0; i < n; i++)
+                ids[i] = strings.get(readVarint(in));
+            long previous = 0;
+            for (int i = 0; i < n; i++)
+                prices[i] = previous += readSignedVarint(in);
+            previous = 0;
+            for (int i = 0; i < n; i++)
+                amounts[i] = previous += readSignedVarint(in);
+            for (int i = 0; i < n; i++)
+                minAmountDeltas[i] = readSignedVarint(in);
+            previous = bookTime;
+            for (int i = 0; i < n; i++)
+                dates[i] = previous += readSignedVarint(in);
+            for (int i = 0; i < n; i++)
+                flags[i] = readVarint(in);
+            for (int i = 0; i < n; i++)
+                margins[i] = readSignedVarint(in);
+            var paymentMethodIds = new String[n];
+            for (int i = 0; i < n; i++)
+                paymentMethodIds[i] = strings.get(readVarint(in));
+            var makerAddresses = new String[n];
+            for (int i = 0; i < n; i++)
+                makerAddresses[i] = strings.get(readVarint(in));
+            if (in.hasRemaining())
+                throw new IllegalArgumentException("Order book record has trailing bytes.");
+
+            var offers = new ArrayList<RecordedOffer>(n);
+            for (int i = 0; i < n; i++) {
+                offers.add(new RecordedOffer(ids[i],
+                        prices[i],
+                        amounts[i],
+                        amounts[i] - minAmountDeltas[i],
+                        dates[i],
+                        (flags[i] & MARKET_BASED_PRICE_FLAG) != 0,
+                        margins[i] / MARGIN_SCALE,
+                        (flags[i] & BSQ_SWAP_OFFER_FLAG) != 0,
+                        (flags[i] & MY_OFFER_FLAG) != 0,
+                        paymentMethodIds[i],
+                        makerAddresses[i]));
+            }
+            lastBookTime = bookTime;
+            return new Book(bookTime, market, direction, offers);
+        }
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        var value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Order book record has an invalid count or id.");
+
+        return (int) value;
+    }
+
+    private static long readSignedVarint(ByteBuffer in) {
+        var value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            var b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Order book record has a malformed varint.");
+    }
+
+    /**
+     * A growable byte array a book's payload is encoded into, reused for each book.
+     */
+    private static final class Encoder {
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        Encoder reset() {
+            size = 0;
+            return this;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void writeString(String string) {
+            var utf8 = string.getBytes(UTF_8);
+            writeVarint(utf8.length);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        void writeSignedVarint(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void ensureCapacity(int numBytes) {
+            if (size + numBytes > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + numBytes));
+        }
+    }
+}
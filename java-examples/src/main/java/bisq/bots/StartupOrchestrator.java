@@ -0,0 +1,134 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import static bisq.bots.BotUtils.logTable;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Runs a bot's independent startup steps concurrently, so startup takes about as long as its slowest step instead of
+ * the sum of all steps.
+ * <p>
+ * The first step to fail ends startup:  the remaining steps are interrupted, and the failed step's exception is
+ * rethrown by {@link #awaitAll()}.  Either way, the time each step took is logged.
+ */
+@Slf4j
+class StartupOrchestrator {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "startup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+    private final List<Step<?>> steps = new ArrayList<>();
+    private final long startTime = System.nanoTime();
+
+    /**
+     * A startup step's result, available after {@link #awaitAll()} returns.
+     */
+    static final class Step<T> {
+        private final String name;
+        private volatile T result;
+        private volatile boolean isFailed;
+        private volatile long durationInNanos = -1;
+
+        private Step(String name) {
+            this.name = name;
+        }
+
+        T get() {
+            if (durationInNanos < 0)
+                throw new IllegalStateException(format("Startup step %s is not done.", name));
+
+            return result;
+        }
+
+        boolean isFailed() {
+            return isFailed;
+        }
+    }
+
+    /**
+     * Start the given step now, on its own thread.
+     *
+     * @param name of the step, for logging
+     * @param task returns the step's result, or throws an exception to end startup
+     */
+    <T> Step<T> submit(String name, Supplier<T> task) {
+        var step = new Step<T>(name);
+        steps.add(step);
+        completionService.submit(() -> {
+            var stepStartTime = System.nanoTime();
+            try {
+                step.result = task.get();
+            } catch (RuntimeException | Error ex) {
+                step.isFailed = true;
+                throw ex;
+            } finally {
+                step.durationInNanos = System.nanoTime() - stepStartTime;
+            }
+            return null;
+        });
+        return step;
+    }
+
+    /**
+     * Wait for all submitted steps to finish, or rethrow the exception of the first step to fail.
+     */
+    void awaitAll() {
+        try {
+            for (int i = 0; i < steps.size(); i++) {
+                completionService.take().get();
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            else if (ex.getCause() instanceof Error error)
+                throw error;
+            else
+                throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Bot startup was interrupted.", ex);
+        } finally {
+            executor.shutdownNow();
+            logDurations();
+        }
+    }
+
+    private void logDurations() {
+        logTable(log,
+                () -> format("Startup took %d ms", NANOSECONDS.toMillis(System.nanoTime() - startTime)),
+                () -> {
+                    var durationsByStep = new LinkedHashMap<String, Object>();
+                    steps.forEach(step -> durationsByStep.put(step.name + ":", step.durationInNanos < 0
+                            ? "not done"
+                            : NANOSECONDS.toMillis(step.durationInNanos) + " ms" + (step.isFailed ? " (failed)" : "")));
+                    return durationsByStep;
+                });
+    }
+}
@@ -16,6 +16,7 @@
  */
 package bisq.bots;
 
+import bisq.bots.BalanceReservationLedger.Reservation;
 import bisq.proto.grpc.OfferInfo;
 import io.grpc.StatusRuntimeException;
 import lombok.Getter;
@@ -28,7 +29,7 @@ import java.util.function.BiPredicate;
 
 import static bisq.bots.BotUtils.*;
 import static java.lang.String.format;
-import static java.math.RoundingMode.HALF_UP;
+import static java.util.Objects.requireNonNull;
 import static protobuf.OfferDirection.BUY;
 
 /**
@@ -88,46 +89,51 @@ import static protobuf.OfferDirection.BUY;
 @Getter
 public class TakeBestPricedOfferToBuyBtc extends AbstractBot {
 
-    // Config file:  resources/TakeBestPricedOfferToBuyBtc.properties.
-    private final Properties configFile;
     // Taker bot's payment account (if the configured paymentAccountId is valid).
     private final PaymentAccount paymentAccount;
     // Taker bot's payment account trading currency code (if the configured paymentAccountId is valid).
     private final String currencyCode;
     // Taker bot's min market price margin.  A takeable offer's price margin (%) must be >= minMarketPriceMargin (%).
-    private final BigDecimal minMarketPriceMargin;
+    private BigDecimal minMarketPriceMargin;
     // Taker bot's min BTC amount to trade.  A takeable offer's amount must be >= minAmount BTC.
-    private final BigDecimal minAmount;
+    private BigDecimal minAmount;
     // Taker bot's max BTC amount to trade.  A takeable offer's amount must be <= maxAmount BTC.
-    private final BigDecimal maxAmount;
+    private BigDecimal maxAmount;
     // Taker bot's max acceptable transaction fee rate.
-    private final long maxTxFeeRate;
+    private long maxTxFeeRate;
     // Taker bot's trading fee currency code (BSQ or BTC).
-    private final String bisqTradeFeeCurrency;
+    private String bisqTradeFeeCurrency;
     // Maximum # of offers to take during one bot session (shut down bot after taking N offers).
-    private final int maxTakeOffers;
+    private int maxTakeOffers;
 
     // Offer polling frequency must be > 1000 ms between each getoffers request.
-    private final long pollingInterval;
+    private long pollingInterval;
 
-    // The # of offers taken during the bot session (since startup).
-    private int numOffersTaken = 0;
+    // The # of offers taken during the bot session (since startup, or restored from the session journal).
+    private int numOffersTaken = isDryRun ? journal.getNumDryRunOffersTaken() : journal.getNumOffersTaken();
 
     public TakeBestPricedOfferToBuyBtc(String[] args) {
         super(args);
-        pingDaemon(new Date().getTime()); // Shut down now if API daemon is not available.
-        this.configFile = loadConfigFile();
-        this.paymentAccount = getPaymentAccount(configFile.getProperty("paymentAccountId"));
+        var startupChecks = startUp(); // Shut down now if API daemon is not available.
+        var config = startupChecks.config();
+        this.paymentAccount = findPaymentAccount(startupChecks.paymentAccounts(), config.getPaymentAccountId());
         this.currencyCode = paymentAccount.getSelectedTradeCurrency().getCode();
-        this.minMarketPriceMargin = new BigDecimal(configFile.getProperty("minMarketPriceMargin"))
-                .setScale(2, HALF_UP);
-        this.minAmount = new BigDecimal(configFile.getProperty("minAmount"));
-        this.maxAmount = new BigDecimal(configFile.getProperty("maxAmount"));
-        this.maxTxFeeRate = Long.parseLong(configFile.getProperty("maxTxFeeRate"));
-        this.bisqTradeFeeCurrency = configFile.getProperty("bisqTradeFeeCurrency");
-        this.maxTakeOffers = Integer.parseInt(configFile.getProperty("maxTakeOffers"));
-        loadPreferredOnionAddresses.accept(configFile, preferredTradingPeers);
-        this.pollingInterval = Long.parseLong(configFile.getProperty("pollingInterval"));
+        applyConfig(config);
+    }
+
+    /**
+     * Copy the given configuration snapshot's values into the bot's trading rules.  Called by the constructor, and
+     * between poll cycles after the external conf file changes.
+     */
+    private void applyConfig(BotConfig config) {
+        this.minMarketPriceMargin = config.getMinMarketPriceMargin();
+        this.minAmount = config.getMinAmount();
+        this.maxAmount = config.getMaxAmount();
+        this.maxTxFeeRate = config.getMaxTxFeeRate();
+        this.bisqTradeFeeCurrency = config.getBisqTradeFeeCurrency();
+        this.maxTakeOffers = config.getMaxTakeOffers();
+        this.pollingInterval = config.getPollingInterval();
+        setPreferredTradingPeers(config.getPreferredTradingPeers());
     }
 
     /**
@@ -138,71 +144,81 @@ public class TakeBestPricedOfferToBuyBtc extends AbstractBot {
     @Override
     public void run() {
         var startTime = new Date().getTime();
-        validateWalletPassword(walletPassword);
         validatePollingInterval(pollingInterval);
         validateTradeFeeCurrencyCode(bisqTradeFeeCurrency);
         validatePaymentAccount(paymentAccount);
         printBotConfiguration();
+        watchConfigFile();
 
         while (!isShutdown) {
-            if (!isBisqNetworkTxFeeRateLowEnough.test(maxTxFeeRate)) {
-                runCountdown(log, pollingInterval);
-                continue;
-            }
+            try {
+                takeConfigUpdate().ifPresent(this::applyConfig);
+                // The session is over if a configuration change lowered maxTakeOffers to the # of offers taken.
+                if (numOffersTaken >= maxTakeOffers)
+                    maybeShutdownAfterSuccessfulTradeCreation(numOffersTaken, maxTakeOffers);
+
+                // Fetch the tx fee rate, offers, and price this cycle's decisions are based on, all at once.
+                var snapshot = fetchMarketSnapshot(BUY.name(), currencyCode);
+                if (!isBisqNetworkTxFeeRateLowEnough.test(snapshot, maxTxFeeRate)) {
+                    runCountdown(log, pollingInterval);
+                    continue;
+                }
 
-            // Get all available and takeable buy BTC for fiat offers, sorted by price descending.
-            // The list contains both fixed-price and market price margin based offers.
-            var offers = getOffers(BUY.name(), currencyCode).stream()
-                    .filter(o -> !isAlreadyTaken.test(o))
-                    .toList();
+                // Get all available and takeable buy BTC for fiat offers, sorted by price descending.
+                // The list contains both fixed-price and market price margin based offers.
+                var offers = snapshot.offers().value().stream()
+                        .filter(o -> !isAlreadyTaken.test(o))
+                        .toList();
+
+                if (offers.isEmpty()) {
+                    log.info("No takeable offers found.");
+                    runCountdown(log, pollingInterval);
+                    continue;
+                }
+
+                // Define criteria for taking an offer, based on conf file.
+                TakeCriteria takeCriteria = new TakeCriteria(snapshot);
+                takeCriteria.printCriteriaSummary();
+                takeCriteria.printOffersAgainstCriteria(offers);
+
+                // Find takeable offer based on criteria.
+                Optional<OfferInfo> selectedOffer = evaluateCriteria(currencyCode,
+                        () -> takeCriteria.findTakeableOffer(offers));
+                // Try to take the offer, if found, or say 'no offer found' before going to sleep.
+                if (selectedOffer.isEmpty()) {
+                    var highestPricedOffer = offers.get(0);
+                    log.info("No acceptable offer found.  Closest possible candidate did not pass filters:");
+                    takeCriteria.printOfferAgainstCriteria(highestPricedOffer);
+                } else {
+                    if (takeOffer(selectedOffer.get(),
+                            offer -> Reservation.forV1ProtocolOffer(offer, bisqTradeFeeCurrency),
+                            offer -> takeOffer(takeCriteria, offer),
+                            pollingInterval))
+                        numOffersTaken++;
+                    maybeShutdownAfterSuccessfulTradeCreation(numOffersTaken, maxTakeOffers);
+                }
 
-            if (offers.isEmpty()) {
-                log.info("No takeable offers found.");
                 runCountdown(log, pollingInterval);
-                continue;
+                verifyDaemonIsAvailable(startTime);
+            } catch (StatusRuntimeException grpcException) {
+                // Wait for an unreachable or overloaded API daemon to recover, instead of crashing the bot.
+                waitForDaemonRecovery(grpcException, pollingInterval);
             }
-
-            // Define criteria for taking an offer, based on conf file.
-            TakeCriteria takeCriteria = new TakeCriteria();
-            takeCriteria.printCriteriaSummary();
-            takeCriteria.printOffersAgainstCriteria(offers);
-
-            // Find takeable offer based on criteria.
-            Optional<OfferInfo> selectedOffer = takeCriteria.findTakeableOffer(offers);
-            // Try to take the offer, if found, or say 'no offer found' before going to sleep.
-            selectedOffer.ifPresentOrElse(offer -> takeOffer(takeCriteria, offer),
-                    () -> {
-                        var highestPricedOffer = offers.get(0);
-                        log.info("No acceptable offer found.  Closest possible candidate did not pass filters:");
-                        takeCriteria.printOfferAgainstCriteria(highestPricedOffer);
-                    });
-
-            runCountdown(log, pollingInterval);
-            pingDaemon(startTime);
         }
     }
 
     /**
      * Attempt to take the available offer according to configured criteria.  If successful, will block until a new
-     * trade is fully initialized with a trade contract.  Otherwise, handles a non-fatal error and allows the bot to
-     * stay alive, or shuts down the bot upon fatal error.
+     * trade is fully initialized with a trade contract, and return true.  Otherwise, handles a non-fatal error and
+     * allows the bot to stay alive (returning false), or shuts down the bot upon fatal error.
      */
-    private void takeOffer(TakeCriteria takeCriteria, OfferInfo offer) {
+    private boolean takeOffer(TakeCriteria takeCriteria, OfferInfo offer) {
         log.info("Will attempt to take offer '{}'.", offer.getId());
         takeCriteria.printOfferAgainstCriteria(offer);
 
-        // An encrypted wallet must be unlocked before calling takeoffer and gettrade(s).
-        // Unlock the wallet for 5 minutes.  If the wallet is already unlocked, this request
-        // will override the timeout of the previous unlock request.
-        try {
-            unlockWallet(walletPassword, 300);
-        } catch (NonFatalException nonFatalException) {
-            handleNonFatalException(nonFatalException, pollingInterval);
-        }
-
         if (isDryRun) {
             addToOffersTaken(offer);
-            numOffersTaken++;
+            return true;
         } else {
             try {
                 printBTCBalances("BTC Balances Before Take Offer Attempt");
@@ -218,14 +234,14 @@ public class TakeBestPricedOfferToBuyBtc extends AbstractBot {
                     tradePaymentSimulator.run();
                     printBTCBalances("BTC Balances After Simulated Trade Completion");
                 }
-                numOffersTaken++;
+                return true;
             } catch (NonFatalException nonFatalException) {
                 handleNonFatalException(nonFatalException, pollingInterval);
             } catch (StatusRuntimeException fatalException) {
                 shutdownAfterTakeOfferFailure(fatalException);
             }
         }
-        maybeShutdownAfterSuccessfulTradeCreation(numOffersTaken, maxTakeOffers);
+        return false;
     }
 
     /**
@@ -280,8 +296,8 @@ public class TakeBestPricedOfferToBuyBtc extends AbstractBot {
         @Getter
         private final BigDecimal targetPrice;
 
-        public TakeCriteria() {
-            this.currentMarketPrice = getCurrentMarketPrice(currencyCode);
+        public TakeCriteria(MarketSnapshot snapshot) {
+            this.currentMarketPrice = requireNonNull(snapshot.marketPrice()).value();
             this.targetPrice = calcTargetPrice(minMarketPriceMargin, currentMarketPrice, currencyCode);
         }
 
@@ -326,17 +342,24 @@ public class TakeBestPricedOfferToBuyBtc extends AbstractBot {
         }
 
         void printOffersAgainstCriteria(List<OfferInfo> offers) {
-            log.info("Currently available {} offers -- want to take {} offer with price >= {} {}.",
-                    MARKET_DESCRIPTION,
-                    currencyCode,
-                    targetPrice,
-                    currencyCode);
-            printOffersSummary(offers);
+            availableOffersView.update(log,
+                    () -> format("Currently available %s offers -- want to take %s offer with price >= %s %s.",
+                            MARKET_DESCRIPTION,
+                            currencyCode,
+                            targetPrice,
+                            currencyCode),
+                    offers);
         }
 
         void printOfferAgainstCriteria(OfferInfo offer) {
-            printOfferSummary(offer);
+            printOfferSummary(log, offer);
+            logTable(log, () -> format("%s offer %s filter results:",
+                            offer.getUseMarketBasedPrice() ? "Margin based" : "Fixed price",
+                            offer.getId()),
+                    () -> getFilterResultsByLabel(offer));
+        }
 
+        private Map<String, Object> getFilterResultsByLabel(OfferInfo offer) {
             var filterResultsByLabel = new LinkedHashMap<String, Object>();
             filterResultsByLabel.put("Current Market Price:", currentMarketPrice + " " + currencyCode);
             filterResultsByLabel.put("Target Price (Min):", targetPrice + " " + currencyCode);
@@ -363,11 +386,7 @@ public class TakeBestPricedOfferToBuyBtc extends AbstractBot {
             String btcAmountBounds = format("%s BTC - %s BTC", minAmount, maxAmount);
             filterResultsByLabel.put("Is offer's BTC amount within bot amount bounds (" + btcAmountBounds + ")?",
                     isWithinBTCAmountBounds(offer, getMinAmount(), getMaxAmount()));
-
-            var title = format("%s offer %s filter results:",
-                    offer.getUseMarketBasedPrice() ? "Margin based" : "Fixed price",
-                    offer.getId());
-            log.info(toTable.apply(title, filterResultsByLabel));
+            return filterResultsByLabel;
         }
     }
 }
@@ -16,6 +16,7 @@
  */
 package bisq.bots;
 
+import bisq.bots.BalanceReservationLedger.Reservation;
 import bisq.proto.grpc.OfferInfo;
 import io.grpc.StatusRuntimeException;
 import lombok.Getter;
@@ -28,7 +29,6 @@ import java.util.function.BiPredicate;
 
 import static bisq.bots.BotUtils.*;
 import static java.lang.String.format;
-import static java.math.RoundingMode.HALF_UP;
 import static protobuf.OfferDirection.BUY;
 
 /**
@@ -86,45 +86,49 @@ public class TakeBestPricedOfferToSellBsq extends AbstractBot {
     // Taker bot's default BSQ payment account trading currency code.
     private static final String CURRENCY_CODE = "BSQ";
 
-    // Config file:  resources/TakeBestPricedOfferToSellBsq.properties.
-    private final Properties configFile;
     // Taker bot's default BSQ Swap payment account.
     private final PaymentAccount paymentAccount;
     // Taker bot's max market price margin.  A takeable BSQ Swap offer's fixed-price must be <= maxMarketPriceMargin (%).
     // Note:  all BSQ Swap offers have a fixed-price, but the bot uses a margin (%) of the 30-day price for comparison.
-    private final BigDecimal maxMarketPriceMargin;
+    private BigDecimal maxMarketPriceMargin;
     // Hard coded 30-day average BSQ trade price, used for development over regtest (ignored when running on mainnet).
-    private final BigDecimal regtest30DayAvgBsqPrice;
+    private BigDecimal regtest30DayAvgBsqPrice;
     // Taker bot's minimum BTC amount to trade.  A takeable offer's amount must be >= minAmount BTC.
-    private final BigDecimal minAmount;
+    private BigDecimal minAmount;
     // Taker bot's maximum BTC amount to trade.  A takeable offer's amount must be <= maxAmount BTC.
-    private final BigDecimal maxAmount;
+    private BigDecimal maxAmount;
     // Taker bot's max acceptable transaction fee rate.
-    private final long maxTxFeeRate;
+    private long maxTxFeeRate;
     // Maximum # of offers to take during one bot session (shut down bot after taking N swap offers).
-    private final int maxTakeOffers;
+    private int maxTakeOffers;
 
     // Offer polling frequency must be > 1000 ms between each getoffers request.
-    private final long pollingInterval;
+    private long pollingInterval;
 
-    // The # of offers taken during the bot session (since startup).
-    private int numOffersTaken = 0;
+    // The # of offers taken during the bot session (since startup, or restored from the session journal).
+    private int numOffersTaken = isDryRun ? journal.getNumDryRunOffersTaken() : journal.getNumOffersTaken();
 
     public TakeBestPricedOfferToSellBsq(String[] args) {
         super(args);
-        pingDaemon(new Date().getTime()); // Shut down now if API daemon is not available.
-        this.configFile = loadConfigFile();
-        this.paymentAccount = getBsqSwapPaymentAccount();
-        this.maxMarketPriceMargin = new BigDecimal(configFile.getProperty("maxMarketPriceMargin"))
-                .setScale(2, HALF_UP);
-        this.regtest30DayAvgBsqPrice = new BigDecimal(configFile.getProperty("regtest30DayAvgBsqPrice"))
-                .setScale(8, HALF_UP);
-        this.minAmount = new BigDecimal(configFile.getProperty("minAmount"));
-        this.maxAmount = new BigDecimal(configFile.getProperty("maxAmount"));
-        this.maxTxFeeRate = Long.parseLong(configFile.getProperty("maxTxFeeRate"));
-        this.maxTakeOffers = Integer.parseInt(configFile.getProperty("maxTakeOffers"));
-        loadPreferredOnionAddresses.accept(configFile, preferredTradingPeers);
-        this.pollingInterval = Long.parseLong(configFile.getProperty("pollingInterval"));
+        var startupChecks = startUp(); // Shut down now if API daemon is not available.
+        var config = startupChecks.config();
+        this.paymentAccount = findBsqSwapPaymentAccount(startupChecks.paymentAccounts());
+        applyConfig(config);
+    }
+
+    /**
+     * Copy the given configuration snapshot's values into the bot's trading rules.  Called by the constructor, and
+     * between poll cycles after the external conf file changes.
+     */
+    private void applyConfig(BotConfig config) {
+        this.maxMarketPriceMargin = config.getMaxMarketPriceMargin();
+        this.regtest30DayAvgBsqPrice = config.getRegtest30DayAvgBsqPrice();
+        this.minAmount = config.getMinAmount();
+        this.maxAmount = config.getMaxAmount();
+        this.maxTxFeeRate = config.getMaxTxFeeRate();
+        this.maxTakeOffers = config.getMaxTakeOffers();
+        this.pollingInterval = config.getPollingInterval();
+        setPreferredTradingPeers(config.getPreferredTradingPeers());
     }
 
     /**
@@ -134,64 +138,74 @@ public class TakeBestPricedOfferToSellBsq extends AbstractBot {
     @Override
     public void run() {
         var startTime = new Date().getTime();
-        validateWalletPassword(walletPassword);
         validatePollingInterval(pollingInterval);
         printBotConfiguration();
+        watchConfigFile();
 
         while (!isShutdown) {
-            if (!isBisqNetworkTxFeeRateLowEnough.test(maxTxFeeRate)) {
-                runCountdown(log, pollingInterval);
-                continue;
-            }
-
-            // Get all available buy BTC with BSQ offers, sorted by price ascending.
-            // The list contains only fixed-priced offers.
-            var offers = getOffers(BUY.name(), CURRENCY_CODE).stream()
-                    .filter(o -> !isAlreadyTaken.test(o))
-                    .toList();
+            try {
+                takeConfigUpdate().ifPresent(this::applyConfig);
+                // The session is over if a configuration change lowered maxTakeOffers to the # of offers taken.
+                if (numOffersTaken >= maxTakeOffers)
+                    maybeShutdownAfterSuccessfulSwap(numOffersTaken, maxTakeOffers);
+
+                // Fetch the tx fee rate, offers, and price this cycle's decisions are based on, all at once.
+                var snapshot = fetchMarketSnapshot(BUY.name(), CURRENCY_CODE);
+                if (!isBisqNetworkTxFeeRateLowEnough.test(snapshot, maxTxFeeRate)) {
+                    runCountdown(log, pollingInterval);
+                    continue;
+                }
+
+                // Get all available buy BTC with BSQ offers, sorted by price ascending.
+                // The list contains only fixed-priced offers.
+                var offers = snapshot.offers().value().stream()
+                        .filter(o -> !isAlreadyTaken.test(o))
+                        .toList();
+
+                if (offers.isEmpty()) {
+                    log.info("No takeable offers found.");
+                    runCountdown(log, pollingInterval);
+                    continue;
+                }
+
+                // Define criteria for taking an offer, based on conf file.
+                TakeCriteria takeCriteria = new TakeCriteria(snapshot);
+                takeCriteria.printCriteriaSummary();
+                takeCriteria.printOffersAgainstCriteria(offers);
+
+                // Find takeable offer based on criteria.
+                Optional<OfferInfo> selectedOffer = evaluateCriteria(CURRENCY_CODE,
+                        () -> takeCriteria.findTakeableOffer(offers));
+                // Try to take the offer, if found, or say 'no offer found' before going to sleep.
+                if (selectedOffer.isEmpty()) {
+                    var cheapestOffer = offers.get(0);
+                    log.info("No acceptable offer found.  Closest possible candidate did not pass filters:");
+                    takeCriteria.printOfferAgainstCriteria(cheapestOffer);
+                } else {
+                    if (takeOffer(selectedOffer.get(),
+                            Reservation::forBsqSwapOffer,
+                            offer -> takeOffer(takeCriteria, offer),
+                            pollingInterval))
+                        numOffersTaken++;
+                    maybeShutdownAfterSuccessfulSwap(numOffersTaken, maxTakeOffers);
+                }
 
-            if (offers.isEmpty()) {
-                log.info("No takeable offers found.");
                 runCountdown(log, pollingInterval);
-                continue;
+                verifyDaemonIsAvailable(startTime);
+            } catch (StatusRuntimeException grpcException) {
+                // Wait for an unreachable or overloaded API daemon to recover, instead of crashing the bot.
+                waitForDaemonRecovery(grpcException, pollingInterval);
             }
-
-            // Define criteria for taking an offer, based on conf file.
-            TakeBestPricedOfferToSellBsq.TakeCriteria takeCriteria = new TakeBestPricedOfferToSellBsq.TakeCriteria();
-            takeCriteria.printCriteriaSummary();
-            takeCriteria.printOffersAgainstCriteria(offers);
-
-            // Find takeable offer based on criteria.
-            Optional<OfferInfo> selectedOffer = takeCriteria.findTakeableOffer(offers);
-            // Try to take the offer, if found, or say 'no offer found' before going to sleep.
-            selectedOffer.ifPresentOrElse(offer -> takeOffer(takeCriteria, offer),
-                    () -> {
-                        var cheapestOffer = offers.get(0);
-                        log.info("No acceptable offer found.  Closest possible candidate did not pass filters:");
-                        takeCriteria.printOfferAgainstCriteria(cheapestOffer);
-                    });
-
-            runCountdown(log, pollingInterval);
-            pingDaemon(startTime);
         }
     }
 
-    private void takeOffer(TakeCriteria takeCriteria, OfferInfo offer) {
+    private boolean takeOffer(TakeCriteria takeCriteria, OfferInfo offer) {
         log.info("Will attempt to take offer '{}'.", offer.getId());
         takeCriteria.printOfferAgainstCriteria(offer);
 
-        // An encrypted wallet must be unlocked before calling takeoffer and gettrade(s).
-        // Unlock the wallet for 5 minutes.  If the wallet is already unlocked, this request
-        // will override the timeout of the previous unlock request.
-        try {
-            unlockWallet(walletPassword, 300);
-        } catch (NonFatalException nonFatalException) {
-            handleNonFatalException(nonFatalException, pollingInterval);
-        }
-
         if (isDryRun) {
             addToOffersTaken(offer);
-            numOffersTaken++;
+            return true;
         } else {
             try {
                 printBTCBalances("BTC Balances Before Swap Execution");
@@ -203,14 +217,14 @@ public class TakeBestPricedOfferToSellBsq extends AbstractBot {
                 printBTCBalances("BTC Balances After Swap Execution");
                 printBSQBalances("BSQ Balances After Swap Execution");
 
-                numOffersTaken++;
+                return true;
             } catch (NonFatalException nonFatalException) {
                 handleNonFatalException(nonFatalException, pollingInterval);
             } catch (StatusRuntimeException fatalException) {
                 handleFatalBsqSwapException(fatalException);
             }
         }
-        maybeShutdownAfterSuccessfulSwap(numOffersTaken, maxTakeOffers);
+        return false;
     }
 
     private void printBotConfiguration() {
@@ -271,8 +285,10 @@ public class TakeBestPricedOfferToSellBsq extends AbstractBot {
         @Getter
         private final BigDecimal targetPrice;
 
-        public TakeCriteria() {
-            this.avgBsqPrice = isConnectedToMainnet() ? get30DayAvgBsqPriceInBtc() : regtest30DayAvgBsqPrice;
+        public TakeCriteria(MarketSnapshot snapshot) {
+            this.avgBsqPrice = snapshot.avgBsqPrice() != null
+                    ? snapshot.avgBsqPrice().value()
+                    : regtest30DayAvgBsqPrice;
             this.targetPrice = calcTargetBsqPrice(maxMarketPriceMargin, avgBsqPrice);
         }
 
@@ -315,15 +331,21 @@ public class TakeBestPricedOfferToSellBsq extends AbstractBot {
         }
 
         void printOffersAgainstCriteria(List<OfferInfo> offers) {
-            log.info("Currently available {} offers -- want to take BSQ swap offer with fixed-price <= {} BTC.",
-                    MARKET_DESCRIPTION,
-                    targetPrice);
-            printOffersSummary(offers);
+            availableOffersView.update(log,
+                    () -> format("Currently available %s offers -- want to take BSQ swap offer"
+                                    + " with fixed-price <= %s BTC.",
+                            MARKET_DESCRIPTION,
+                            targetPrice),
+                    offers);
         }
 
         void printOfferAgainstCriteria(OfferInfo offer) {
-            printOfferSummary(offer);
+            printOfferSummary(log, offer);
+            logTable(log, () -> format("Fixed price BSQ swap offer %s filter results:", offer.getId()),
+                    () -> getFilterResultsByLabel(offer));
+        }
 
+        private Map<String, Object> getFilterResultsByLabel(OfferInfo offer) {
             var filterResultsByLabel = new LinkedHashMap<String, Object>();
             filterResultsByLabel.put("30-day Avg BSQ trade price:", avgBsqPrice + " BTC");
             filterResultsByLabel.put("Target Price (Max):", targetPrice + " BTC");
@@ -341,9 +363,7 @@ public class TakeBestPricedOfferToSellBsq extends AbstractBot {
             var btcAmountBounds = format("%s BTC - %s BTC", minAmount, maxAmount);
             filterResultsByLabel.put("Is offer's BTC amount within bot amount bounds (" + btcAmountBounds + ")?",
                     isWithinBTCAmountBounds(offer, getMinAmount(), getMaxAmount()));
-
-            var title = format("Fixed price BSQ swap offer %s filter results:", offer.getId());
-            log.info(toTable.apply(title, filterResultsByLabel));
+            return filterResultsByLabel;
         }
     }
 }
@@ -0,0 +1,294 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import bisq.proto.grpc.TradeInfo;
+
+import javax.annotation.Nullable;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static bisq.bots.CurrencyFormat.*;
+import static java.lang.String.format;
+import static java.math.RoundingMode.HALF_UP;
+
+/**
+ * Running aggregates of the bot's closed trades, per market, per market and payment method, per market and day, and
+ * per market, payment method and day:  the number of trades, the BTC amount and trade volume traded, the average
+ * trade price, the average market price margin at take time, and the trade and miner fees paid.
+ * <p>
+ * Each closed trade is added to its four aggregates as the {@link TradeStore} stores it, and a changed trade's old
+ * version is subtracted first, so the aggregates are updated in constant time per trade, instead of being recomputed
+ * from every closed trade the API daemon sends.  Days are calendar days in the bot's time zone, like
+ * {@link BotUtils#midnightToday}.
+ * <p>
+ * The trade volume is in the market's payment currency, e.g., EUR, or BSQ, and the price is the market's price, e.g.,
+ * EUR per BTC, or BTC per BSQ.  Both are only meaningful in aggregates of a single market, which all aggregates are.
+ */
+class TradeAnalytics {
+
+    private static final MathContext AVERAGE_PRECISION = MathContext.DECIMAL64;
+
+    /**
+     * Identifies an aggregate.  A null payment method or day aggregates all of the market's payment methods or days.
+     */
+    record Key(String market, @Nullable String paymentMethod, @Nullable LocalDate day) {
+    }
+
+    private final ZoneId zoneId;
+    private final Map<Key, Totals> totalsByKey = new HashMap<>();
+    private final Set<String> markets = new TreeSet<>();
+
+    TradeAnalytics() {
+        this(ZoneId.systemDefault());
+    }
+
+    TradeAnalytics(ZoneId zoneId) {
+        this.zoneId = zoneId;
+    }
+
+    /**
+     * Replace a closed trade's contribution to the aggregates.
+     *
+     * @param previous the trade's previously aggregated version, or null if the trade is new
+     * @param trade    the trade's current version
+     */
+    synchronized void update(@Nullable TradeInfo previous, TradeInfo trade) {
+        if (previous != null)
+            forEachTotals(previous, totals -> totals.add(previous, -1));
+
+        forEachTotals(trade, totals -> totals.add(trade, 1));
+    }
+
+    /**
+     * Returns a copy of the aggregate with the given key, or empty totals if no trades were aggregated under it.
+     *
+     * @param market        the trades' base and counter currency codes, separated by a slash, e.g., "BTC/EUR"
+     * @param paymentMethod the trades' payment method id, or null for all payment methods
+     * @param day           the trades' day, or null for all days
+     */
+    synchronized Totals getTotals(String market, @Nullable String paymentMethod, @Nullable LocalDate day) {
+        var totals = totalsByKey.get(new Key(market, paymentMethod, day));
+        return totals == null ? new Totals() : totals.copy();
+    }
+
+    /**
+     * Returns copies of the given day's aggregates of the markets traded that day, by market.
+     */
+    synchronized SortedMap<String, Totals> getTotalsByMarket(LocalDate day) {
+        var totalsByMarket = new TreeMap<String, Totals>();
+        markets.forEach(market -> {
+            var totals = totalsByKey.get(new Key(market, null, day));
+            if (totals != null)
+                totalsByMarket.put(market, totals.copy());
+        });
+        return totalsByMarket;
+    }
+
+    /**
+     * Returns the day the given trade date (epoch ms) falls on, in the bot's time zone.
+     */
+    LocalDate toDay(long date) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(date), zoneId);
+    }
+
+    private void forEachTotals(TradeInfo trade, Consumer<Totals> action) {
+        var market = TradeStore.toMarket(trade);
+        var paymentMethod = trade.getOffer().getPaymentMethodId();
+        var day = toDay(trade.getDate());
+        markets.add(market);
+        action.accept(getOrCreate(new Key(market, null, null)));
+        action.accept(getOrCreate(new Key(market, paymentMethod, null)));
+        action.accept(getOrCreate(new Key(market, null, day)));
+        action.accept(getOrCreate(new Key(market, paymentMethod, day)));
+    }
+
+    private Totals getOrCreate(Key key) {
+        return totalsByKey.computeIfAbsent(key, k -> new Totals());
+    }
+
+    /**
+     * The sums of a group of closed trades.
+     */
+    static final class Totals {
+        private int numTrades;
+        private long amount;
+        private BigDecimal volume = BigDecimal.ZERO;
+        // Sum of each trade's price times its BTC amount, for the amount weighted average price.
+        private BigDecimal priceTimesAmount = BigDecimal.ZERO;
+        // Trades with market based prices, and the sum of their market price margins.
+        private int numMarketPriceTrades;
+        private BigDecimal marketPriceMarginPcts = BigDecimal.ZERO;
+        private long tradeFeesBtc;
+        private long tradeFeesBsq;
+        private long minerTxFees;
+
+        int getNumTrades() {
+            return numTrades;
+        }
+
+        /**
+         * Returns the BTC amount traded, in satoshis.
+         */
+        long getAmount() {
+            return amount;
+        }
+
+        /**
+         * Returns the trade volume, in the market's payment currency.
+         */
+        BigDecimal getVolume() {
+            return volume;
+        }
+
+        /**
+         * Returns the BTC amount weighted average trade price, or empty if no BTC was traded.
+         */
+        Optional<BigDecimal> getAveragePrice() {
+            return amount == 0
+                    ? Optional.empty()
+                    : Optional.of(priceTimesAmount.divide(BigDecimal.valueOf(amount), AVERAGE_PRECISION));
+        }
+
+        /**
+         * Returns the average market price margin (percent) of the trades with market based prices, i.e., their
+         * average price versus the market price at take time, or empty if all trades had fixed prices.
+         */
+        Optional<BigDecimal> getAverageMarketPriceMarginPct() {
+            return numMarketPriceTrades == 0
+                    ? Optional.empty()
+                    : Optional.of(marketPriceMarginPcts.divide(BigDecimal.valueOf(numMarketPriceTrades), AVERAGE_PRECISION));
+        }
+
+        long getTradeFeesBtc() {
+            return tradeFeesBtc;
+        }
+
+        long getTradeFeesBsq() {
+            return tradeFeesBsq;
+        }
+
+        long getMinerTxFees() {
+            return minerTxFees;
+        }
+
+        /**
+         * Add (sign 1) or subtract (sign -1) a trade.
+         */
+        private void add(TradeInfo trade, int sign) {
+            var offer = trade.getOffer();
+            var signum = BigDecimal.valueOf(sign);
+            numTrades += sign;
+            amount += sign * trade.getTradeAmountAsLong();
+            volume = volume.add(toDecimal(trade.getTradeVolume()).multiply(signum));
+            priceTimesAmount = priceTimesAmount.add(toDecimal(trade.getTradePrice())
+                    .multiply(BigDecimal.valueOf(sign * trade.getTradeAmountAsLong())));
+            if (offer.getUseMarketBasedPrice()) {
+                numMarketPriceTrades += sign;
+                marketPriceMarginPcts = marketPriceMarginPcts.add(BigDecimal.valueOf(offer.getMarketPriceMarginPct())
+                        .multiply(signum));
+            }
+            if (isTradeFeeBsq(trade))
+                tradeFeesBsq += sign * toTradeFee(trade);
+            else
+                tradeFeesBtc += sign * toTradeFee(trade);
+            minerTxFees += sign * toMinerTxFee(trade);
+        }
+
+        private Totals copy() {
+            var copy = new Totals();
+            copy.numTrades = numTrades;
+            copy.amount = amount;
+            copy.volume = volume;
+            copy.priceTimesAmount = priceTimesAmount;
+            copy.numMarketPriceTrades = numMarketPriceTrades;
+            copy.marketPriceMarginPcts = marketPriceMarginPcts;
+            copy.tradeFeesBtc = tradeFeesBtc;
+            copy.tradeFeesBsq = tradeFeesBsq;
+            copy.minerTxFees = minerTxFees;
+            return copy;
+        }
+
+        @Override
+        public String toString() {
+            return format("%d trade(s), %s BTC for %s, avg price %s, avg market price margin %s, trade fees %s BTC + %s BSQ, miner fees %s BTC",
+                    numTrades,
+                    formatBtc(amount),
+                    volume.stripTrailingZeros().toPlainString(),
+                    getAveragePrice().map(p -> p.setScale(8, HALF_UP).stripTrailingZeros().toPlainString()).orElse("N/A"),
+                    getAverageMarketPriceMarginPct().map(m -> format("%.2f%%", m)).orElse("N/A"),
+                    formatBtc(tradeFeesBtc),
+                    formatBsq(tradeFeesBsq),
+                    formatBtc(minerTxFees));
+        }
+
+        private static BigDecimal toDecimal(String value) {
+            return value.isEmpty() ? BigDecimal.ZERO : new BigDecimal(value);
+        }
+    }
+
+    // The fee rules of the closed trades table, see ClosedTradeTableBuilder and AbstractTradeListBuilder.
+
+    private static boolean isMyOffer(TradeInfo trade) {
+        return trade.getOffer().getIsMyOffer();
+    }
+
+    private static boolean isBtcSeller(TradeInfo trade) {
+        var isSellOffer = trade.getOffer().getDirection().equals("SELL");
+        return isMyOffer(trade) == isSellOffer;
+    }
+
+    private static boolean isTaker(TradeInfo trade) {
+        return trade.getRole().toLowerCase().contains("taker");
+    }
+
+    private static boolean isTradeFeeBtc(TradeInfo trade) {
+        return isMyOffer(trade)
+                ? trade.getOffer().getIsCurrencyForMakerFeeBtc()
+                : trade.getIsCurrencyForTakerFeeBtc();
+    }
+
+    private static boolean isTradeFeeBsq(TradeInfo trade) {
+        return trade.getOffer().getIsBsqSwapOffer() || !isTradeFeeBtc(trade);
+    }
+
+    /**
+     * Returns the trade fee I paid, in BTC or BSQ satoshis, see {@link #isTradeFeeBsq(TradeInfo)}.
+     */
+    private static long toTradeFee(TradeInfo trade) {
+        if (trade.getOffer().getIsBsqSwapOffer()) {
+            // For BSQ Swaps, BTC buyer pays the BSQ trade fee for both sides (BTC seller pays no fee).
+            if (isBtcSeller(trade) || isTradeFeeBtc(trade))
+                return 0L;
+        }
+        return isMyOffer(trade) ? trade.getOffer().getMakerFee() : trade.getTakerFeeAsLong();
+    }
+
+    private static long toMinerTxFee(TradeInfo trade) {
+        if (trade.getOffer().getIsBsqSwapOffer()) {
+            // The BTC seller pays the miner fee for both sides.
+            return isBtcSeller(trade) ? trade.getTxFeeAsLong() : 0L;
+        } else {
+            return isTaker(trade) ? trade.getTxFeeAsLong() : trade.getOffer().getTxFee();
+        }
+    }
+}
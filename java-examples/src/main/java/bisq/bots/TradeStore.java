@@ -0,0 +1,328 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots;
+
+import bisq.proto.grpc.GetTradesRequest.Category;
+import bisq.proto.grpc.TradeInfo;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.util.*;
+
+import static bisq.proto.grpc.GetTradesRequest.Category.CLOSED;
+import static bisq.proto.grpc.GetTradesRequest.Category.FAILED;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Local store of the API daemon's closed and failed trades, indexed by trade id, date and market, so the bot's trade
+ * history queries, e.g., today's completed trades, are index lookups instead of filtering every trade the daemon
+ * sends.
+ * <p>
+ * The store is synced with trade lists fetched from the daemon:  only trades with unseen ids, or whose state changed
+ * since they were stored (see {@link #isStateChanged(TradeInfo, TradeInfo)}), are indexed and appended to the store's
+ * file.  The file is append-only, each record is written as:
+ * <pre>
+ *     byte   trade category (CLOSED or FAILED)
+ *     varint TradeInfo size
+ *     byte[] TradeInfo, i.e., {@link TradeInfo#writeDelimitedTo(OutputStream)}
+ * </pre>
+ * A trade's last record is its current version.  The file is read into the indexes when the store is opened;  a
+ * record cut off by a crash ends the file, and is truncated.  The file is a cache of the daemon's trades, and is not
+ * forced to disk after each sync.  The store locks the file while it is open, so a second bot configured with the
+ * same file fails to start, instead of appending to it too.
+ * <p>
+ * Each closed trade stored, including those read from the file, updates the store's {@link TradeAnalytics}.
+ */
+@Slf4j
+class TradeStore {
+
+    private static final int MAX_TRADE_SIZE = 1024 * 1024;
+
+    @Nullable
+    private final OutputStream out;
+    private final Map<Category, TradeIndex> indexes = new EnumMap<>(Category.class);
+    private final TradeAnalytics closedTradeAnalytics = new TradeAnalytics();
+
+    private TradeStore(@Nullable OutputStream out) {
+        this.out = out;
+        indexes.put(CLOSED, new TradeIndex());
+        indexes.put(FAILED, new TradeIndex());
+    }
+
+    /**
+     * Returns a store kept in memory only, used when no trade store file is configured.
+     */
+    static TradeStore inMemory() {
+        return new TradeStore(null);
+    }
+
+    /**
+     * Open (or create) the trade store file at the given path, and index its trades.
+     *
+     * @param path of the trade store file
+     * @return TradeStore appending new and changed trades to the file
+     */
+    static TradeStore open(Path path) {
+        try {
+            var startTime = System.nanoTime();
+            // The channel, and its lock, are held until the bot exits.
+            var channel = FileChannel.open(path, CREATE, READ, WRITE);
+            lock(channel, path);
+            var records = new ArrayList<Map.Entry<Category, TradeInfo>>();
+            var validLength = read(channel, records);
+            if (channel.size() > validLength) {
+                log.warn("Truncating trade store {} after its last complete record, at byte {} of {}.",
+                        path.toAbsolutePath(),
+                        validLength,
+                        channel.size());
+                channel.truncate(validLength);
+            }
+            channel.position(validLength);
+            var store = new TradeStore(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            records.forEach(record -> store.put(record.getKey(), record.getValue()));
+            log.info("Loaded trade store {} in {} ms:  {} closed and {} failed trade(s).",
+                    path.toAbsolutePath(),
+                    (System.nanoTime() - startTime) / 1_000_000,
+                    store.indexes.get(CLOSED).tradesById.size(),
+                    store.indexes.get(FAILED).tradesById.size());
+            return store;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not open trade store " + path, ex);
+        }
+    }
+
+    /**
+     * Locks the whole trade store file, or throws an IllegalStateException if another process, or another store in
+     * this process, holds a lock on it.
+     */
+    private static void lock(FileChannel channel, Path path) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            lock = null;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Trade store " + path.toAbsolutePath() + " is in use by another bot.");
+        }
+    }
+
+    /**
+     * Reads the file's records from the start of the channel, and returns the length of the file's complete records.
+     */
+    private static long read(FileChannel channel, List<Map.Entry<Category, TradeInfo>> records) throws IOException {
+        long validLength = 0;
+        // Not closed, closing the stream would close the channel.
+        var in = new BufferedInputStream(Channels.newInputStream(channel.position(0)));
+        try {
+            int categoryNumber;
+            while ((categoryNumber = in.read()) != -1) {
+                var category = Category.forNumber(categoryNumber);
+                var firstSizeByte = in.read();
+                if (category == null || (category != CLOSED && category != FAILED) || firstSizeByte == -1)
+                    break;
+
+                var size = CodedInputStream.readRawVarint32(firstSizeByte, in);
+                if (size < 0 || size > MAX_TRADE_SIZE)
+                    break;
+
+                var bytes = in.readNBytes(size);
+                if (bytes.length < size)
+                    break;
+
+                records.add(Map.entry(category, TradeInfo.parseFrom(bytes)));
+                validLength += 1 + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+            }
+        } catch (IOException ex) {
+            // A record cut off in its size varint, or unparseable, ends the file.
+            log.debug("Trade store record after byte {} is not complete.", validLength, ex);
+        }
+        return validLength;
+    }
+
+    /**
+     * Adds the unseen and changed trades in a list of trades fetched from the API daemon to the store.
+     *
+     * @param category the trades' category, CLOSED or FAILED
+     * @param trades   the daemon's trades in the category
+     * @return the number of unseen and changed trades stored
+     */
+    synchronized int sync(Category category, List<TradeInfo> trades) {
+        var index = getIndex(category);
+        var numStored = 0;
+        for (var trade : trades) {
+            if (!isStateChanged(index.tradesById.get(trade.getTradeId()), trade))
+                continue;
+
+            put(category, trade);
+            write(category, trade);
+            numStored++;
+        }
+        flush();
+        return numStored;
+    }
+
+    /**
+     * Returns true if the trade is new, or its state changed since the stored version.  Other fields are not compared:
+     * a closed BSQ swap's number of confirmations grows with every block, and would otherwise append the trade to the
+     * file at every sync.
+     */
+    private static boolean isStateChanged(@Nullable TradeInfo stored, TradeInfo trade) {
+        return stored == null
+                || !stored.getState().equals(trade.getState())
+                || !stored.getPhase().equals(trade.getPhase())
+                || !stored.getClosingStatus().equals(trade.getClosingStatus())
+                || stored.getIsDepositPublished() != trade.getIsDepositPublished()
+                || stored.getIsDepositConfirmed() != trade.getIsDepositConfirmed()
+                || stored.getIsPaymentStartedMessageSent() != trade.getIsPaymentStartedMessageSent()
+                || stored.getIsPaymentReceivedMessageSent() != trade.getIsPaymentReceivedMessageSent()
+                || stored.getIsPayoutPublished() != trade.getIsPayoutPublished()
+                || stored.getIsCompleted() != trade.getIsCompleted()
+                || !stored.getPayoutTxId().equals(trade.getPayoutTxId());
+    }
+
+    /**
+     * Returns the trade with the given id, if it is stored.
+     */
+    synchronized Optional<TradeInfo> getTrade(Category category, String tradeId) {
+        return Optional.ofNullable(getIndex(category).tradesById.get(tradeId));
+    }
+
+    /**
+     * Returns the stored trades created at or after the given time, in date order.
+     *
+     * @param category the trades' category, CLOSED or FAILED
+     * @param fromDate the earliest trade date (epoch ms)
+     */
+    synchronized List<TradeInfo> getTradesSince(Category category, long fromDate) {
+        var index = getIndex(category);
+        var trades = new ArrayList<TradeInfo>();
+        index.tradeIdsByDate.tailMap(fromDate, true).values().forEach(tradeIds ->
+                tradeIds.forEach(tradeId -> trades.add(index.tradesById.get(tradeId))));
+        return trades;
+    }
+
+    /**
+     * Returns the stored trades in the given market, e.g., "BTC/EUR", in date order.
+     *
+     * @param category the trades' category, CLOSED or FAILED
+     * @param market   the trades' base and counter currency codes, separated by a slash
+     */
+    synchronized List<TradeInfo> getTradesInMarket(Category category, String market) {
+        var index = getIndex(category);
+        var trades = new ArrayList<TradeInfo>();
+        index.tradeIdsByMarket.getOrDefault(market, Set.of()).forEach(tradeId ->
+                trades.add(index.tradesById.get(tradeId)));
+        trades.sort(Comparator.comparingLong(TradeInfo::getDate));
+        return trades;
+    }
+
+    /**
+     * Returns the number of stored trades in the category.
+     */
+    synchronized int size(Category category) {
+        return getIndex(category).tradesById.size();
+    }
+
+    /**
+     * Returns the running aggregates of the stored closed trades.
+     */
+    TradeAnalytics getClosedTradeAnalytics() {
+        return closedTradeAnalytics;
+    }
+
+    private void put(Category category, TradeInfo trade) {
+        var previous = getIndex(category).put(trade);
+        if (category == CLOSED)
+            closedTradeAnalytics.update(previous, trade);
+    }
+
+    private TradeIndex getIndex(Category category) {
+        var index = indexes.get(category);
+        if (index == null)
+            throw new IllegalArgumentException("The trade store does not hold " + category + " trades.");
+
+        return index;
+    }
+
+    private void write(Category category, TradeInfo trade) {
+        if (out == null)
+            return;
+
+        try {
+            out.write(category.getNumber());
+            trade.writeDelimitedTo(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write trade " + trade.getTradeId() + " to the trade store.", ex);
+        }
+    }
+
+    private void flush() {
+        if (out == null)
+            return;
+
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write to the trade store.", ex);
+        }
+    }
+
+    static String toMarket(TradeInfo trade) {
+        return trade.getOffer().getBaseCurrencyCode() + "/" + trade.getOffer().getCounterCurrencyCode();
+    }
+
+    /**
+     * A category's trades, by trade id, and their ids by date and market.
+     */
+    private static final class TradeIndex {
+        private final Map<String, TradeInfo> tradesById = new HashMap<>();
+        private final NavigableMap<Long, Set<String>> tradeIdsByDate = new TreeMap<>();
+        private final Map<String, Set<String>> tradeIdsByMarket = new HashMap<>();
+
+        /**
+         * Indexes the trade, and returns its previous version, or null if the trade is new.
+         */
+        @Nullable
+        TradeInfo put(TradeInfo trade) {
+            var tradeId = trade.getTradeId();
+            var previous = tradesById.put(tradeId, trade);
+            if (previous != null) {
+                remove(tradeIdsByDate, previous.getDate(), tradeId);
+                remove(tradeIdsByMarket, toMarket(previous), tradeId);
+            }
+            tradeIdsByDate.computeIfAbsent(trade.getDate(), date -> new LinkedHashSet<>()).add(tradeId);
+            tradeIdsByMarket.computeIfAbsent(toMarket(trade), market -> new LinkedHashSet<>()).add(tradeId);
+            return previous;
+        }
+
+        private static <K> void remove(Map<K, Set<String>> tradeIdsByKey, K key, String tradeId) {
+            var tradeIds = tradeIdsByKey.get(key);
+            if (tradeIds != null && tradeIds.remove(tradeId) && tradeIds.isEmpty())
+                tradeIdsByKey.remove(key);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+package bisq.bots.jfr;
+
+import bisq.proto.grpc.OfferInfo;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of the JDK Flight Recorder events emitted at the phase boundaries of a bot's poll loop, so a running
+ * bot can be profiled continuously, and GC or safepoint pauses can be correlated with missed offers.
+ * <p>
+ * The events are enabled by default, but are only recorded while a recording is running, e.g., when the bot is
+ * started with {@code java -XX:StartFlightRecording=filename=bot.jfr,settings=profile -jar ...}.  Stack traces
+ * are not recorded, to keep the overhead of each event negligible.
+ */
+@Category({"Bisq", "Bot"})
+@StackTrace(false)
+public abstract class BotPhaseEvent extends Event {
+
+    @Label("Offer Id")
+    @Description("The offer being evaluated or taken, if the phase concerns a single offer")
+    protected String offerId;
+
+    @Label("Currency")
+    @Description("The trade currency code (not BTC) of the offers in this phase")
+    protected String currency;
+
+    @Label("Outcome")
+    @Description("The result of the phase, e.g., the # of offers returned, or whether an offer was taken")
+    protected String outcome;
+
+    /**
+     * Set the event's offer id, and the offer's trade currency code.
+     */
+    public void setOffer(OfferInfo offer) {
+        this.offerId = offer.getId();
+        this.currency = offer.getBaseCurrencyCode().equals("BTC")
+                ? offer.getCounterCurrencyCode()
+                : offer.getBaseCurrencyCode();
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * End the event with the given outcome, and commit it if it is enabled and a recording is running.
+     */
+    public void commit(String outcome) {
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
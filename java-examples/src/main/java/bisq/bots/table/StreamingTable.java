@@ -0,0 +1,205 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots.table;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import static bisq.bots.table.column.Column.JUSTIFICATION.RIGHT;
+import static java.lang.String.format;
+
+/**
+ * A table written row by row from an Iterator of protobuf messages, for tables too long to be held in memory at
+ * once, e.g., an account's full closed trade history.
+ * <p>
+ * Rows are read in chunks of at most {@code chunkSize} messages, and each chunk is built into a {@link Table} by the
+ * table type's builder, so values are formatted exactly as in a Table.  The column widths are set before the first
+ * row is written:  each column is as wide as the table type's fixed width for it, e.g., the width of any ISO-8601
+ * date, or of any BTC amount, or as the column in the first chunk, a bounded sample of the rows, if that is wider.
+ * Every value is justified in its column's width, and a value wider than its column, e.g., an unusually long
+ * payment currency code in a later chunk, is clipped to the width, so no row is shifted out of alignment.  Values in
+ * the last column are not clipped.  Memory use depends on the chunk size, not on the number of rows.
+ * <p>
+ * The Iterator is consumed as the table is written, so a streaming table can be written only once.
+ */
+public class StreamingTable {
+
+    private final Iterator<?> protos;
+    private final Function<List<?>, Table> chunkBuilder;
+    private final int[] fixedWidths;
+    private final int chunkSize;
+    private final String lineSeparator = System.lineSeparator();
+
+    /**
+     * @param protos       the protobuf messages, one per row
+     * @param chunkBuilder builds a Table from a chunk of messages
+     * @param fixedWidths  the least width of each column, or 0 where the column's width is only sampled
+     * @param chunkSize    the most messages built into a Table at once, and the size of the column width sample
+     */
+    public StreamingTable(Iterator<?> protos, Function<List<?>, Table> chunkBuilder, int[] fixedWidths, int chunkSize) {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("chunk size must be at least 1");
+
+        this.protos = protos;
+        this.chunkBuilder = chunkBuilder;
+        this.fixedWidths = fixedWidths;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Print table data to a PrintStream.
+     *
+     * @param printStream the target output stream
+     * @return the number of rows printed;  nothing is printed if there are no rows
+     */
+    public long print(PrintStream printStream) {
+        var rowCount = writeTo(printStream);
+        printStream.flush();
+        return rowCount;
+    }
+
+    /**
+     * Append table data to a StringBuilder.
+     *
+     * @param stringBuilder the target StringBuilder
+     * @return the number of rows appended;  nothing is appended if there are no rows
+     */
+    public long appendTo(StringBuilder stringBuilder) {
+        return writeTo(stringBuilder);
+    }
+
+    /**
+     * Write table data to an Appendable, e.g., a Writer, one line at a time.
+     *
+     * @param appendable the target Appendable
+     * @return the number of rows written;  nothing is written if there are no rows
+     * @throws UncheckedIOException if the target Appendable throws an IOException
+     */
+    public long writeTo(Appendable appendable) {
+        try {
+            return render(appendable);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private long render(Appendable appendable) throws IOException {
+        var chunk = nextChunk();
+        if (chunk.isEmpty())
+            return 0;
+
+        // The first chunk sets the column names, and the widths of columns without a wider fixed width.
+        var sample = chunkBuilder.apply(chunk);
+        var widths = toWidths(sample);
+        var paddedWidths = sample.getPaddedWidths(widths);
+        var line = new StringBuilder(sample.getLineLength(paddedWidths));
+        sample.appendColumnNames(line, widths);
+        Table.appendLine(appendable, line);
+
+        long rowCount = 0;
+        var table = sample;
+        while (true) {
+            appendRows(appendable, line, table, widths, paddedWidths);
+            rowCount += table.rowCount;
+
+            chunk = nextChunk();
+            if (chunk.isEmpty())
+                return rowCount;
+
+            table = chunkBuilder.apply(chunk);
+            if (table.columns.length != sample.columns.length)
+                throw new IllegalStateException(format("Table chunk has %d columns, expected %d.",
+                        table.columns.length,
+                        sample.columns.length));
+        }
+    }
+
+    private int[] toWidths(Table sample) {
+        if (fixedWidths.length != sample.columns.length)
+            throw new IllegalStateException(format("Table has %d columns, but %d fixed column widths.",
+                    sample.columns.length,
+                    fixedWidths.length));
+
+        var widths = sample.getWidths();
+        for (int colIndex = 0; colIndex < widths.length; colIndex++) {
+            widths[colIndex] = Math.max(widths[colIndex], fixedWidths[colIndex]);
+        }
+        return widths;
+    }
+
+    /**
+     * Read the next chunk of messages, which is empty if all messages have been read.
+     */
+    private List<?> nextChunk() {
+        var chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && protos.hasNext()) {
+            chunk.add(protos.next());
+        }
+        return chunk;
+    }
+
+    /**
+     * Append the chunk table's rows to the target, in the given column widths.  Values were padded with spaces to the
+     * chunk table's column widths, which are removed, and the values justified again in the given widths.
+     */
+    private void appendRows(Appendable appendable,
+                            StringBuilder line,
+                            Table table,
+                            int[] widths,
+                            int[] paddedWidths) throws IOException {
+        var lastColIndex = table.columns.length - 1;
+        for (int rowIndex = 0; rowIndex < table.rowCount; rowIndex++) {
+            for (int colIndex = 0; colIndex <= lastColIndex; colIndex++) {
+                var column = table.columns[colIndex];
+                var value = String.valueOf(column.getRow(rowIndex));
+                var isRightJustified = column.getJustification().equals(RIGHT);
+                var start = 0;
+                var end = value.length();
+                if (isRightJustified) {
+                    while (start < end && value.charAt(start) == ' ') {
+                        start++;
+                    }
+                } else {
+                    while (end > start && value.charAt(end - 1) == ' ') {
+                        end--;
+                    }
+                }
+                if (colIndex < lastColIndex)
+                    end = Math.min(end, start + widths[colIndex]);
+
+                var lineLength = line.length();
+                if (isRightJustified) {
+                    for (int i = end - start; i < widths[colIndex]; i++) {
+                        line.append(' ');
+                    }
+                }
+                line.append(value, start, end);
+                for (int i = line.length() - lineLength; i < paddedWidths[colIndex]; i++) {
+                    line.append(' ');
+                }
+            }
+            line.append(lineSeparator);
+            Table.appendLine(appendable, line);
+        }
+    }
+}
@@ -19,14 +19,14 @@ package bisq.bots.table;
 
 import bisq.bots.table.column.Column;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.util.stream.IntStream;
 
 import static bisq.bots.table.column.Column.JUSTIFICATION.RIGHT;
 import static com.google.common.base.Strings.padStart;
 import static java.lang.String.format;
-import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * A simple table of formatted data for the CLI's output console.  A table must be
@@ -48,6 +48,7 @@ public class Table {
 
     // Each printed column is delimited by two spaces.
     private final int columnDelimiterLength = 2;
+    private final String lineSeparator = System.lineSeparator();
 
     /**
      * Default constructor.  Takes populated Columns.
@@ -66,46 +67,143 @@ public class Table {
      * @param printStream the target output stream
      */
     public void print(PrintStream printStream) {
-        printColumnNames(printStream);
+        writeTo(printStream);
+        printStream.flush();
+    }
+
+    /**
+     * Append table data to a StringBuilder, which can be reused to render the table without allocating a new buffer.
+     *
+     * @param stringBuilder the target StringBuilder
+     * @return the given StringBuilder
+     */
+    public StringBuilder appendTo(StringBuilder stringBuilder) {
+        writeTo(stringBuilder);
+        return stringBuilder;
+    }
+
+    /**
+     * Write table data to an Appendable, e.g., a Writer, in one pass.  Each line is rendered into a line buffer
+     * reused for all lines, and appended to the target in one call.  A StringBuilder target is rendered into
+     * directly.
+     *
+     * @param appendable the target Appendable
+     * @throws UncheckedIOException if the target Appendable throws an IOException
+     */
+    public void writeTo(Appendable appendable) {
+        try {
+            render(appendable);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void render(Appendable appendable) throws IOException {
+        var paddedWidths = getPaddedWidths();
+        var line = appendable instanceof StringBuilder stringBuilder
+                ? stringBuilder
+                : new StringBuilder(getLineLength(paddedWidths));
+        appendColumnNames(line);
+        appendLine(appendable, line);
         for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
-            printRow(printStream, rowIndex);
+            for (int colIndex = 0; colIndex < columns.length; colIndex++) {
+                appendPadded(line, String.valueOf(columns[colIndex].getRow(rowIndex)), paddedWidths[colIndex]);
+            }
+            line.append(lineSeparator);
+            appendLine(appendable, line);
+        }
+    }
+
+    /**
+     * Returns the width each column's values are padded to with trailing spaces:  the column's width, plus the
+     * column delimiter, except in the last column.  Widths are looked up once per column, not once per cell.
+     */
+    int[] getPaddedWidths() {
+        return getPaddedWidths(getWidths());
+    }
+
+    /**
+     * Returns the width each column's values are padded to, if the columns had the given widths.
+     */
+    int[] getPaddedWidths(int[] widths) {
+        var lastColIndex = columns.length - 1;
+        var paddedWidths = new int[columns.length];
+        for (int colIndex = 0; colIndex < columns.length; colIndex++) {
+            var width = widths[colIndex];
+            paddedWidths[colIndex] = colIndex == lastColIndex ? width : width + columnDelimiterLength;
+        }
+        return paddedWidths;
+    }
+
+    /**
+     * Returns the columns' widths.
+     */
+    int[] getWidths() {
+        var widths = new int[columns.length];
+        for (int colIndex = 0; colIndex < columns.length; colIndex++) {
+            widths[colIndex] = columns[colIndex].getWidth();
         }
+        return widths;
     }
 
     /**
-     * Print table column names to a PrintStream.
+     * Returns the length of a line of values padded to the given widths, including the line separator.
+     */
+    int getLineLength(int[] paddedWidths) {
+        var lineLength = lineSeparator.length();
+        for (var paddedWidth : paddedWidths) {
+            lineLength += paddedWidth;
+        }
+        return lineLength;
+    }
+
+    /**
+     * Append table column names to the line buffer.
      *
-     * @param printStream the target output stream
+     * @param line the line buffer
      */
-    private void printColumnNames(PrintStream printStream) {
-        IntStream.range(0, columns.length).forEachOrdered(colIndex -> {
+    void appendColumnNames(StringBuilder line) {
+        appendColumnNames(line, getWidths());
+    }
+
+    /**
+     * Append table column names to the line buffer, justified in the given column widths.
+     *
+     * @param line   the line buffer
+     * @param widths the width of each column
+     */
+    void appendColumnNames(StringBuilder line, int[] widths) {
+        for (int colIndex = 0; colIndex < columns.length; colIndex++) {
             var c = columns[colIndex];
             var justifiedName = c.getJustification().equals(RIGHT)
-                    ? padStart(c.getName(), c.getWidth(), ' ')
+                    ? padStart(c.getName(), widths[colIndex], ' ')
                     : c.getName();
             var paddedWidth = colIndex == columns.length - 1
                     ? c.getName().length()
-                    : c.getWidth() + columnDelimiterLength;
-            printStream.printf("%-" + paddedWidth + "s", justifiedName);
-        });
-        printStream.println();
+                    : widths[colIndex] + columnDelimiterLength;
+            appendPadded(line, justifiedName, paddedWidth);
+        }
+        line.append(lineSeparator);
     }
 
     /**
-     * Print a table row to a PrintStream.
-     *
-     * @param printStream the target output stream
+     * Append the line buffer to the target, and clear it, unless the target is the line buffer.
      */
-    private void printRow(PrintStream printStream, int rowIndex) {
-        IntStream.range(0, columns.length).forEachOrdered(colIndex -> {
-            var c = columns[colIndex];
-            var paddedWidth = colIndex == columns.length - 1
-                    ? c.getWidth()
-                    : c.getWidth() + columnDelimiterLength;
-            printStream.printf("%-" + paddedWidth + "s", c.getRow(rowIndex));
-            if (colIndex == columns.length - 1)
-                printStream.println();
-        });
+    static void appendLine(Appendable appendable, StringBuilder line) throws IOException {
+        if (line != appendable) {
+            appendable.append(line);
+            line.setLength(0);
+        }
+    }
+
+    /**
+     * Append the value to the line buffer, left justified in the given width, like a "%-{width}s" format specifier.
+     */
+    static void appendPadded(StringBuilder line, String value, int width) {
+        line.append(value);
+        for (int i = value.length(); i < width; i++) {
+            line.append(' ');
+        }
     }
 
     /**
@@ -115,11 +213,7 @@ public class Table {
      */
     @Override
     public String toString() {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (PrintStream ps = new PrintStream(baos, true, UTF_8)) {
-            print(ps);
-        }
-        return baos.toString();
+        return appendTo(new StringBuilder()).toString();
     }
 
     /**
@@ -30,7 +30,6 @@ import java.util.stream.Collectors;
 import static bisq.bots.table.builder.TableBuilderConstants.*;
 import static bisq.bots.table.builder.TableType.OFFER_TBL;
 import static bisq.bots.table.column.Column.JUSTIFICATION.*;
-import static bisq.bots.table.column.ZippedStringColumns.DUPLICATION_MODE.EXCLUDE_DUPLICATES;
 import static java.lang.String.format;
 import static protobuf.OfferDirection.BUY;
 import static protobuf.OfferDirection.SELL;
@@ -44,8 +43,7 @@ class OfferTableBuilder extends AbstractTableBuilder {
     // Columns common to both fiat and cryptocurrency offers.
     private final Column<String> colOfferId = new StringColumn(COL_HEADER_UUID, LEFT);
     private final Column<String> colDirection = new StringColumn(COL_HEADER_DIRECTION, LEFT);
-    private final Column<Long> colAmount = new SatoshiColumn("Temp Amount", NONE);
-    private final Column<Long> colMinAmount = new SatoshiColumn("Temp Min Amount", NONE);
+    private final RangeColumn colAmountRange = new RangeColumn(COL_HEADER_AMOUNT_RANGE, RIGHT, " - ");
     private final Column<String> colPaymentMethod = new StringColumn(COL_HEADER_PAYMENT_METHOD, LEFT);
     private final Column<Long> colCreateDate = new Iso8601DateTimeColumn(COL_HEADER_CREATION_DATE);
 
@@ -65,8 +63,9 @@ class OfferTableBuilder extends AbstractTableBuilder {
         @Nullable
         Column<String> colEnabled = enabledColumn.get(); // Not boolean: "YES", "NO", or "PENDING"
         Column<String> colFiatPrice = new StringColumn(format(COL_HEADER_DETAILED_PRICE, fiatTradeCurrency.get()), RIGHT);
-        Column<String> colVolume = new StringColumn(format("Temp Volume (%s)", fiatTradeCurrency.get()), NONE);
-        Column<String> colMinVolume = new StringColumn(format("Temp Min Volume (%s)", fiatTradeCurrency.get()), NONE);
+        RangeColumn colVolumeRange = new RangeColumn(format(COL_HEADER_VOLUME_RANGE, fiatTradeCurrency.get()),
+                RIGHT,
+                " - ");
         @Nullable
         Column<String> colTriggerPrice = fiatTriggerPriceColumn.get();
 
@@ -78,10 +77,8 @@ class OfferTableBuilder extends AbstractTableBuilder {
 
             colDirection.addRow(o.getDirection());
             colFiatPrice.addRow(o.getPrice());
-            colMinAmount.addRow(o.getMinAmount());
-            colAmount.addRow(o.getAmount());
-            colVolume.addRow(o.getVolume());
-            colMinVolume.addRow(o.getMinVolume());
+            colAmountRange.addRow(o.getMinAmount(), o.getAmount());
+            colVolumeRange.addRow(o.getMinVolume(), o.getVolume());
 
             if (colTriggerPrice != null)
                 colTriggerPrice.addRow(toBlankOrNonZeroValue.apply(o.getTriggerPrice()));
@@ -91,22 +88,14 @@ class OfferTableBuilder extends AbstractTableBuilder {
             colOfferId.addRow(o.getId());
         });
 
-        ZippedStringColumns amountRange = zippedAmountRangeColumns.get();
-        ZippedStringColumns volumeRange =
-                new ZippedStringColumns(format(COL_HEADER_VOLUME_RANGE, fiatTradeCurrency.get()),
-                        RIGHT,
-                        " - ",
-                        colMinVolume.asStringColumn(),
-                        colVolume.asStringColumn());
-
         // Define and return the table instance with populated columns.
 
         if (isShowingMyOffers.get()) {
             return new Table(colEnabled.asStringColumn(),
                     colDirection,
                     colFiatPrice.justify(),
-                    amountRange.asStringColumn(EXCLUDE_DUPLICATES),
-                    volumeRange.asStringColumn(EXCLUDE_DUPLICATES),
+                    colAmountRange.asStringColumn(),
+                    colVolumeRange.asStringColumn(),
                     colTriggerPrice.justify(),
                     colPaymentMethod,
                     colCreateDate.asStringColumn(),
@@ -114,8 +103,8 @@ class OfferTableBuilder extends AbstractTableBuilder {
         } else {
             return new Table(colDirection,
                     colFiatPrice.justify(),
-                    amountRange.asStringColumn(EXCLUDE_DUPLICATES),
-                    volumeRange.asStringColumn(EXCLUDE_DUPLICATES),
+                    colAmountRange.asStringColumn(),
+                    colVolumeRange.asStringColumn(),
                     colPaymentMethod,
                     colCreateDate.asStringColumn(),
                     colOfferId);
@@ -127,8 +116,9 @@ class OfferTableBuilder extends AbstractTableBuilder {
         @Nullable
         Column<String> colEnabled = enabledColumn.get(); // Not boolean: YES, NO, or PENDING
         Column<String> colBtcPrice = new StringColumn(format(COL_HEADER_DETAILED_PRICE_OF_ALTCOIN, altcoinTradeCurrency.get()), RIGHT);
-        Column<String> colVolume = new StringColumn(format("Temp Volume (%s)", altcoinTradeCurrency.get()), NONE);
-        Column<String> colMinVolume = new StringColumn(format("Temp Min Volume (%s)", altcoinTradeCurrency.get()), NONE);
+        RangeColumn colVolumeRange = new RangeColumn(format(COL_HEADER_VOLUME_RANGE, altcoinTradeCurrency.get()),
+                RIGHT,
+                " - ");
         @Nullable
         Column<String> colTriggerPrice = altcoinTriggerPriceColumn.get();
 
@@ -140,10 +130,8 @@ class OfferTableBuilder extends AbstractTableBuilder {
 
             colDirection.addRow(directionFormat.apply(o));
             colBtcPrice.addRow(o.getPrice());
-            colAmount.addRow(o.getAmount());
-            colMinAmount.addRow(o.getMinAmount());
-            colVolume.addRow(o.getVolume());
-            colMinVolume.addRow(o.getMinVolume());
+            colAmountRange.addRow(o.getMinAmount(), o.getAmount());
+            colVolumeRange.addRow(o.getMinVolume(), o.getVolume());
 
             if (colTriggerPrice != null)
                 colTriggerPrice.addRow(toBlankOrNonZeroValue.apply(o.getTriggerPrice()));
@@ -153,14 +141,6 @@ class OfferTableBuilder extends AbstractTableBuilder {
             colOfferId.addRow(o.getId());
         });
 
-        ZippedStringColumns amountRange = zippedAmountRangeColumns.get();
-        ZippedStringColumns volumeRange =
-                new ZippedStringColumns(format(COL_HEADER_VOLUME_RANGE, altcoinTradeCurrency.get()),
-                        RIGHT,
-                        " - ",
-                        colMinVolume.asStringColumn(),
-                        colVolume.asStringColumn());
-
         // Define and return the table instance with populated columns.
 
         if (isShowingMyOffers.get()) {
@@ -168,8 +148,8 @@ class OfferTableBuilder extends AbstractTableBuilder {
                 return new Table(colEnabled.asStringColumn(),
                         colDirection,
                         colBtcPrice.justify(),
-                        amountRange.asStringColumn(EXCLUDE_DUPLICATES),
-                        volumeRange.asStringColumn(EXCLUDE_DUPLICATES),
+                        colAmountRange.asStringColumn(),
+                        colVolumeRange.asStringColumn(),
                         colPaymentMethod,
                         colCreateDate.asStringColumn(),
                         colOfferId);
@@ -177,8 +157,8 @@ class OfferTableBuilder extends AbstractTableBuilder {
                 return new Table(colEnabled.asStringColumn(),
                         colDirection,
                         colBtcPrice.justify(),
-                        amountRange.asStringColumn(EXCLUDE_DUPLICATES),
-                        volumeRange.asStringColumn(EXCLUDE_DUPLICATES),
+                        colAmountRange.asStringColumn(),
+                        colVolumeRange.asStringColumn(),
                         colTriggerPrice.justify(),
                         colPaymentMethod,
                         colCreateDate.asStringColumn(),
@@ -187,8 +167,8 @@ class OfferTableBuilder extends AbstractTableBuilder {
         } else {
             return new Table(colDirection,
                     colBtcPrice.justify(),
-                    amountRange.asStringColumn(EXCLUDE_DUPLICATES),
-                    volumeRange.asStringColumn(EXCLUDE_DUPLICATES),
+                    colAmountRange.asStringColumn(),
+                    colVolumeRange.asStringColumn(),
                     colPaymentMethod,
                     colCreateDate.asStringColumn(),
                     colOfferId);
@@ -245,15 +225,4 @@ class OfferTableBuilder extends AbstractTableBuilder {
                     o.getCounterCurrencyCode());
         }
     };
-
-    private final Supplier<ZippedStringColumns> zippedAmountRangeColumns = () -> {
-        if (colMinAmount.isEmpty() || colAmount.isEmpty())
-            throw new IllegalStateException("amount columns must have data");
-
-        return new ZippedStringColumns(COL_HEADER_AMOUNT_RANGE,
-                RIGHT,
-                " - ",
-                colMinAmount.asStringColumn(),
-                colAmount.asStringColumn());
-    };
 }
@@ -0,0 +1,127 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots.table.builder;
+
+import bisq.bots.table.Table;
+import bisq.bots.table.column.Column;
+import bisq.bots.table.column.StringColumn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static java.lang.String.format;
+
+/**
+ * Parallel table builder factory, for tables of many rows, e.g., an account's trade history for an audit report.
+ * <p>
+ * The protobuf message list is split into chunks of at most {@code chunkSize} messages, and the chunks are built into
+ * tables on the common fork-join pool, by the table type's builder, so each chunk's values are formatted, and its
+ * column widths computed, on its own thread.  The chunk tables' columns are then merged in order, and justified to
+ * the widest chunk's widths, see {@link StringColumn#merge(List)}.  The table is the same as a table built by a
+ * {@link TableBuilder}.  Lists of no more than {@code chunkSize} messages, and single message table types, are built
+ * on the calling thread.
+ */
+public class ParallelTableBuilder extends AbstractTableBuilder {
+
+    // The most rows built into a table by one thread.
+    public static final int DEFAULT_CHUNK_SIZE = 2_000;
+
+    private final int chunkSize;
+
+    public ParallelTableBuilder(TableType tableType, List<?> protos) {
+        this(tableType, protos, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelTableBuilder(TableType tableType, List<?> protos, int chunkSize) {
+        super(tableType, protos);
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("chunk size must be at least 1");
+
+        this.chunkSize = chunkSize;
+    }
+
+    public Table build() {
+        switch (tableType) {
+            case ADDRESS_BALANCE_TBL:
+            case CLOSED_TRADES_TBL:
+            case FAILED_TRADES_TBL:
+            case OFFER_TBL:
+            case OPEN_TRADES_TBL:
+            case PAYMENT_ACCOUNT_TBL:
+                return protos.size() > chunkSize
+                        ? buildInParallel()
+                        : new TableBuilder(tableType, protos).build();
+            default:
+                return new TableBuilder(tableType, protos).build();
+        }
+    }
+
+    private Table buildInParallel() {
+        var numChunks = (protos.size() + chunkSize - 1) / chunkSize;
+        var chunkTables = IntStream.range(0, numChunks)
+                .parallel()
+                .mapToObj(this::buildChunk)
+                .toList();
+
+        var numColumns = chunkTables.get(0).columns.length;
+        var columns = new Column<?>[numColumns];
+        for (int colIndex = 0; colIndex < numColumns; colIndex++) {
+            var chunkColumns = new StringColumn[numChunks];
+            for (int chunkIndex = 0; chunkIndex < numChunks; chunkIndex++) {
+                var chunkTable = chunkTables.get(chunkIndex);
+                if (chunkTable.columns.length != numColumns)
+                    throw new IllegalStateException(format("Table chunk has %d columns, expected %d.",
+                            chunkTable.columns.length,
+                            numColumns));
+
+                if (!(chunkTable.columns[colIndex] instanceof StringColumn stringColumn))
+                    throw new IllegalStateException(format("Table column # %d (%s) is not a string column.",
+                            colIndex + 1,
+                            chunkTable.columns[colIndex].getName()));
+
+                chunkColumns[chunkIndex] = stringColumn;
+            }
+            columns[colIndex] = StringColumn.merge(List.of(chunkColumns));
+        }
+        return new Table(columns);
+    }
+
+    /**
+     * Builders choose a table's columns, and their headers, from the first message in the list, e.g., an offer table
+     * has trigger price columns only if the first offer is the user's.  Every chunk but the first is built with the
+     * list's first message prepended, so all chunks have the columns a {@link TableBuilder} would choose, and that
+     * extra row is removed before the chunks are merged.  The first message is also in the first chunk, so it does
+     * not widen the merged columns.
+     */
+    private Table buildChunk(int chunkIndex) {
+        var fromIndex = chunkIndex * chunkSize;
+        var toIndex = Math.min(fromIndex + chunkSize, protos.size());
+        if (chunkIndex == 0)
+            return new TableBuilder(tableType, protos.subList(fromIndex, toIndex)).build();
+
+        var chunk = new ArrayList<Object>(toIndex - fromIndex + 1);
+        chunk.add(protos.get(0));
+        chunk.addAll(protos.subList(fromIndex, toIndex));
+        var table = new TableBuilder(tableType, chunk).build();
+        for (var column : table.columns)
+            column.getRows().remove(0);
+
+        return new Table(table.columns);
+    }
+}
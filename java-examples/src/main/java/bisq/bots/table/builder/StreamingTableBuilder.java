@@ -0,0 +1,78 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots.table.builder;
+
+import bisq.bots.table.StreamingTable;
+
+import java.util.Iterator;
+
+/**
+ * Streaming table builder factory, for tables written row by row from an Iterator of protobuf messages, instead of
+ * being built in memory.  See {@link StreamingTable}.
+ */
+public class StreamingTableBuilder {
+
+    // The number of rows built into a Table at once, and sampled for column widths.
+    public static final int DEFAULT_CHUNK_SIZE = 100;
+
+    // The widest values of the closed trades table's bounded columns, in ClosedTradeTableBuilder's column order.
+    // Bisq trade ids are an offer id:  a 5 to 8 character prefix, a UUID, and the version.  BTC amounts are at most
+    // 21,000,000.00000000.  Text columns are sampled.
+    private static final int[] CLOSED_TRADES_TBL_WIDTHS = {
+            49, // Trade ID
+            20, // Date/Time (UTC), e.g., 2022-06-15T14:32:05Z
+            0,  // Market
+            0,  // Price
+            0,  // Deviation
+            19, // Amount in BTC
+            0,  // Amount
+            0,  // Currency
+            19, // Tx Fee (BTC)
+            23, // Trade Fee, in BTC or BSQ
+            19, // Buyer Deposit (BTC)
+            19, // Seller Deposit (BTC)
+            0,  // Offer Type
+            0   // Status
+    };
+
+    private final TableType tableType;
+    private final Iterator<?> protos;
+    private final int chunkSize;
+
+    public StreamingTableBuilder(TableType tableType, Iterator<?> protos) {
+        this(tableType, protos, DEFAULT_CHUNK_SIZE);
+    }
+
+    public StreamingTableBuilder(TableType tableType, Iterator<?> protos, int chunkSize) {
+        this.tableType = tableType;
+        this.protos = protos;
+        this.chunkSize = chunkSize;
+    }
+
+    public StreamingTable build() {
+        switch (tableType) {
+            case CLOSED_TRADES_TBL:
+                return new StreamingTable(protos,
+                        chunk -> new ClosedTradeTableBuilder(chunk).build(),
+                        CLOSED_TRADES_TBL_WIDTHS,
+                        chunkSize);
+            default:
+                throw new IllegalArgumentException("cannot stream cli table type " + tableType.name());
+        }
+    }
+}
@@ -26,11 +26,6 @@ import static com.google.common.base.Strings.padStart;
  */
 abstract class AbstractColumn<C extends Column<T>, T> implements Column<T> {
 
-    // We create an encapsulated StringColumn up front to populate with formatted
-    // strings in each this.addRow(Long value) call.  But we will not know how
-    // to justify the cached, formatted string until the column is fully populated.
-    protected final StringColumn stringColumn;
-
     // The name field is not final, so it can be re-set for column alignment.
     protected String name;
     protected final JUSTIFICATION justification;
@@ -40,7 +35,6 @@ abstract class AbstractColumn<C extends Column<T>, T> implements Column<T> {
     public AbstractColumn(String name, JUSTIFICATION justification) {
         this.name = name;
         this.justification = justification;
-        this.stringColumn = this instanceof StringColumn ? null : new StringColumn(name, justification);
     }
 
     @Override
@@ -71,6 +65,17 @@ abstract class AbstractColumn<C extends Column<T>, T> implements Column<T> {
             return this; // no-op
     }
 
+    /**
+     * Returns a new, empty StringColumn with this column's name and justification.
+     * <p>
+     * Columns create their StringColumn when asStringColumn() is called, and populate it with their formatted
+     * values then, instead of caching a formatted string for each row as rows are added, because we will not know
+     * how to justify the formatted strings until the column is fully populated.
+     */
+    protected StringColumn newStringColumn() {
+        return new StringColumn(name, justification);
+    }
+
     protected final String toJustifiedString(String s) {
         switch (justification) {
             case LEFT:
@@ -48,31 +48,34 @@ public class AltcoinVolumeColumn extends LongColumn {
     }
 
     @Override
-    public void addRow(Long value) {
-        rows.add(value);
+    public void addRow(long value) {
+        appendRow(value);
 
         String s = toFormattedString.apply(value, displayMode);
-        stringColumn.addRow(s);
-
         if (isNewMaxWidth.test(s))
             maxWidth = s.length();
     }
 
     @Override
     public String getRowAsFormattedString(int rowIndex) {
-        return toFormattedString.apply(getRow(rowIndex), displayMode);
+        return toFormattedString.apply(getLongRow(rowIndex), displayMode);
     }
 
     @Override
     public StringColumn asStringColumn() {
-        // We cached the formatted altcoin value strings, but we did
-        // not know how much padding each string needed until now.
+        StringColumn stringColumn = newStringColumn();
+        IntStream.range(0, numRows).forEachOrdered(rowIndex -> {
+            long value = getLongRow(rowIndex);
+            stringColumn.addRow(toFormattedString.apply(value, displayMode));
+        });
+
+        // We did not know how much padding each formatted altcoin value string needed until now.
         IntStream.range(0, stringColumn.getRows().size()).forEach(rowIndex -> {
             String unjustified = stringColumn.getRow(rowIndex);
             String justified = stringColumn.toJustifiedString(unjustified);
             stringColumn.updateRow(rowIndex, justified);
         });
-        return this.stringColumn;
+        return stringColumn;
     }
 
     private final BiFunction<Long, DISPLAY_MODE, String> toFormattedString = (value, displayMode) -> {
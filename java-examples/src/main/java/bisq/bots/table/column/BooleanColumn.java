@@ -73,10 +73,7 @@ public class BooleanColumn extends AbstractColumn<BooleanColumn, Boolean> {
     public void addRow(Boolean value) {
         rows.add(value);
 
-        // We do not know how much padding each StringColumn value needs until it has all the values.
         String s = asString(value);
-        stringColumn.addRow(s);
-
         if (isNewMaxWidth.test(s))
             maxWidth = s.length();
     }
@@ -115,8 +112,10 @@ public class BooleanColumn extends AbstractColumn<BooleanColumn, Boolean> {
 
     @Override
     public StringColumn asStringColumn() {
-        // We cached the formatted satoshi strings, but we did
-        // not know how much padding each string needed until now.
+        StringColumn stringColumn = newStringColumn();
+        rows.forEach(value -> stringColumn.addRow(asString(value)));
+
+        // We did not know how much padding each string needed until now.
         IntStream.range(0, stringColumn.getRows().size()).forEach(rowIndex -> {
             String unjustified = stringColumn.getRow(rowIndex);
             String justified = stringColumn.toJustifiedString(unjustified);
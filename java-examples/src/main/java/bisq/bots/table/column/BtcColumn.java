@@ -13,25 +13,26 @@ public class BtcColumn extends SatoshiColumn {
     }
 
     @Override
-    public void addRow(Long value) {
-        rows.add(value);
+    public void addRow(long value) {
+        appendRow(value);
 
         String s = formatBtc(value);
-        stringColumn.addRow(s);
-
         if (isNewMaxWidth.test(s))
             maxWidth = s.length();
     }
 
     @Override
     public String getRowAsFormattedString(int rowIndex) {
-        return formatBtc(getRow(rowIndex));
+        return formatBtc(getLongRow(rowIndex));
     }
 
     @Override
     public StringColumn asStringColumn() {
-        // We cached the formatted satoshi strings, but we did
-        // not know how much zero padding each string needed until now.
+        StringColumn stringColumn = newStringColumn();
+        IntStream.range(0, numRows).forEachOrdered(rowIndex ->
+                stringColumn.addRow(getRowAsFormattedString(rowIndex)));
+
+        // We did not know how much zero padding each formatted BTC string needed until now.
         int maxColumnValueWidth = stringColumn.getRows().stream()
                 .max(comparingInt(String::length))
                 .get()
@@ -43,6 +44,7 @@ public class BtcColumn extends SatoshiColumn {
                 stringColumn.updateRow(rowIndex, paddedBtcString);
             }
         });
+        stringColumn.setZeroPaddedLength(maxColumnValueWidth);
         return stringColumn.justify();
     }
 }
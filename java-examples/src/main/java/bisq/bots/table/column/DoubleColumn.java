@@ -17,8 +17,9 @@
 
 package bisq.bots.table.column;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.stream.IntStream;
 
@@ -29,7 +30,7 @@ import static bisq.bots.table.column.Column.JUSTIFICATION.RIGHT;
  */
 public class DoubleColumn extends NumberColumn<DoubleColumn, Double> {
 
-    protected final List<Double> rows = new ArrayList<>();
+    protected double[] rows = new double[INITIAL_CAPACITY];
 
     protected final Predicate<String> isNewMaxWidth = (s) -> s != null && !s.isEmpty() && s.length() > maxWidth;
 
@@ -45,7 +46,14 @@ public class DoubleColumn extends NumberColumn<DoubleColumn, Double> {
 
     @Override
     public void addRow(Double value) {
-        rows.add(value);
+        addRow(value.doubleValue());
+    }
+
+    public void addRow(double value) {
+        if (numRows == rows.length)
+            rows = Arrays.copyOf(rows, grownCapacity(rows.length));
+
+        rows[numRows++] = value;
 
         String s = String.valueOf(value);
         if (isNewMaxWidth.test(s))
@@ -54,38 +62,37 @@ public class DoubleColumn extends NumberColumn<DoubleColumn, Double> {
 
     @Override
     public List<Double> getRows() {
-        return rows;
+        return rowsView(this::getRow);
     }
 
     @Override
-    public int rowCount() {
-        return rows.size();
+    public Double getRow(int rowIndex) {
+        return getDoubleRow(rowIndex);
     }
 
-    @Override
-    public boolean isEmpty() {
-        return rows.isEmpty();
+    public double getDoubleRow(int rowIndex) {
+        return rows[Objects.checkIndex(rowIndex, numRows)];
     }
 
     @Override
-    public Double getRow(int rowIndex) {
-        return rows.get(rowIndex);
+    public void updateRow(int rowIndex, Double newValue) {
+        updateRow(rowIndex, newValue.doubleValue());
     }
 
-    @Override
-    public void updateRow(int rowIndex, Double newValue) {
-        rows.set(rowIndex, newValue);
+    public void updateRow(int rowIndex, double newValue) {
+        rows[Objects.checkIndex(rowIndex, numRows)] = newValue;
     }
 
     @Override
     public String getRowAsFormattedString(int rowIndex) {
-        String s = String.valueOf(getRow(rowIndex));
+        String s = String.valueOf(getDoubleRow(rowIndex));
         return toJustifiedString(s);
     }
 
     @Override
     public StringColumn asStringColumn() {
-        IntStream.range(0, rows.size()).forEachOrdered(rowIndex ->
+        StringColumn stringColumn = newStringColumn();
+        IntStream.range(0, numRows).forEachOrdered(rowIndex ->
                 stringColumn.addRow(getRowAsFormattedString(rowIndex)));
 
         return stringColumn;
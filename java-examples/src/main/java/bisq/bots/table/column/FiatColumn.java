@@ -53,31 +53,35 @@ public class FiatColumn extends LongColumn {
     }
 
     @Override
-    public void addRow(Long value) {
-        rows.add(value);
-
-        String s = displayMode.equals(DISPLAY_MODE.FIAT_PRICE) ? formatPrice(value) : formatFiatVolume(value);
-
-        stringColumn.addRow(s);
+    public void addRow(long value) {
+        appendRow(value);
 
+        String s = toFormattedString(value);
         if (isNewMaxWidth.test(s))
             maxWidth = s.length();
     }
 
     @Override
     public String getRowAsFormattedString(int rowIndex) {
-        return getRow(rowIndex).toString();
+        return String.valueOf(getLongRow(rowIndex));
     }
 
     @Override
     public StringColumn asStringColumn() {
-        // We cached the formatted fiat price strings, but we did
-        // not know how much padding each string needed until now.
+        StringColumn stringColumn = newStringColumn();
+        IntStream.range(0, numRows).forEachOrdered(rowIndex ->
+                stringColumn.addRow(toFormattedString(getLongRow(rowIndex))));
+
+        // We did not know how much padding each formatted fiat price string needed until now.
         IntStream.range(0, stringColumn.getRows().size()).forEach(rowIndex -> {
             String unjustified = stringColumn.getRow(rowIndex);
             String justified = stringColumn.toJustifiedString(unjustified);
             stringColumn.updateRow(rowIndex, justified);
         });
-        return this.stringColumn;
+        return stringColumn;
+    }
+
+    private String toFormattedString(long value) {
+        return displayMode.equals(DISPLAY_MODE.FIAT_PRICE) ? formatPrice(value) : formatFiatVolume(value);
     }
 }
@@ -17,8 +17,9 @@
 
 package bisq.bots.table.column;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.stream.IntStream;
 
@@ -29,7 +30,7 @@ import static bisq.bots.table.column.Column.JUSTIFICATION.RIGHT;
  */
 public class IntegerColumn extends NumberColumn<IntegerColumn, Integer> {
 
-    protected final List<Integer> rows = new ArrayList<>();
+    protected int[] rows = new int[INITIAL_CAPACITY];
 
     protected final Predicate<String> isNewMaxWidth = (s) -> s != null && !s.isEmpty() && s.length() > maxWidth;
 
@@ -45,47 +46,53 @@ public class IntegerColumn extends NumberColumn<IntegerColumn, Integer> {
 
     @Override
     public void addRow(Integer value) {
-        rows.add(value);
+        addRow(value.intValue());
+    }
+
+    public void addRow(int value) {
+        if (numRows == rows.length)
+            rows = Arrays.copyOf(rows, grownCapacity(rows.length));
+
+        rows[numRows++] = value;
 
-        String s = String.valueOf(value);
-        if (isNewMaxWidth.test(s))
-            maxWidth = s.length();
+        int length = toStringLength(value);
+        if (length > maxWidth)
+            maxWidth = length;
     }
 
     @Override
     public List<Integer> getRows() {
-        return rows;
+        return rowsView(this::getRow);
     }
 
     @Override
-    public int rowCount() {
-        return rows.size();
+    public Integer getRow(int rowIndex) {
+        return getIntRow(rowIndex);
     }
 
-    @Override
-    public boolean isEmpty() {
-        return rows.isEmpty();
+    public int getIntRow(int rowIndex) {
+        return rows[Objects.checkIndex(rowIndex, numRows)];
     }
 
     @Override
-    public Integer getRow(int rowIndex) {
-        return rows.get(rowIndex);
+    public void updateRow(int rowIndex, Integer newValue) {
+        updateRow(rowIndex, newValue.intValue());
     }
 
-    @Override
-    public void updateRow(int rowIndex, Integer newValue) {
-        rows.set(rowIndex, newValue);
+    public void updateRow(int rowIndex, int newValue) {
+        rows[Objects.checkIndex(rowIndex, numRows)] = newValue;
     }
 
     @Override
     public String getRowAsFormattedString(int rowIndex) {
-        String s = String.valueOf(getRow(rowIndex));
+        String s = String.valueOf(getIntRow(rowIndex));
         return toJustifiedString(s);
     }
 
     @Override
     public StringColumn asStringColumn() {
-        IntStream.range(0, rows.size()).forEachOrdered(rowIndex ->
+        StringColumn stringColumn = newStringColumn();
+        IntStream.range(0, numRows).forEachOrdered(rowIndex ->
                 stringColumn.addRow(getRowAsFormattedString(rowIndex)));
 
         return stringColumn;
@@ -17,22 +17,31 @@
 
 package bisq.bots.table.column;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
 import java.util.stream.IntStream;
 
 import static bisq.bots.table.column.Column.JUSTIFICATION.LEFT;
 import static com.google.common.base.Strings.padEnd;
 import static com.google.common.base.Strings.padStart;
 import static java.lang.System.currentTimeMillis;
-import static java.util.TimeZone.getTimeZone;
+import static java.time.ZoneOffset.UTC;
 
 /**
  * For displaying (long) timestamp values as ISO-8601 dates in UTC time zone.
+ * <p>
+ * Dates are formatted by an immutable DateTimeFormatter, and cached by epoch second, because trade and offer dates
+ * repeat often.  The formatter and the cache are shared by all columns, and safe to use from any thread.
  */
 public class Iso8601DateTimeColumn extends LongColumn {
 
-    protected final SimpleDateFormat iso8601DateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    private static final DateTimeFormatter ISO_8601_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'").withZone(UTC);
+
+    // Direct-mapped cache of formatted dates, indexed by epoch second.  Entries are immutable, so threads can share
+    // the cache without locking;  a thread reading a stale or overwritten entry only formats the date again.
+    private static final int CACHE_SIZE = 1024;
+    private static final FormattedDate[] formattedDates = new FormattedDate[CACHE_SIZE];
 
     // The default Iso8601DateTimeColumn JUSTIFICATION is LEFT.
     public Iso8601DateTimeColumn(String name) {
@@ -41,23 +50,41 @@ public class Iso8601DateTimeColumn extends LongColumn {
 
     public Iso8601DateTimeColumn(String name, JUSTIFICATION justification) {
         super(name, justification);
-        iso8601DateFormat.setTimeZone(getTimeZone("UTC"));
         this.maxWidth = Math.max(name.length(), String.valueOf(currentTimeMillis()).length());
     }
 
     @Override
     public String getRowAsFormattedString(int rowIndex) {
-        long time = getRow(rowIndex);
+        String date = format(getLongRow(rowIndex));
         return justification.equals(LEFT)
-                ? padEnd(iso8601DateFormat.format(new Date(time)), maxWidth, ' ')
-                : padStart(iso8601DateFormat.format(new Date(time)), maxWidth, ' ');
+                ? padEnd(date, maxWidth, ' ')
+                : padStart(date, maxWidth, ' ');
     }
 
     @Override
     public StringColumn asStringColumn() {
-        IntStream.range(0, rows.size()).forEachOrdered(rowIndex ->
+        StringColumn stringColumn = newStringColumn();
+        IntStream.range(0, numRows).forEachOrdered(rowIndex ->
                 stringColumn.addRow(getRowAsFormattedString(rowIndex)));
 
         return stringColumn;
     }
+
+    /**
+     * Returns the given time in milliseconds as an ISO-8601 date, e.g., 2022-06-15T14:32:05Z.
+     */
+    static String format(long time) {
+        long epochSecond = Math.floorDiv(time, 1_000);
+        int index = (int) (epochSecond & (CACHE_SIZE - 1));
+        FormattedDate formattedDate = formattedDates[index];
+        if (formattedDate == null || formattedDate.epochSecond() != epochSecond) {
+            String date = ISO_8601_FORMATTER.format(Instant.ofEpochSecond(epochSecond));
+            formattedDate = new FormattedDate(epochSecond, date);
+            formattedDates[index] = formattedDate;
+        }
+        return formattedDate.date();
+    }
+
+    private record FormattedDate(long epochSecond, String date) {
+    }
 }
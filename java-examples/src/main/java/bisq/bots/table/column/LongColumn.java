@@ -17,8 +17,9 @@
 
 package bisq.bots.table.column;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Predicate;
 import java.util.stream.IntStream;
 
@@ -29,7 +30,7 @@ import static bisq.bots.table.column.Column.JUSTIFICATION.RIGHT;
  */
 public class LongColumn extends NumberColumn<LongColumn, Long> {
 
-    protected final List<Long> rows = new ArrayList<>();
+    protected long[] rows = new long[INITIAL_CAPACITY];
 
     protected final Predicate<String> isNewMaxWidth = (s) -> s != null && !s.isEmpty() && s.length() > maxWidth;
 
@@ -45,49 +46,63 @@ public class LongColumn extends NumberColumn<LongColumn, Long> {
 
     @Override
     public void addRow(Long value) {
-        rows.add(value);
+        addRow(value.longValue());
+    }
+
+    public void addRow(long value) {
+        appendRow(value);
 
-        String s = String.valueOf(value);
-        if (isNewMaxWidth.test(s))
-            maxWidth = s.length();
+        int length = toStringLength(value);
+        if (length > maxWidth)
+            maxWidth = length;
     }
 
     @Override
     public List<Long> getRows() {
-        return rows;
+        return rowsView(this::getRow);
     }
 
     @Override
-    public int rowCount() {
-        return rows.size();
+    public Long getRow(int rowIndex) {
+        return getLongRow(rowIndex);
     }
 
-    @Override
-    public boolean isEmpty() {
-        return rows.isEmpty();
+    public long getLongRow(int rowIndex) {
+        return rows[Objects.checkIndex(rowIndex, numRows)];
     }
 
     @Override
-    public Long getRow(int rowIndex) {
-        return rows.get(rowIndex);
+    public void updateRow(int rowIndex, Long newValue) {
+        updateRow(rowIndex, newValue.longValue());
     }
 
-    @Override
-    public void updateRow(int rowIndex, Long newValue) {
-        rows.set(rowIndex, newValue);
+    public void updateRow(int rowIndex, long newValue) {
+        rows[Objects.checkIndex(rowIndex, numRows)] = newValue;
     }
 
     @Override
     public String getRowAsFormattedString(int rowIndex) {
-        String s = String.valueOf(getRow(rowIndex));
+        String s = String.valueOf(getLongRow(rowIndex));
         return toJustifiedString(s);
     }
 
     @Override
     public StringColumn asStringColumn() {
-        IntStream.range(0, rows.size()).forEachOrdered(rowIndex ->
+        StringColumn stringColumn = newStringColumn();
+        IntStream.range(0, numRows).forEachOrdered(rowIndex ->
                 stringColumn.addRow(getRowAsFormattedString(rowIndex)));
 
         return stringColumn;
     }
+
+    /**
+     * Adds a row to the backing array, without updating the column's max width, for subclasses that display
+     * formatted values.
+     */
+    protected final void appendRow(long value) {
+        if (numRows == rows.length)
+            rows = Arrays.copyOf(rows, grownCapacity(rows.length));
+
+        rows[numRows++] = value;
+    }
 }
@@ -17,6 +17,9 @@
 
 package bisq.bots.table.column;
 
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
 import static bisq.bots.CurrencyFormat.formatBsq;
 import static bisq.bots.CurrencyFormat.formatSatoshis;
 import static bisq.bots.table.column.Column.JUSTIFICATION.RIGHT;
@@ -26,34 +29,45 @@ import static bisq.bots.table.column.Column.JUSTIFICATION.RIGHT;
  */
 public class MixedTradeFeeColumn extends LongColumn {
 
+    // The indexes of the rows holding BSQ fees.
+    private final BitSet bsqRows = new BitSet();
+
     public MixedTradeFeeColumn(String name) {
         super(name, RIGHT);
     }
 
     @Override
-    public void addRow(Long value) {
-        throw new UnsupportedOperationException("use public void addRow(Long value, boolean isBsq) instead");
+    public void addRow(long value) {
+        throw new UnsupportedOperationException("use public void addRow(long value, boolean isBsq) instead");
     }
 
-    public void addRow(Long value, boolean isBsq) {
-        rows.add(value);
-
-        String s = isBsq
-                ? formatBsq(value) + " BSQ"
-                : formatSatoshis(value) + " BTC";
-        stringColumn.addRow(s);
+    public void addRow(long value, boolean isBsq) {
+        bsqRows.set(numRows, isBsq);
+        appendRow(value);
 
+        String s = toFormattedString(value, isBsq);
         if (isNewMaxWidth.test(s))
             maxWidth = s.length();
     }
 
     @Override
     public String getRowAsFormattedString(int rowIndex) {
-        return getRow(rowIndex).toString();
+        return String.valueOf(getLongRow(rowIndex));
     }
 
     @Override
     public StringColumn asStringColumn() {
+        // We do not know how much padding each StringColumn value needs until it has all the values.
+        StringColumn stringColumn = newStringColumn();
+        IntStream.range(0, numRows).forEachOrdered(rowIndex ->
+                stringColumn.addRow(toFormattedString(getLongRow(rowIndex), bsqRows.get(rowIndex))));
+
         return stringColumn.justify();
     }
+
+    private String toFormattedString(long value, boolean isBsq) {
+        return isBsq
+                ? formatBsq(value) + " BSQ"
+                : formatSatoshis(value) + " BTC";
+    }
 }
@@ -17,8 +17,15 @@
 
 package bisq.bots.table.column;
 
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.IntFunction;
+
 /**
  * Abstract superclass for numeric Columns.
+ * <p>
+ * Numeric columns store their rows in growable primitive arrays, not lists of boxed values, and format them only
+ * when converted to a StringColumn.
  *
  * @param <C> the subclass column's type (LongColumn, IntegerColumn, ...)
  * @param <T> the subclass column's numeric Java type (Long, Integer, ...)
@@ -26,7 +33,61 @@ package bisq.bots.table.column;
 abstract class NumberColumn<C extends NumberColumn<C, T>,
         T extends Number> extends AbstractColumn<C, T> implements Column<T> {
 
+    // The capacity of a new column's backing array.
+    protected static final int INITIAL_CAPACITY = 16;
+
+    // The number of rows in the column's backing array.
+    protected int numRows;
+
     public NumberColumn(String name, JUSTIFICATION justification) {
         super(name, justification);
     }
+
+    @Override
+    public int rowCount() {
+        return numRows;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return numRows == 0;
+    }
+
+    /**
+     * Returns the capacity a full backing array of the given capacity is grown to.
+     */
+    protected static int grownCapacity(int capacity) {
+        return capacity + (capacity >> 1) + 1;
+    }
+
+    /**
+     * Returns an unmodifiable list view of the rows, boxing each row as it is read.
+     */
+    protected List<T> rowsView(IntFunction<T> rowGetter) {
+        return new AbstractList<>() {
+            @Override
+            public T get(int rowIndex) {
+                return rowGetter.apply(rowIndex);
+            }
+
+            @Override
+            public int size() {
+                return numRows;
+            }
+        };
+    }
+
+    /**
+     * Returns the length of String.valueOf(value), without creating the string.
+     */
+    protected static int toStringLength(long value) {
+        if (value == Long.MIN_VALUE)
+            return 20;
+
+        int length = value < 0 ? 2 : 1;
+        for (long magnitude = Math.abs(value); magnitude >= 10; magnitude /= 10)
+            length++;
+
+        return length;
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots.table.column;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static bisq.bots.CurrencyFormat.appendSatoshis;
+
+/**
+ * For displaying min - max ranges, e.g., an offer's amount and volume range, in a single column.  A range's max value
+ * is omitted if it equals the min value.
+ * <p>
+ * Each row's min and max values are formatted once, straight into a buffer shared by all rows, and the column's
+ * width is computed as rows are added.  The justified cells are built from the buffer when the column is converted
+ * to a StringColumn, without intermediate columns of min and max values.
+ */
+public class RangeColumn extends AbstractColumn<RangeColumn, String> {
+
+    // The capacity of a new column's cell end index array.
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final String delimiter;
+    // The unjustified cells of all rows, and the end index of each row's cell in the buffer.
+    private final StringBuilder cells = new StringBuilder(256);
+    private int[] cellEnds = new int[INITIAL_CAPACITY];
+    private int numRows;
+
+    public RangeColumn(String name, JUSTIFICATION justification, String delimiter) {
+        super(name, justification);
+        this.delimiter = delimiter;
+        this.maxWidth = name.length();
+    }
+
+    /**
+     * Adds a BTC satoshi amount range row.
+     */
+    public void addRow(long minSatoshis, long maxSatoshis) {
+        appendSatoshis(cells, minSatoshis);
+        if (minSatoshis != maxSatoshis)
+            appendSatoshis(cells.append(delimiter), maxSatoshis);
+
+        endCell();
+    }
+
+    /**
+     * Adds a range row of formatted values, e.g., an offer's min and max volume.
+     */
+    public void addRow(String minValue, String maxValue) {
+        cells.append(minValue);
+        if (!minValue.equals(maxValue))
+            cells.append(delimiter).append(maxValue);
+
+        endCell();
+    }
+
+    /**
+     * Adds a formatted cell, e.g., a range without a max value.
+     */
+    @Override
+    public void addRow(String value) {
+        cells.append(value);
+        endCell();
+    }
+
+    private void endCell() {
+        if (numRows == cellEnds.length)
+            cellEnds = Arrays.copyOf(cellEnds, cellEnds.length + (cellEnds.length >> 1) + 1);
+
+        var cellStart = numRows == 0 ? 0 : cellEnds[numRows - 1];
+        cellEnds[numRows++] = cells.length();
+        maxWidth = Math.max(maxWidth, cells.length() - cellStart);
+    }
+
+    @Override
+    public List<String> getRows() {
+        return new AbstractList<>() {
+            @Override
+            public String get(int rowIndex) {
+                return getRow(rowIndex);
+            }
+
+            @Override
+            public int size() {
+                return numRows;
+            }
+        };
+    }
+
+    @Override
+    public int rowCount() {
+        return numRows;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return numRows == 0;
+    }
+
+    @Override
+    public String getRow(int rowIndex) {
+        Objects.checkIndex(rowIndex, numRows);
+        return cells.substring(getCellStart(rowIndex), cellEnds[rowIndex]);
+    }
+
+    @Override
+    public void updateRow(int rowIndex, String newValue) {
+        throw new UnsupportedOperationException("range column rows cannot be updated");
+    }
+
+    @Override
+    public String getRowAsFormattedString(int rowIndex) {
+        return getRow(rowIndex);
+    }
+
+    @Override
+    public StringColumn asStringColumn() {
+        // The column name is justified too, in case any of the cells are longer than the name.
+        StringColumn stringColumn = new StringColumn(toJustifiedString(name), justification);
+        var cell = new StringBuilder(maxWidth);
+        for (int rowIndex = 0; rowIndex < numRows; rowIndex++) {
+            var cellStart = getCellStart(rowIndex);
+            var padding = maxWidth - (cellEnds[rowIndex] - cellStart);
+            switch (justification) {
+                case LEFT:
+                    cell.append(cells, cellStart, cellEnds[rowIndex]);
+                    appendSpaces(cell, padding);
+                    break;
+                case RIGHT:
+                    appendSpaces(cell, padding);
+                    cell.append(cells, cellStart, cellEnds[rowIndex]);
+                    break;
+                case NONE:
+                default:
+                    cell.append(cells, cellStart, cellEnds[rowIndex]);
+            }
+            stringColumn.addRow(cell.toString());
+            cell.setLength(0);
+        }
+        return stringColumn;
+    }
+
+    private int getCellStart(int rowIndex) {
+        return rowIndex == 0 ? 0 : cellEnds[rowIndex - 1];
+    }
+
+    private static void appendSpaces(StringBuilder cell, int count) {
+        for (int i = 0; i < count; i++) {
+            cell.append(' ');
+        }
+    }
+}
@@ -17,6 +17,8 @@
 
 package bisq.bots.table.column;
 
+import java.util.stream.IntStream;
+
 import static bisq.bots.CurrencyFormat.formatBsq;
 import static bisq.bots.CurrencyFormat.formatSatoshis;
 import static bisq.bots.table.column.Column.JUSTIFICATION.RIGHT;
@@ -47,13 +49,10 @@ public class SatoshiColumn extends LongColumn {
     }
 
     @Override
-    public void addRow(Long value) {
-        rows.add(value);
+    public void addRow(long value) {
+        appendRow(value);
 
-        // We do not know how much padding each StringColumn value needs until it has all the values.
         String s = isBsqSatoshis ? formatBsq(value) : formatSatoshis(value);
-        stringColumn.addRow(s);
-
         if (isNewMaxWidth.test(s))
             maxWidth = s.length();
     }
@@ -61,12 +60,17 @@ public class SatoshiColumn extends LongColumn {
     @Override
     public String getRowAsFormattedString(int rowIndex) {
         return isBsqSatoshis
-                ? formatBsq(getRow(rowIndex))
-                : formatSatoshis(getRow(rowIndex));
+                ? formatBsq(getLongRow(rowIndex))
+                : formatSatoshis(getLongRow(rowIndex));
     }
 
     @Override
     public StringColumn asStringColumn() {
+        // We do not know how much padding each StringColumn value needs until it has all the values.
+        StringColumn stringColumn = newStringColumn();
+        IntStream.range(0, numRows).forEachOrdered(rowIndex ->
+                stringColumn.addRow(getRowAsFormattedString(rowIndex)));
+
         return stringColumn.justify();
     }
 }
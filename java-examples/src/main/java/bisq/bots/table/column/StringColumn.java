@@ -25,6 +25,8 @@ import java.util.stream.IntStream;
 
 import static bisq.bots.table.column.Column.JUSTIFICATION.LEFT;
 import static bisq.bots.table.column.Column.JUSTIFICATION.RIGHT;
+import static com.google.common.base.Strings.padEnd;
+import static com.google.common.base.Strings.padStart;
 
 /**
  * For displaying justified string values.
@@ -32,6 +34,8 @@ import static bisq.bots.table.column.Column.JUSTIFICATION.RIGHT;
 public class StringColumn extends AbstractColumn<StringColumn, String> {
 
     private final List<String> rows = new ArrayList<>();
+    // The length numeric values were padded to with trailing zeros, e.g., by a BtcColumn, or 0 if not zero padded.
+    private int zeroPaddedLength;
 
     private final Predicate<String> isNewMaxWidth = (s) -> s != null && !s.isEmpty() && s.length() > maxWidth;
 
@@ -88,6 +92,60 @@ public class StringColumn extends AbstractColumn<StringColumn, String> {
         return this;
     }
 
+    void setZeroPaddedLength(int zeroPaddedLength) {
+        this.zeroPaddedLength = zeroPaddedLength;
+    }
+
+    /**
+     * Returns a column of the given columns' rows, in order.  The columns must have been converted from consecutive
+     * chunks of one column's rows, e.g., by a parallel table build.  Each chunk's right justified values were padded
+     * to the chunk's width, and zero padded values to the chunk's longest value;  they are padded again to the widest
+     * chunk's, so the merged column is the same as a column converted from all the rows at once.
+     *
+     * @param chunks the columns converted from each chunk of rows, in row order
+     * @return StringColumn with the name and justification of the first chunk's column
+     */
+    public static StringColumn merge(List<StringColumn> chunks) {
+        if (chunks.isEmpty())
+            throw new IllegalArgumentException("cannot merge columns because there are none");
+
+        var first = chunks.get(0);
+        var merged = new StringColumn(first.name, first.justification);
+        var numRows = 0;
+        for (var chunk : chunks) {
+            if (!chunk.justification.equals(first.justification) || chunk.isZeroPadded() != first.isZeroPadded())
+                throw new IllegalStateException(
+                        "column '" + chunk.name.trim() + "' is not formatted like column '" + first.name.trim() + "'");
+
+            merged.maxWidth = Math.max(merged.maxWidth, chunk.maxWidth);
+            merged.zeroPaddedLength = Math.max(merged.zeroPaddedLength, chunk.zeroPaddedLength);
+            numRows += chunk.rowCount();
+        }
+
+        ((ArrayList<String>) merged.rows).ensureCapacity(numRows);
+        var isRightJustified = merged.justification.equals(RIGHT);
+        for (var chunk : chunks) {
+            if (merged.zeroPaddedLength > chunk.zeroPaddedLength) {
+                for (var value : chunk.rows) {
+                    var zeroPadded = padEnd(value.substring(value.length() - chunk.zeroPaddedLength),
+                            merged.zeroPaddedLength,
+                            '0');
+                    merged.rows.add(isRightJustified ? padStart(zeroPadded, merged.maxWidth, ' ') : zeroPadded);
+                }
+            } else if (isRightJustified && merged.maxWidth > chunk.maxWidth) {
+                var leadingSpaces = " ".repeat(merged.maxWidth - chunk.maxWidth);
+                chunk.rows.forEach(value -> merged.rows.add(leadingSpaces + value));
+            } else {
+                merged.rows.addAll(chunk.rows);
+            }
+        }
+        return merged;
+    }
+
+    private boolean isZeroPadded() {
+        return zeroPaddedLength > 0;
+    }
+
     @Override
     public StringColumn justify() {
         if (justification.equals(RIGHT)) {
@@ -0,0 +1,158 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots.table.export;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * A named field of a record exported from a protobuf message, which appends the field's unformatted value to a
+ * line buffer, without creating intermediate strings for numbers and booleans.
+ *
+ * @param <T> the protobuf message type
+ */
+abstract class RecordField<T> {
+
+    final String name;
+
+    private RecordField(String name) {
+        this.name = name;
+    }
+
+    abstract void appendCsv(T proto, StringBuilder line);
+
+    abstract void appendJson(T proto, StringBuilder line);
+
+    static <T> RecordField<T> text(String name, Function<T, String> getter) {
+        return new RecordField<>(name) {
+            @Override
+            void appendCsv(T proto, StringBuilder line) {
+                appendCsvString(line, getter.apply(proto));
+            }
+
+            @Override
+            void appendJson(T proto, StringBuilder line) {
+                appendJsonString(line, getter.apply(proto));
+            }
+        };
+    }
+
+    static <T> RecordField<T> integer(String name, ToLongFunction<T> getter) {
+        return new RecordField<>(name) {
+            @Override
+            void appendCsv(T proto, StringBuilder line) {
+                line.append(getter.applyAsLong(proto));
+            }
+
+            @Override
+            void appendJson(T proto, StringBuilder line) {
+                line.append(getter.applyAsLong(proto));
+            }
+        };
+    }
+
+    static <T> RecordField<T> decimal(String name, ToDoubleFunction<T> getter) {
+        return new RecordField<>(name) {
+            @Override
+            void appendCsv(T proto, StringBuilder line) {
+                line.append(getter.applyAsDouble(proto));
+            }
+
+            @Override
+            void appendJson(T proto, StringBuilder line) {
+                var value = getter.applyAsDouble(proto);
+                // JSON has no NaN or Infinity literals.
+                if (Double.isFinite(value))
+                    line.append(value);
+                else
+                    line.append("null");
+            }
+        };
+    }
+
+    static <T> RecordField<T> bool(String name, Predicate<T> getter) {
+        return new RecordField<>(name) {
+            @Override
+            void appendCsv(T proto, StringBuilder line) {
+                line.append(getter.test(proto));
+            }
+
+            @Override
+            void appendJson(T proto, StringBuilder line) {
+                line.append(getter.test(proto));
+            }
+        };
+    }
+
+    /**
+     * Append the string to the line buffer, quoted if it contains a comma, quote, or line break, with each quote
+     * doubled.
+     */
+    static void appendCsvString(StringBuilder line, String value) {
+        var mustBeQuoted = false;
+        for (int i = 0; i < value.length() && !mustBeQuoted; i++) {
+            var c = value.charAt(i);
+            mustBeQuoted = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!mustBeQuoted) {
+            line.append(value);
+            return;
+        }
+
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '"')
+                line.append('"');
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    /**
+     * Append the string to the line buffer as a quoted JSON string, with quotes, backslashes, and control characters
+     * escaped.
+     */
+    static void appendJsonString(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                case '\b' -> line.append("\\b");
+                case '\f' -> line.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        line.append("\\u00");
+                        line.append(Character.forDigit(c >> 4, 16));
+                        line.append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots.table.export;
+
+/**
+ * Machine-readable formats tables can be exported in.
+ */
+public enum RecordFormat {
+    /**
+     * Comma separated values (RFC 4180), with a header line of field names.  Values containing commas, quotes, or
+     * line breaks are quoted, and lines end with CRLF.
+     */
+    CSV,
+    /**
+     * JSON Lines (ndjson):  one JSON object per record, with the record's field names as keys, per line.
+     */
+    JSON_LINES
+}
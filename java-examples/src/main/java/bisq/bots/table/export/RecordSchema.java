@@ -0,0 +1,202 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots.table.export;
+
+import bisq.bots.table.builder.TableType;
+import bisq.proto.grpc.*;
+import protobuf.PaymentAccount;
+
+import java.util.List;
+
+import static bisq.bots.table.export.RecordField.*;
+
+/**
+ * The fields exported for each table type:  the protobuf message fields behind the table's columns, unformatted.
+ * <p>
+ * Unlike a table's columns, a schema does not depend on the rows, so every record of a table type has the same
+ * fields, in the same order.  Fields of a nested message are named with a dotted prefix, e.g., offer.direction.
+ *
+ * @param <T> the protobuf message type of the table's rows
+ */
+final class RecordSchema<T> {
+
+    private static final RecordSchema<AddressBalanceInfo> ADDRESS_BALANCE = new RecordSchema<>(AddressBalanceInfo.class,
+            List.of(text("address", AddressBalanceInfo::getAddress),
+                    integer("balance", AddressBalanceInfo::getBalance),
+                    integer("numConfirmations", AddressBalanceInfo::getNumConfirmations),
+                    bool("isAddressUnused", AddressBalanceInfo::getIsAddressUnused)));
+
+    private static final RecordSchema<BsqBalanceInfo> BSQ_BALANCE = new RecordSchema<>(BsqBalanceInfo.class,
+            List.of(integer("availableConfirmedBalance", BsqBalanceInfo::getAvailableConfirmedBalance),
+                    integer("unverifiedBalance", BsqBalanceInfo::getUnverifiedBalance),
+                    integer("unconfirmedChangeBalance", BsqBalanceInfo::getUnconfirmedChangeBalance),
+                    integer("lockedForVotingBalance", BsqBalanceInfo::getLockedForVotingBalance),
+                    integer("lockupBondsBalance", BsqBalanceInfo::getLockupBondsBalance),
+                    integer("unlockingBondsBalance", BsqBalanceInfo::getUnlockingBondsBalance)));
+
+    private static final RecordSchema<BtcBalanceInfo> BTC_BALANCE = new RecordSchema<>(BtcBalanceInfo.class,
+            List.of(integer("availableBalance", BtcBalanceInfo::getAvailableBalance),
+                    integer("reservedBalance", BtcBalanceInfo::getReservedBalance),
+                    integer("totalAvailableBalance", BtcBalanceInfo::getTotalAvailableBalance),
+                    integer("lockedBalance", BtcBalanceInfo::getLockedBalance)));
+
+    private static final RecordSchema<TradeInfo> CLOSED_TRADES = new RecordSchema<>(TradeInfo.class,
+            List.of(text("tradeId", TradeInfo::getTradeId),
+                    integer("date", TradeInfo::getDate),
+                    text("offer.baseCurrencyCode", t -> t.getOffer().getBaseCurrencyCode()),
+                    text("offer.counterCurrencyCode", t -> t.getOffer().getCounterCurrencyCode()),
+                    text("offer.direction", t -> t.getOffer().getDirection()),
+                    bool("offer.isMyOffer", t -> t.getOffer().getIsMyOffer()),
+                    bool("offer.isBsqSwapOffer", t -> t.getOffer().getIsBsqSwapOffer()),
+                    text("tradePrice", TradeInfo::getTradePrice),
+                    bool("offer.useMarketBasedPrice", t -> t.getOffer().getUseMarketBasedPrice()),
+                    decimal("offer.marketPriceMarginPct", t -> t.getOffer().getMarketPriceMarginPct()),
+                    integer("tradeAmountAsLong", TradeInfo::getTradeAmountAsLong),
+                    text("tradeVolume", TradeInfo::getTradeVolume),
+                    text("role", TradeInfo::getRole),
+                    integer("txFeeAsLong", TradeInfo::getTxFeeAsLong),
+                    integer("offer.txFee", t -> t.getOffer().getTxFee()),
+                    integer("takerFeeAsLong", TradeInfo::getTakerFeeAsLong),
+                    bool("isCurrencyForTakerFeeBtc", TradeInfo::getIsCurrencyForTakerFeeBtc),
+                    integer("offer.makerFee", t -> t.getOffer().getMakerFee()),
+                    bool("offer.isCurrencyForMakerFeeBtc", t -> t.getOffer().getIsCurrencyForMakerFeeBtc()),
+                    integer("bsqSwapTradeInfo.bsqMakerTradeFee", t -> t.getBsqSwapTradeInfo().getBsqMakerTradeFee()),
+                    integer("bsqSwapTradeInfo.bsqTakerTradeFee", t -> t.getBsqSwapTradeInfo().getBsqTakerTradeFee()),
+                    integer("offer.buyerSecurityDeposit", t -> t.getOffer().getBuyerSecurityDeposit()),
+                    integer("offer.sellerSecurityDeposit", t -> t.getOffer().getSellerSecurityDeposit()),
+                    text("closingStatus", TradeInfo::getClosingStatus)));
+
+    private static final RecordSchema<TradeInfo> FAILED_TRADES = new RecordSchema<>(TradeInfo.class,
+            List.of(text("tradeId", TradeInfo::getTradeId),
+                    integer("date", TradeInfo::getDate),
+                    text("offer.baseCurrencyCode", t -> t.getOffer().getBaseCurrencyCode()),
+                    text("offer.counterCurrencyCode", t -> t.getOffer().getCounterCurrencyCode()),
+                    text("offer.direction", t -> t.getOffer().getDirection()),
+                    bool("offer.isMyOffer", t -> t.getOffer().getIsMyOffer()),
+                    text("tradePrice", TradeInfo::getTradePrice),
+                    integer("tradeAmountAsLong", TradeInfo::getTradeAmountAsLong),
+                    text("tradeVolume", TradeInfo::getTradeVolume),
+                    text("role", TradeInfo::getRole)));
+
+    private static final RecordSchema<OfferInfo> OFFERS = new RecordSchema<>(OfferInfo.class,
+            List.of(text("id", OfferInfo::getId),
+                    integer("date", OfferInfo::getDate),
+                    text("direction", OfferInfo::getDirection),
+                    text("baseCurrencyCode", OfferInfo::getBaseCurrencyCode),
+                    text("counterCurrencyCode", OfferInfo::getCounterCurrencyCode),
+                    text("price", OfferInfo::getPrice),
+                    bool("useMarketBasedPrice", OfferInfo::getUseMarketBasedPrice),
+                    decimal("marketPriceMarginPct", OfferInfo::getMarketPriceMarginPct),
+                    text("triggerPrice", OfferInfo::getTriggerPrice),
+                    integer("minAmount", OfferInfo::getMinAmount),
+                    integer("amount", OfferInfo::getAmount),
+                    text("minVolume", OfferInfo::getMinVolume),
+                    text("volume", OfferInfo::getVolume),
+                    text("paymentMethodShortName", OfferInfo::getPaymentMethodShortName),
+                    bool("isBsqSwapOffer", OfferInfo::getIsBsqSwapOffer),
+                    bool("isMyOffer", OfferInfo::getIsMyOffer),
+                    bool("isActivated", OfferInfo::getIsActivated),
+                    bool("isMyPendingOffer", OfferInfo::getIsMyPendingOffer)));
+
+    private static final RecordSchema<TradeInfo> OPEN_TRADES = new RecordSchema<>(TradeInfo.class,
+            List.of(text("tradeId", TradeInfo::getTradeId),
+                    integer("date", TradeInfo::getDate),
+                    text("offer.baseCurrencyCode", t -> t.getOffer().getBaseCurrencyCode()),
+                    text("offer.counterCurrencyCode", t -> t.getOffer().getCounterCurrencyCode()),
+                    text("tradePrice", TradeInfo::getTradePrice),
+                    integer("tradeAmountAsLong", TradeInfo::getTradeAmountAsLong),
+                    text("tradeVolume", TradeInfo::getTradeVolume),
+                    text("offer.paymentMethodShortName", t -> t.getOffer().getPaymentMethodShortName()),
+                    text("role", TradeInfo::getRole)));
+
+    private static final RecordSchema<PaymentAccount> PAYMENT_ACCOUNTS = new RecordSchema<>(PaymentAccount.class,
+            List.of(text("accountName", PaymentAccount::getAccountName),
+                    text("selectedTradeCurrency.code", a -> a.getSelectedTradeCurrency().getCode()),
+                    text("paymentMethod.id", a -> a.getPaymentMethod().getId()),
+                    text("id", PaymentAccount::getId)));
+
+    private static final RecordSchema<TradeInfo> TRADE_DETAIL = new RecordSchema<>(TradeInfo.class,
+            List.of(text("tradeId", TradeInfo::getTradeId),
+                    text("shortId", TradeInfo::getShortId),
+                    text("role", TradeInfo::getRole),
+                    text("state", TradeInfo::getState),
+                    text("phase", TradeInfo::getPhase),
+                    text("offer.baseCurrencyCode", t -> t.getOffer().getBaseCurrencyCode()),
+                    text("offer.counterCurrencyCode", t -> t.getOffer().getCounterCurrencyCode()),
+                    bool("offer.isBsqSwapOffer", t -> t.getOffer().getIsBsqSwapOffer()),
+                    text("tradePrice", TradeInfo::getTradePrice),
+                    integer("tradeAmountAsLong", TradeInfo::getTradeAmountAsLong),
+                    text("tradeVolume", TradeInfo::getTradeVolume),
+                    integer("txFeeAsLong", TradeInfo::getTxFeeAsLong),
+                    integer("takerFeeAsLong", TradeInfo::getTakerFeeAsLong),
+                    bool("isCurrencyForTakerFeeBtc", TradeInfo::getIsCurrencyForTakerFeeBtc),
+                    integer("offer.makerFee", t -> t.getOffer().getMakerFee()),
+                    bool("offer.isCurrencyForMakerFeeBtc", t -> t.getOffer().getIsCurrencyForMakerFeeBtc()),
+                    bool("isDepositPublished", TradeInfo::getIsDepositPublished),
+                    bool("isDepositConfirmed", TradeInfo::getIsDepositConfirmed),
+                    bool("isPaymentStartedMessageSent", TradeInfo::getIsPaymentStartedMessageSent),
+                    bool("isPaymentReceivedMessageSent", TradeInfo::getIsPaymentReceivedMessageSent),
+                    bool("isPayoutPublished", TradeInfo::getIsPayoutPublished),
+                    bool("isCompleted", TradeInfo::getIsCompleted),
+                    text("bsqSwapTradeInfo.txId", t -> t.getBsqSwapTradeInfo().getTxId()),
+                    integer("bsqSwapTradeInfo.numConfirmations", t -> t.getBsqSwapTradeInfo().getNumConfirmations())));
+
+    private static final RecordSchema<TxInfo> TRANSACTIONS = new RecordSchema<>(TxInfo.class,
+            List.of(text("txId", TxInfo::getTxId),
+                    bool("isPending", TxInfo::getIsPending),
+                    integer("inputSum", TxInfo::getInputSum),
+                    integer("outputSum", TxInfo::getOutputSum),
+                    integer("fee", TxInfo::getFee),
+                    integer("size", TxInfo::getSize),
+                    text("memo", TxInfo::getMemo)));
+
+    final Class<T> protoType;
+    final List<RecordField<T>> fields;
+
+    private RecordSchema(Class<T> protoType, List<RecordField<T>> fields) {
+        this.protoType = protoType;
+        this.fields = fields;
+    }
+
+    static RecordSchema<?> forTableType(TableType tableType) {
+        switch (tableType) {
+            case ADDRESS_BALANCE_TBL:
+                return ADDRESS_BALANCE;
+            case BSQ_BALANCE_TBL:
+                return BSQ_BALANCE;
+            case BTC_BALANCE_TBL:
+                return BTC_BALANCE;
+            case CLOSED_TRADES_TBL:
+                return CLOSED_TRADES;
+            case FAILED_TRADES_TBL:
+                return FAILED_TRADES;
+            case OFFER_TBL:
+                return OFFERS;
+            case OPEN_TRADES_TBL:
+                return OPEN_TRADES;
+            case PAYMENT_ACCOUNT_TBL:
+                return PAYMENT_ACCOUNTS;
+            case TRADE_DETAIL_TBL:
+                return TRADE_DETAIL;
+            case TRANSACTION_TBL:
+                return TRANSACTIONS;
+            default:
+                throw new IllegalArgumentException("invalid cli table type " + tableType.name());
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots.table.export;
+
+import bisq.bots.table.builder.TableType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static bisq.bots.table.export.RecordField.appendCsvString;
+import static bisq.bots.table.export.RecordField.appendJsonString;
+import static bisq.bots.table.export.RecordFormat.CSV;
+import static java.lang.String.format;
+
+/**
+ * Writes the protobuf messages a table type is built from as machine-readable records, CSV or JSON Lines, one
+ * record per message, for tools that would otherwise have to parse the console tables.
+ * <p>
+ * Records are written straight from the messages as they are read from an Iterator, without building the table's
+ * columns, or formatting and padding values for display.  Each record is rendered into a line buffer reused for all
+ * records, so memory use does not depend on the number of records.  A writer is not thread-safe.
+ * <p>
+ * See {@link RecordSchema} for the fields of each table type.
+ */
+public class TableRecordWriter {
+
+    private static final String CSV_LINE_SEPARATOR = "\r\n";
+    private static final String JSON_LINES_LINE_SEPARATOR = "\n";
+
+    private final TableType tableType;
+    private final RecordFormat recordFormat;
+    private final RecordSchema<?> schema;
+    private final StringBuilder line = new StringBuilder(256);
+
+    public TableRecordWriter(TableType tableType, RecordFormat recordFormat) {
+        this.tableType = tableType;
+        this.recordFormat = recordFormat;
+        this.schema = RecordSchema.forTableType(tableType);
+    }
+
+    /**
+     * Write a record for each message to an Appendable, e.g., a Writer, preceded by a header line if the format is
+     * CSV.
+     *
+     * @param protos     the protobuf messages the table type is built from
+     * @param appendable the target Appendable
+     * @return the number of records written
+     * @throws IllegalArgumentException if a message is not of the table type's message type
+     * @throws UncheckedIOException     if the target Appendable throws an IOException
+     */
+    public long write(Iterator<?> protos, Appendable appendable) {
+        try {
+            return render(schema, protos, appendable);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Write a record for each message to an Appendable, preceded by a header line if the format is CSV.
+     *
+     * @param protos     the protobuf messages the table type is built from
+     * @param appendable the target Appendable
+     * @return the number of records written
+     */
+    public long write(List<?> protos, Appendable appendable) {
+        return write(protos.iterator(), appendable);
+    }
+
+    private <T> long render(RecordSchema<T> schema, Iterator<?> protos, Appendable appendable) throws IOException {
+        // A StringBuilder target is rendered into directly.
+        var buffer = appendable instanceof StringBuilder stringBuilder ? stringBuilder : line;
+        if (recordFormat == CSV) {
+            appendCsvHeader(schema.fields, buffer);
+            appendLine(appendable, buffer);
+        }
+
+        long recordCount = 0;
+        while (protos.hasNext()) {
+            var proto = toMessage(schema, protos.next());
+            if (recordFormat == CSV)
+                appendCsvRecord(schema.fields, proto, buffer);
+            else
+                appendJsonRecord(schema.fields, proto, buffer);
+
+            appendLine(appendable, buffer);
+            recordCount++;
+        }
+        return recordCount;
+    }
+
+    private <T> T toMessage(RecordSchema<T> schema, Object proto) {
+        if (!schema.protoType.isInstance(proto))
+            throw new IllegalArgumentException(format("%s records cannot be written from a %s",
+                    tableType.name(),
+                    proto == null ? "null" : proto.getClass().getSimpleName()));
+
+        return schema.protoType.cast(proto);
+    }
+
+    private static <T> void appendCsvHeader(List<RecordField<T>> fields, StringBuilder buffer) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0)
+                buffer.append(',');
+            appendCsvString(buffer, fields.get(i).name);
+        }
+        buffer.append(CSV_LINE_SEPARATOR);
+    }
+
+    private static <T> void appendCsvRecord(List<RecordField<T>> fields, T proto, StringBuilder buffer) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0)
+                buffer.append(',');
+            fields.get(i).appendCsv(proto, buffer);
+        }
+        buffer.append(CSV_LINE_SEPARATOR);
+    }
+
+    private static <T> void appendJsonRecord(List<RecordField<T>> fields, T proto, StringBuilder buffer) {
+        buffer.append('{');
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0)
+                buffer.append(',');
+            var field = fields.get(i);
+            appendJsonString(buffer, field.name);
+            buffer.append(':');
+            field.appendJson(proto, buffer);
+        }
+        buffer.append('}').append(JSON_LINES_LINE_SEPARATOR);
+    }
+
+    /**
+     * Append the line buffer to the target, and clear it, unless the target is the line buffer.
+     */
+    private static void appendLine(Appendable appendable, StringBuilder buffer) throws IOException {
+        if (buffer != appendable) {
+            appendable.append(buffer);
+            buffer.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.LongFunction;
+
+import static java.math.RoundingMode.HALF_UP;
+import static java.math.RoundingMode.UNNECESSARY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares each {@link CurrencyFormat} format and append method with the DecimalFormat and NumberFormat formatting
+ * it replaced.
+ */
+public class CurrencyFormatTest {
+
+    private static final DecimalFormatSymbols US_SYMBOLS = DecimalFormatSymbols.getInstance(Locale.US);
+    private static final BigDecimal SATOSHI_DIVISOR = new BigDecimal(100_000_000);
+    private static final BigDecimal BSQ_SATOSHI_DIVISOR = new BigDecimal(100);
+
+    // The formats CurrencyFormat used before it formatted longs itself.
+    private final DecimalFormat satoshiFormat = new DecimalFormat("###,##0.00000000", US_SYMBOLS);
+    private final DecimalFormat btcFormat = new DecimalFormat("###,##0.########", US_SYMBOLS);
+    private final DecimalFormat btcTxFeeFormat = new DecimalFormat("###,###,##0", US_SYMBOLS);
+    private final DecimalFormat bsqFormat = new DecimalFormat("###,###,###,##0.00", US_SYMBOLS);
+    private final NumberFormat usLocaleNumberFormat = NumberFormat.getInstance(Locale.US);
+
+    @Test
+    public void testSmallValues() {
+        for (long value = -30_000; value <= 30_000; value++) {
+            assertSameAsPreviousFormat(value);
+        }
+    }
+
+    @Test
+    public void testPowersOfTen() {
+        for (long powerOfTen = 1; powerOfTen <= Long.MAX_VALUE / 10; powerOfTen *= 10) {
+            for (long delta = -3; delta <= 3; delta++) {
+                assertSameAsPreviousFormat(powerOfTen + delta);
+                assertSameAsPreviousFormat(-powerOfTen - delta);
+            }
+        }
+        for (long delta = -3; delta <= 0; delta++) {
+            assertSameAsPreviousFormat(1_000_000_000_000_000_000L + delta);
+            assertSameAsPreviousFormat(-1_000_000_000_000_000_000L - delta);
+        }
+    }
+
+    @Test
+    public void testHalfWayPoints() {
+        // Fiat volumes are rounded half up to whole numbers, i.e., at 5,000 (0.5 scaled by 10,000).
+        for (long powerOfTen = 1; powerOfTen <= Long.MAX_VALUE / 10; powerOfTen *= 10) {
+            for (long delta = -1; delta <= 1; delta++) {
+                assertSameAsPreviousFormat(powerOfTen * 5 + delta);
+                assertSameAsPreviousFormat(-powerOfTen * 5 - delta);
+                if (powerOfTen <= Long.MAX_VALUE / 100_000) {
+                    assertSameAsPreviousFormat(powerOfTen * 10_000 + 5_000 + delta);
+                    assertSameAsPreviousFormat(-powerOfTen * 10_000 - 5_000 - delta);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLongLimits() {
+        for (long delta = 0; delta <= 3; delta++) {
+            assertSameAsPreviousFormat(Long.MAX_VALUE - delta);
+            assertSameAsPreviousFormat(Long.MIN_VALUE + delta);
+        }
+    }
+
+    @Test
+    public void testExactDoubleBoundary() {
+        // Prices and fiat volumes of more than 15 digits are formatted from a double, like before.
+        for (long delta = -3; delta <= 3; delta++) {
+            assertSameAsPreviousFormat(999_999_999_999_999L + delta);
+            assertSameAsPreviousFormat(-999_999_999_999_999L - delta);
+            assertSameAsPreviousFormat(999_999_999_995_000L + delta);
+            assertSameAsPreviousFormat(-999_999_999_995_000L - delta);
+        }
+    }
+
+    @Test
+    public void testRandomValues() {
+        var random = new Random(47);
+        for (int i = 0; i < 200_000; i++) {
+            assertSameAsPreviousFormat(random.nextLong() >> random.nextInt(64));
+        }
+    }
+
+    @Test
+    public void testSatoshiStringsThatAreNotLongs() {
+        for (var sats : List.of("1.5", "+12", "007", "-0", "-5.000000001", "1e3",
+                "9223372036854775808", "-9223372036854775809", "123456789012345678901234567890")) {
+            assertEquals(previousFormatSatoshis(sats), CurrencyFormat.formatSatoshis(sats), sats);
+        }
+    }
+
+    private void assertSameAsPreviousFormat(long value) {
+        assertSame("formatSatoshis(long)", value, this::previousFormatSatoshis,
+                CurrencyFormat::formatSatoshis, CurrencyFormat::appendSatoshis);
+        assertEquals(previousFormatSatoshis(Long.toString(value)),
+                CurrencyFormat.formatSatoshis(Long.toString(value)),
+                "formatSatoshis(String) " + value);
+        assertSame("formatBtc", value, this::previousFormatBtc,
+                CurrencyFormat::formatBtc, CurrencyFormat::appendBtc);
+        assertSame("formatBsq", value, this::previousFormatBsq,
+                CurrencyFormat::formatBsq, CurrencyFormat::appendBsq);
+        assertSame("formatFeeSatoshis", value, this::previousFormatFeeSatoshis,
+                CurrencyFormat::formatFeeSatoshis, CurrencyFormat::appendFeeSatoshis);
+        assertSame("formatPrice", value, this::previousFormatPrice,
+                CurrencyFormat::formatPrice, CurrencyFormat::appendPrice);
+        assertSame("formatFiatVolume", value, this::previousFormatFiatVolume,
+                CurrencyFormat::formatFiatVolume, CurrencyFormat::appendFiatVolume);
+    }
+
+    private static void assertSame(String method,
+                                   long value,
+                                   LongFunction<String> previousFormat,
+                                   LongFunction<String> format,
+                                   BiFunction<StringBuilder, Long, StringBuilder> append) {
+        var expected = formatOrThrownException(previousFormat, value);
+        assertEquals(expected, formatOrThrownException(format, value), method + " " + value);
+        assertEquals("prefix " + expected,
+                formatOrThrownException(v -> append.apply(new StringBuilder("prefix "), v).toString(), value),
+                method + " appended " + value);
+    }
+
+    /**
+     * Returns the formatted value, or the name of the exception formatting it threw, e.g., the ArithmeticException
+     * the UNNECESSARY rounding mode throws for prices beyond the precision of a double.
+     */
+    private static String formatOrThrownException(LongFunction<String> format, long value) {
+        try {
+            return format.apply(value);
+        } catch (ArithmeticException ex) {
+            return ex.getClass().getSimpleName();
+        }
+    }
+
+    @SuppressWarnings("BigDecimalMethodWithoutRoundingCalled")
+    private String previousFormatSatoshis(String sats) {
+        return satoshiFormat.format(new BigDecimal(sats).divide(SATOSHI_DIVISOR));
+    }
+
+    @SuppressWarnings("BigDecimalMethodWithoutRoundingCalled")
+    private String previousFormatSatoshis(long sats) {
+        return satoshiFormat.format(new BigDecimal(sats).divide(SATOSHI_DIVISOR));
+    }
+
+    @SuppressWarnings("BigDecimalMethodWithoutRoundingCalled")
+    private String previousFormatBtc(long sats) {
+        return btcFormat.format(new BigDecimal(sats).divide(SATOSHI_DIVISOR));
+    }
+
+    @SuppressWarnings("BigDecimalMethodWithoutRoundingCalled")
+    private String previousFormatBsq(long sats) {
+        return bsqFormat.format(new BigDecimal(sats).divide(BSQ_SATOSHI_DIVISOR));
+    }
+
+    private String previousFormatFeeSatoshis(long sats) {
+        return btcTxFeeFormat.format(BigDecimal.valueOf(sats));
+    }
+
+    private String previousFormatPrice(long price) {
+        usLocaleNumberFormat.setMinimumFractionDigits(4);
+        usLocaleNumberFormat.setMaximumFractionDigits(4);
+        usLocaleNumberFormat.setRoundingMode(UNNECESSARY);
+        return usLocaleNumberFormat.format((double) price / 10_000);
+    }
+
+    private String previousFormatFiatVolume(long volume) {
+        usLocaleNumberFormat.setMinimumFractionDigits(0);
+        usLocaleNumberFormat.setMaximumFractionDigits(0);
+        usLocaleNumberFormat.setRoundingMode(HALF_UP);
+        return usLocaleNumberFormat.format((double) volume / 10_000);
+    }
+}
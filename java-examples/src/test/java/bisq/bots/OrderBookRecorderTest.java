@@ -0,0 +1,211 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots;
+
+import bisq.proto.grpc.OfferInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+
+import static bisq.bots.OrderBookRecorder.HEADER_SIZE;
+import static bisq.bots.OrderBookRecorder.SEGMENT_END;
+import static bisq.bots.OrderBookRecorder.SEGMENT_SIZE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Records order books spanning several segments of an {@link OrderBookRecorder} history file, and reads them back,
+ * after reopening the file, and after a crash left an incomplete record at its end.
+ */
+public class OrderBookRecorderTest {
+
+    private record ExpectedBook(long time, String market, String direction, List<OfferInfo> offers) {
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private final RandomProtos randomProtos = new RandomProtos(5);
+    private final Random random = new Random(5);
+    private final Map<String, List<OfferInfo>> offersByMarket = new HashMap<>();
+    private final List<ExpectedBook> expectedBooks = new ArrayList<>();
+    private long time = 1_700_000_000_000L;
+    private Path path;
+    private OrderBookRecorder recorder;
+
+    @BeforeEach
+    public void setUp() {
+        for (var market : RandomProtos.MARKETS) {
+            offersByMarket.put(market, randomProtos.offers(150, market, time));
+        }
+        path = tempDir.resolve("order-books.bin");
+        recorder = OrderBookRecorder.open(path);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recorder.close();
+    }
+
+    @Test
+    public void testBooksRoundTripAcrossSegmentsAndReopen() throws IOException {
+        recordBooks(4_000);
+        recorder.close();
+        recorder = OrderBookRecorder.open(path);
+        recordBooks(4_000);
+        recordBook("BTC/CAD", "SELL", List.of());
+
+        assertTrue(Files.size(path) > 2L * SEGMENT_SIZE, "books span several segments");
+        assertRecordedBooks();
+    }
+
+    @Test
+    public void testIncompleteRecordAfterCrashIsDiscarded() throws IOException {
+        recordBooks(6_000);
+        recorder.close();
+
+        // A crash during a write leaves the record's payload, but not its length, which is written last.
+        var end = findEnd(path);
+        try (var channel = FileChannel.open(path, WRITE)) {
+            var incompleteRecord = ByteBuffer.allocate(300);
+            for (int i = Integer.BYTES; i < incompleteRecord.capacity(); i++) {
+                incompleteRecord.put(i, (byte) (i * 7 + 1));
+            }
+            channel.write(incompleteRecord, end);
+        }
+        assertRecordedBooks();
+
+        recorder = OrderBookRecorder.open(path);
+        assertEquals(end, findEnd(path));
+        var offers = sortedOffers("BTC/EUR");
+        offers.add(randomProtos.offer("BTC/EUR", time));
+        recordBook("BTC/EUR", "BUY", offers);
+        recordBooks(100);
+        assertRecordedBooks();
+    }
+
+    @Test
+    public void testSecondRecorderIsRejected() {
+        recordBooks(10);
+        var exception = assertThrows(IllegalStateException.class, () -> OrderBookRecorder.open(path));
+        assertTrue(exception.getMessage().endsWith("is in use by another bot."), exception.getMessage());
+
+        recorder.close();
+        assertThrows(IllegalStateException.class, () -> recordBook("BTC/EUR", "BUY", List.of()));
+        recorder = OrderBookRecorder.open(path);
+        recordBooks(10);
+        assertRecordedBooks();
+    }
+
+    /**
+     * Record books of each market and direction in turn, as their offers change between poll cycles.
+     */
+    private void recordBooks(int numBooks) {
+        for (int i = 0; i < numBooks; i++) {
+            var market = RandomProtos.MARKETS[i % RandomProtos.MARKETS.length];
+            var offers = offersByMarket.get(market);
+            for (int n = random.nextInt(4); n > 0; n--) {
+                offers.remove(random.nextInt(offers.size()));
+            }
+            for (int n = random.nextInt(4); n > 0; n--) {
+                offers.add(randomProtos.offer(market, time));
+            }
+            recordBook(market, i % 8 < 4 ? "BUY" : "SELL", sortedOffers(market));
+        }
+    }
+
+    private void recordBook(String market, String direction, List<OfferInfo> offers) {
+        time += 15_000 + random.nextInt(2_000);
+        recorder.record(Instant.ofEpochMilli(time), market, direction, offers);
+        expectedBooks.add(new ExpectedBook(time, market, direction, offers));
+    }
+
+    private void assertRecordedBooks() {
+        var books = new ArrayList<OrderBookRecorder.Book>();
+        OrderBookRecorder.scan(path, books::add);
+        assertEquals(expectedBooks.size(), books.size());
+        for (int i = 0; i < books.size(); i++) {
+            var expected = expectedBooks.get(i);
+            var book = books.get(i);
+            assertEquals(expected.time(), book.time());
+            assertEquals(expected.market(), book.market());
+            assertEquals(expected.direction(), book.direction());
+            assertEquals(expected.offers().size(), book.offers().size());
+            for (int j = 0; j < book.offers().size(); j++) {
+                var offer = expected.offers().get(j);
+                var recordedOffer = book.offers().get(j);
+                assertEquals(offer.getId(), recordedOffer.id());
+                assertEquals(0, new BigDecimal(offer.getPrice()).compareTo(recordedOffer.getPriceAsDecimal()));
+                assertEquals(offer.getAmount(), recordedOffer.amount());
+                assertEquals(offer.getMinAmount(), recordedOffer.minAmount());
+                assertEquals(offer.getDate(), recordedOffer.date());
+                assertEquals(offer.getUseMarketBasedPrice(), recordedOffer.useMarketBasedPrice());
+                assertEquals(offer.getMarketPriceMarginPct(), recordedOffer.marketPriceMarginPct());
+                assertEquals(offer.getIsBsqSwapOffer(), recordedOffer.isBsqSwapOffer());
+                assertEquals(offer.getIsMyOffer(), recordedOffer.isMyOffer());
+                assertEquals(offer.getPaymentMethodId(), recordedOffer.paymentMethodId());
+                assertEquals(offer.getOwnerNodeAddress(), recordedOffer.makerAddress());
+            }
+        }
+    }
+
+    /**
+     * Returns the file position after the last record, found by following the record lengths through the segments.
+     */
+    private static long findEnd(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, READ)) {
+            var header = ByteBuffer.allocate(Integer.BYTES);
+            long segmentStart = 0;
+            long position = 0;
+            while (true) {
+                var length = SEGMENT_END;
+                if (position + Integer.BYTES <= SEGMENT_SIZE) {
+                    header.clear();
+                    channel.read(header, segmentStart + position);
+                    length = header.getInt(0);
+                }
+                if (length == 0)
+                    return segmentStart + position;
+
+                if (length == SEGMENT_END) {
+                    segmentStart += SEGMENT_SIZE;
+                    position = 0;
+                } else {
+                    position += HEADER_SIZE + length;
+                }
+            }
+        }
+    }
+
+    private List<OfferInfo> sortedOffers(String market) {
+        var offers = new ArrayList<>(offersByMarket.get(market));
+        offers.sort(Comparator.comparing(offer -> new BigDecimal(offer.getPrice())));
+        return offers;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots;
+
+import bisq.proto.grpc.OfferInfo;
+import bisq.proto.grpc.TradeInfo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Creates offers and trades with random, but repeatable, values for tests.  BTC amounts, fees and deposits range from
+ * a few satoshis to several BTC, so their formatted widths vary.
+ */
+public class RandomProtos {
+
+    public static final String[] MARKETS = {"BTC/EUR", "BTC/USD", "BSQ/BTC", "XMR/BTC"};
+    public static final String[] PAYMENT_METHODS = {"SEPA", "ZELLE", "REVOLUT", "BLOCK_CHAINS", "F2F"};
+
+    // The earliest trade date, and the number of hours trade dates are spread over.
+    private static final long FIRST_TRADE_DATE = 1_600_000_000_000L;
+    private static final int TRADE_DATE_HOURS = 30 * 24;
+    private static final int HOUR = 60 * 60 * 1000;
+
+    private final Random random;
+    private final String[] makerAddresses = new String[300];
+
+    public RandomProtos(long seed) {
+        this.random = new Random(seed);
+        for (int i = 0; i < makerAddresses.length; i++) {
+            makerAddresses[i] = Long.toString(random.nextLong() & Long.MAX_VALUE, 36) + ".onion:9999";
+        }
+    }
+
+    /**
+     * Returns a random element of the given array.
+     */
+    public String any(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Returns an offer in the given market, created up to a day before the given time.
+     *
+     * @param market the offer's base and counter currency codes, separated by a slash, e.g., "BTC/EUR"
+     * @param time   epoch ms
+     */
+    public OfferInfo offer(String market, long time) {
+        var currencyCodes = market.split("/");
+        var isFiatMarket = currencyCodes[0].equals("BTC");
+        var price = isFiatMarket
+                ? BigDecimal.valueOf(300_000_000L + random.nextInt(50_000_000), 4)
+                : BigDecimal.valueOf(3_000 + random.nextInt(2_000), 8);
+        var amount = satoshis();
+        var minAmount = amount - random.nextInt((int) Math.min(amount / 2 + 1, Integer.MAX_VALUE));
+        var paymentMethod = isFiatMarket ? any(PAYMENT_METHODS) : "BLOCK_CHAINS";
+        return OfferInfo.newBuilder()
+                .setId(new UUID(random.nextLong(), random.nextLong()).toString())
+                .setDirection(random.nextBoolean() ? "BUY" : "SELL")
+                .setBaseCurrencyCode(currencyCodes[0])
+                .setCounterCurrencyCode(currencyCodes[1])
+                .setPrice(price.toPlainString())
+                .setUseMarketBasedPrice(random.nextBoolean())
+                .setMarketPriceMarginPct((random.nextInt(1_000) - 500) / 100.0)
+                .setAmount(amount)
+                .setMinAmount(minAmount)
+                .setVolume(toVolume(price, amount, isFiatMarket))
+                .setMinVolume(toVolume(price, minAmount, isFiatMarket))
+                .setDate(time - random.nextInt(24 * HOUR))
+                .setIsBsqSwapOffer(currencyCodes[0].equals("BSQ") && random.nextBoolean())
+                .setIsMyOffer(random.nextInt(10) == 0)
+                .setIsCurrencyForMakerFeeBtc(random.nextBoolean())
+                .setMakerFee(random.nextInt(1 << (4 + random.nextInt(16))))
+                .setTxFee(random.nextInt(100_000))
+                .setBuyerSecurityDeposit(satoshis())
+                .setSellerSecurityDeposit(satoshis())
+                .setPaymentMethodId(paymentMethod)
+                .setPaymentMethodShortName(paymentMethod)
+                .setOwnerNodeAddress(makerAddresses[random.nextInt(makerAddresses.length)])
+                .build();
+    }
+
+    /**
+     * Returns offers in the given market.
+     */
+    public List<OfferInfo> offers(int numOffers, String market, long time) {
+        var offers = new ArrayList<OfferInfo>(numOffers);
+        for (int i = 0; i < numOffers; i++) {
+            offers.add(offer(market, time));
+        }
+        return offers;
+    }
+
+    /**
+     * Returns a closed trade of an offer in the given market, on one of 30 days.
+     */
+    public TradeInfo trade(String market) {
+        var date = FIRST_TRADE_DATE + (long) random.nextInt(TRADE_DATE_HOURS) * HOUR;
+        var offer = offer(market, date);
+        return TradeInfo.newBuilder()
+                .setOffer(offer)
+                .setTradeId(offer.getId())
+                .setShortId(offer.getId().substring(0, 8))
+                .setDate(date)
+                .setTradePrice(offer.getPrice())
+                .setTradeAmountAsLong(offer.getAmount())
+                .setTradeVolume(offer.getVolume())
+                .setTxFeeAsLong(random.nextInt(50_000))
+                .setTakerFeeAsLong(random.nextInt(1 << (4 + random.nextInt(16))))
+                .setIsCurrencyForTakerFeeBtc(random.nextBoolean())
+                .setRole(random.nextBoolean() ? "BTC buyer as taker" : "BTC seller as maker")
+                .setClosingStatus(random.nextBoolean() ? "Completed" : "Canceled by peer")
+                .build();
+    }
+
+    /**
+     * Returns closed trades in random markets.
+     */
+    public List<TradeInfo> trades(int numTrades) {
+        var trades = new ArrayList<TradeInfo>(numTrades);
+        for (int i = 0; i < numTrades; i++) {
+            trades.add(trade(any(MARKETS)));
+        }
+        return trades;
+    }
+
+    /**
+     * Returns a BTC amount of up to about 10 BTC, in satoshis, of random magnitude.
+     */
+    private long satoshis() {
+        return 1 + random.nextInt(1 << (4 + random.nextInt(27)));
+    }
+
+    private static String toVolume(BigDecimal price, long amount, boolean isFiatMarket) {
+        var btcAmount = BigDecimal.valueOf(amount, 8);
+        var volume = isFiatMarket
+                ? price.multiply(btcAmount).setScale(4, RoundingMode.HALF_UP)
+                : btcAmount.divide(price, 8, RoundingMode.HALF_UP);
+        return volume.stripTrailingZeros().toPlainString();
+    }
+}
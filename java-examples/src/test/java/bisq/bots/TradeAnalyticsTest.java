@@ -0,0 +1,180 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots;
+
+import bisq.proto.grpc.TradeInfo;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static bisq.proto.grpc.GetTradesRequest.Category.CLOSED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the {@link TradeAnalytics} aggregates updated incrementally, as trades are added and changed, with the
+ * aggregates recomputed from the trades' latest versions.
+ */
+public class TradeAnalyticsTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private final RandomProtos randomProtos = new RandomProtos(11);
+    private final Random random = new Random(7);
+
+    @Test
+    public void testIncrementalUpdatesEqualRecomputedTotals() {
+        var trades = randomProtos.trades(5_000);
+        var incremental = new TradeAnalytics();
+        var latest = new LinkedHashMap<String, TradeInfo>();
+        for (int i = 0; i < trades.size(); i++) {
+            var trade = trades.get(i);
+            incremental.update(latest.put(trade.getTradeId(), trade), trade);
+            // Change some earlier trades:  their previous versions must be subtracted.
+            if (i % 10 == 9) {
+                var changed = change(trades.get(random.nextInt(i)));
+                incremental.update(latest.put(changed.getTradeId(), changed), changed);
+            }
+        }
+
+        var recomputed = new TradeAnalytics();
+        latest.values().forEach(trade -> recomputed.update(null, trade));
+        assertSameTotals(recomputed, incremental, latest.values());
+    }
+
+    @Test
+    public void testTradeStoreSyncsUpdateTotals() {
+        var trades = randomProtos.trades(5_000);
+        var store = TradeStore.inMemory();
+        for (int end = 500; end <= trades.size(); end += 500) {
+            // The daemon's closed trades list grows, and some trades change state between syncs.
+            for (int k = 0; k < 25; k++) {
+                int i = random.nextInt(end);
+                trades.set(i, change(trades.get(i)));
+            }
+            store.sync(CLOSED, new ArrayList<>(trades.subList(0, end)));
+        }
+        assertEquals(trades.size(), store.size(CLOSED));
+
+        var recomputed = new TradeAnalytics();
+        trades.forEach(trade -> recomputed.update(null, trade));
+        assertSameTotals(recomputed, store.getClosedTradeAnalytics(), trades);
+    }
+
+    @Test
+    public void testChangedTradeLeavesItsOldAggregates() {
+        var analytics = new TradeAnalytics();
+        var trade = randomProtos.trade("BTC/EUR");
+        var moved = trade.toBuilder()
+                .setDate(trade.getDate() + 2 * DAY)
+                .setOffer(trade.getOffer().toBuilder()
+                        .setBaseCurrencyCode("XMR")
+                        .setCounterCurrencyCode("BTC")
+                        .setPaymentMethodId("BLOCK_CHAINS"))
+                .build();
+        analytics.update(null, trade);
+        analytics.update(trade, moved);
+
+        var market = TradeStore.toMarket(trade);
+        var day = analytics.toDay(trade.getDate());
+        for (var totals : List.of(analytics.getTotals(market, null, null),
+                analytics.getTotals(market, trade.getOffer().getPaymentMethodId(), day))) {
+            assertEquals(0, totals.getNumTrades());
+            assertEquals(0, totals.getAmount());
+            assertEquals(0, totals.getVolume().signum());
+            assertEquals(0, totals.getTradeFeesBtc());
+            assertEquals(0, totals.getTradeFeesBsq());
+            assertEquals(0, totals.getMinerTxFees());
+            assertTrue(totals.getAveragePrice().isEmpty());
+        }
+        assertEquals(1, analytics.getTotals("XMR/BTC", "BLOCK_CHAINS", analytics.toDay(moved.getDate())).getNumTrades());
+    }
+
+    private static void assertSameTotals(TradeAnalytics expected,
+                                         TradeAnalytics actual,
+                                         Iterable<TradeInfo> trades) {
+        var days = new TreeSet<LocalDate>();
+        trades.forEach(trade -> days.add(expected.toDay(trade.getDate())));
+        var paymentMethods = new ArrayList<String>(Arrays.asList(RandomProtos.PAYMENT_METHODS));
+        paymentMethods.add(null);
+        var dayKeys = new ArrayList<LocalDate>(days);
+        dayKeys.add(null);
+        for (var market : RandomProtos.MARKETS) {
+            for (var paymentMethod : paymentMethods) {
+                for (var day : dayKeys) {
+                    var message = market + " " + paymentMethod + " " + day;
+                    assertSameTotals(expected.getTotals(market, paymentMethod, day),
+                            actual.getTotals(market, paymentMethod, day),
+                            message);
+                }
+            }
+        }
+        for (var day : days) {
+            var expectedByMarket = expected.getTotalsByMarket(day);
+            var actualByMarket = actual.getTotalsByMarket(day);
+            assertEquals(expectedByMarket.keySet(), actualByMarket.keySet());
+            expectedByMarket.forEach((market, totals) ->
+                    assertSameTotals(totals, actualByMarket.get(market), market + " " + day));
+        }
+    }
+
+    private static void assertSameTotals(TradeAnalytics.Totals expected,
+                                         TradeAnalytics.Totals actual,
+                                         String message) {
+        assertEquals(expected.getNumTrades(), actual.getNumTrades(), message);
+        assertEquals(expected.getAmount(), actual.getAmount(), message);
+        assertSameValue(expected.getVolume(), actual.getVolume(), message);
+        assertSameValue(expected.getAveragePrice(), actual.getAveragePrice(), message);
+        assertSameValue(expected.getAverageMarketPriceMarginPct(), actual.getAverageMarketPriceMarginPct(), message);
+        assertEquals(expected.getTradeFeesBtc(), actual.getTradeFeesBtc(), message);
+        assertEquals(expected.getTradeFeesBsq(), actual.getTradeFeesBsq(), message);
+        assertEquals(expected.getMinerTxFees(), actual.getMinerTxFees(), message);
+    }
+
+    private static void assertSameValue(Optional<BigDecimal> expected, Optional<BigDecimal> actual, String message) {
+        assertEquals(expected.isPresent(), actual.isPresent(), message);
+        expected.ifPresent(value -> assertSameValue(value, actual.get(), message));
+    }
+
+    // Sums with subtracted trades can have a larger scale than sums without, e.g., 1.50 instead of 1.5.
+    private static void assertSameValue(BigDecimal expected, BigDecimal actual, String message) {
+        assertEquals(0, expected.compareTo(actual), () -> message + ": expected " + expected + " but was " + actual);
+    }
+
+    /**
+     * Returns a new version of the trade, in a new state, with other values that could differ between versions.
+     */
+    private TradeInfo change(TradeInfo trade) {
+        return trade.toBuilder()
+                .setState("STATE_" + random.nextInt(1_000_000))
+                .setTradeAmountAsLong(random.nextInt(100_000_000))
+                .setTradePrice(random.nextInt(100_000) + "." + random.nextInt(100))
+                .setDate(trade.getDate() + random.nextInt(3) * DAY)
+                .setOffer(trade.getOffer().toBuilder()
+                        .setPaymentMethodId(randomProtos.any(RandomProtos.PAYMENT_METHODS)))
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots.table.builder;
+
+import bisq.bots.RandomProtos;
+import bisq.proto.grpc.OfferInfo;
+import bisq.proto.grpc.TradeInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static bisq.bots.table.builder.TableType.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares tables built in chunks by a {@link ParallelTableBuilder} with the same tables built by a
+ * {@link TableBuilder}, for chunk sizes small enough to split the rows into many chunks, whose BTC amounts have
+ * different widths and zero padding.
+ */
+public class ParallelTableBuilderTest {
+
+    private static final int[] CHUNK_SIZES = {1, 2, 3, 7, 64};
+
+    private final RandomProtos randomProtos = new RandomProtos(17);
+
+    @Test
+    public void testTradeTables() {
+        var trades = randomProtos.trades(500);
+        for (var tableType : List.of(CLOSED_TRADES_TBL, OPEN_TRADES_TBL, FAILED_TRADES_TBL)) {
+            assertSameAsTableBuilder(tableType, trades);
+        }
+    }
+
+    @Test
+    public void testTradeTablesWithZeroPaddedAmountsOfDifferentWidths() {
+        // A chunk of one amount with no decimals, and chunks of amounts with more digits before and after the point.
+        var amounts = new long[]{100_000_000L, 1L, 12_345L, 2_100_000_000_000_000L, 150_000_000L, 10L};
+        var trades = new ArrayList<TradeInfo>();
+        for (var amount : amounts) {
+            var trade = randomProtos.trade("BTC/EUR");
+            trades.add(trade.toBuilder()
+                    .setTradeAmountAsLong(amount)
+                    .setOffer(trade.getOffer().toBuilder().setAmount(amount).setMinAmount(amount))
+                    .build());
+        }
+        var reversedTrades = new ArrayList<>(trades);
+        Collections.reverse(reversedTrades);
+        for (var tableType : List.of(CLOSED_TRADES_TBL, OPEN_TRADES_TBL, FAILED_TRADES_TBL)) {
+            assertSameAsTableBuilder(tableType, trades);
+            assertSameAsTableBuilder(tableType, reversedTrades);
+        }
+    }
+
+    @Test
+    public void testOfferTables() {
+        for (var market : List.of("BTC/EUR", "XMR/BTC", "BSQ/BTC")) {
+            var offers = randomProtos.offers(300, market, 1_700_000_000_000L);
+            assertSameAsTableBuilder(OFFER_TBL, offers);
+
+            // The list's first offer decides whether every chunk shows the columns of my offers.
+            var myOffers = new ArrayList<OfferInfo>();
+            offers.forEach(offer -> myOffers.add(offer.toBuilder().setIsMyOffer(true).build()));
+            assertSameAsTableBuilder(OFFER_TBL, myOffers);
+        }
+    }
+
+    private static void assertSameAsTableBuilder(TableType tableType, List<?> protos) {
+        var expected = new TableBuilder(tableType, protos).build().toString();
+        for (var chunkSize : CHUNK_SIZES) {
+            var table = new ParallelTableBuilder(tableType, protos, chunkSize).build().toString();
+            assertEquals(expected, table, tableType + " in chunks of " + chunkSize);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.bots.table.export;
+
+import bisq.bots.RandomProtos;
+import bisq.proto.grpc.TradeInfo;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static bisq.bots.table.builder.TableType.CLOSED_TRADES_TBL;
+import static bisq.bots.table.builder.TableType.OFFER_TBL;
+import static bisq.bots.table.export.RecordFormat.CSV;
+import static bisq.bots.table.export.RecordFormat.JSON_LINES;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes closed trades with awkward strings as CSV and JSON Lines, parses the records back, and compares them with
+ * the trades they were written from.
+ */
+public class TableRecordWriterTest {
+
+    private static final String[] AWKWARD_STRINGS = {
+            "plain",
+            "a,b",
+            "say \"hi\"",
+            "line\nbreak",
+            "cr\rlf",
+            "crlf\r\nend",
+            "tab\tx",
+            "ctl\u0001\u001f\b\f",
+            "back\\slash",
+            "\u00fcn\u00efc\u00f6d\u00e9 \u20ac \ud83d\ude00",
+            ""
+    };
+
+    private final List<TradeInfo> trades = createTrades(100);
+
+    @Test
+    public void testCsvRoundTrip() {
+        var text = write(CSV);
+        assertTrue(text.endsWith("\r\n"));
+
+        var records = parseCsv(text);
+        assertEquals(trades.size() + 1, records.size());
+        var header = records.get(0);
+        assertEquals("tradeId", header.get(0));
+        assertEquals("closingStatus", header.get(header.size() - 1));
+        for (int i = 0; i < trades.size(); i++) {
+            var values = records.get(i + 1);
+            assertEquals(header.size(), values.size());
+            var record = new LinkedHashMap<String, String>();
+            for (int j = 0; j < header.size(); j++) {
+                record.put(header.get(j), values.get(j));
+            }
+            assertRecordEquals(trades.get(i), record);
+        }
+    }
+
+    @Test
+    public void testJsonLinesRoundTrip() {
+        var text = write(JSON_LINES);
+        assertTrue(text.endsWith("\n"));
+
+        var lines = text.substring(0, text.length() - 1).split("\n", -1);
+        assertEquals(trades.size(), lines.length);
+        for (int i = 0; i < trades.size(); i++) {
+            var record = parseJsonObject(lines[i]);
+            var trade = trades.get(i);
+            // JSON has no NaN literal.
+            if (Double.isNaN(trade.getOffer().getMarketPriceMarginPct()))
+                assertEquals("null", record.put("offer.marketPriceMarginPct", "NaN"));
+
+            assertRecordEquals(trade, record);
+        }
+    }
+
+    @Test
+    public void testListAndIteratorWriteSameRecords() {
+        for (var recordFormat : RecordFormat.values()) {
+            var writer = new TableRecordWriter(CLOSED_TRADES_TBL, recordFormat);
+            var fromList = new StringBuilder();
+            assertEquals(trades.size(), writer.write(trades, fromList));
+
+            // Not a StringBuilder, so records are rendered into the writer's line buffer.
+            var fromIterator = new StringWriter();
+            assertEquals(trades.size(), writer.write(trades.iterator(), fromIterator));
+            assertEquals(fromList.toString(), fromIterator.toString());
+        }
+    }
+
+    @Test
+    public void testWrongMessageTypeIsRejected() {
+        var writer = new TableRecordWriter(OFFER_TBL, CSV);
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> writer.write(List.of(trades.get(0)), new StringBuilder()));
+        assertEquals("OFFER_TBL records cannot be written from a TradeInfo", exception.getMessage());
+    }
+
+    private String write(RecordFormat recordFormat) {
+        var text = new StringBuilder();
+        assertEquals(trades.size(), new TableRecordWriter(CLOSED_TRADES_TBL, recordFormat).write(trades, text));
+        return text.toString();
+    }
+
+    private static void assertRecordEquals(TradeInfo trade, Map<String, String> record) {
+        var offer = trade.getOffer();
+        assertEquals(24, record.size());
+        assertEquals(trade.getTradeId(), record.get("tradeId"));
+        assertEquals(String.valueOf(trade.getDate()), record.get("date"));
+        assertEquals(offer.getBaseCurrencyCode(), record.get("offer.baseCurrencyCode"));
+        assertEquals(offer.getDirection(), record.get("offer.direction"));
+        assertEquals(String.valueOf(offer.getIsMyOffer()), record.get("offer.isMyOffer"));
+        assertEquals(trade.getTradePrice(), record.get("tradePrice"));
+        assertEquals(offer.getMarketPriceMarginPct(), Double.parseDouble(record.get("offer.marketPriceMarginPct")));
+        assertEquals(String.valueOf(trade.getTradeAmountAsLong()), record.get("tradeAmountAsLong"));
+        assertEquals(trade.getRole(), record.get("role"));
+        assertEquals(String.valueOf(offer.getSellerSecurityDeposit()), record.get("offer.sellerSecurityDeposit"));
+        assertEquals(trade.getClosingStatus(), record.get("closingStatus"));
+    }
+
+    /**
+     * Parse RFC 4180 CSV text into records of field values.
+     */
+    private static List<List<String>> parseCsv(String text) {
+        var records = new ArrayList<List<String>>();
+        var record = new ArrayList<String>();
+        var value = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            if (text.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    var c = text.charAt(i++);
+                    if (c == '"') {
+                        if (i < text.length() && text.charAt(i) == '"')
+                            i++;
+                        else
+                            break;
+                    }
+                    value.append(c);
+                }
+            } else {
+                while (text.charAt(i) != ',' && text.charAt(i) != '\r') {
+                    assertNotEquals('\n', text.charAt(i), "line break in an unquoted value");
+                    value.append(text.charAt(i++));
+                }
+            }
+            record.add(value.toString());
+            value.setLength(0);
+            if (text.charAt(i) == ',') {
+                i++;
+            } else {
+                assertEquals("\r\n", text.substring(i, i + 2));
+                i += 2;
+                records.add(record);
+                record = new ArrayList<>();
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Parse a flat JSON object into its members, with strings unescaped, and other values as written.
+     */
+    private static Map<String, String> parseJsonObject(String line) {
+        var members = new LinkedHashMap<String, String>();
+        var position = new int[]{1};
+        assertEquals('{', line.charAt(0));
+        while (line.charAt(position[0]) != '}') {
+            var name = parseJsonString(line, position);
+            assertEquals(':', line.charAt(position[0]++));
+            String value;
+            if (line.charAt(position[0]) == '"') {
+                value = parseJsonString(line, position);
+            } else {
+                int start = position[0];
+                while (line.charAt(position[0]) != ',' && line.charAt(position[0]) != '}')
+                    position[0]++;
+                value = line.substring(start, position[0]);
+            }
+            assertNull(members.put(name, value), "duplicate member " + name);
+            if (line.charAt(position[0]) == ',')
+                position[0]++;
+        }
+        assertEquals(line.length() - 1, position[0]);
+        return members;
+    }
+
+    private static String parseJsonString(String line, int[] position) {
+        assertEquals('"', line.charAt(position[0]++));
+        var value = new StringBuilder();
+        while (true) {
+            var c = line.charAt(position[0]++);
+            assertTrue(c >= 0x20, "unescaped control character");
+            if (c == '"')
+                return value.toString();
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            var escaped = line.charAt(position[0]++);
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'u' -> {
+                    value.append((char) Integer.parseInt(line.substring(position[0], position[0] + 4), 16));
+                    position[0] += 4;
+                }
+                default -> fail("invalid escape \\" + escaped);
+            }
+        }
+    }
+
+    /**
+     * Create closed trades with random values, with the awkward strings as trade ids and closing statuses, and a NaN
+     * market price margin in the first trade.
+     */
+    private static List<TradeInfo> createTrades(int numTrades) {
+        var trades = new ArrayList<>(new RandomProtos(3).trades(numTrades));
+        for (int i = 0; i < AWKWARD_STRINGS.length; i++) {
+            trades.set(i, trades.get(i).toBuilder()
+                    .setTradeId(AWKWARD_STRINGS[i])
+                    .setClosingStatus(AWKWARD_STRINGS[AWKWARD_STRINGS.length - 1 - i])
+                    .build());
+        }
+        var first = trades.get(0);
+        trades.set(0, first.toBuilder()
+                .setOffer(first.getOffer().toBuilder().setMarketPriceMarginPct(Double.NaN))
+                .build());
+        return trades;
+    }
+}